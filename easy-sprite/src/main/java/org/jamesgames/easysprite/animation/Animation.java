@@ -71,6 +71,25 @@ public class Animation {
         animationDescription.getFrameAtIndex(currentFrameIndex).drawFrame(g, xCoordinate, yCoordinate);
     }
 
+    /**
+     * @return True if the frame displayed can still change as time elapses, false once the animation has settled on
+     * it's last frame for good (a non looping animation that reached it's last frame, or a looping animation that loops
+     * back to the last frame itself)
+     */
+    public boolean isPlaying() {
+        int lastFrameIndex = animationDescription.getNumberOfFrames() - 1;
+        boolean loopsBackToAnotherFrame = animationDescription.isLooping() &&
+                animationDescription.getFrameIndexToLoopBackTo() != lastFrameIndex;
+        return currentFrameIndex != lastFrameIndex || loopsBackToAnotherFrame;
+    }
+
+    /**
+     * @return The frame that should currently be displayed
+     */
+    public AnimationFrame getCurrentFrame() {
+        return animationDescription.getFrameAtIndex(currentFrameIndex);
+    }
+
     public AnimationDescription getAnimationDescription() {
         return animationDescription;
     }
@@ -10,17 +10,24 @@ import java.awt.image.BufferedImage;
 /**
  * AnimationFrame represents one frame of an {@link AnimationDescription}. An AnimationFrame consists of an
  * BufferedImage and a time of how long the frame should last for.
+ * <p>
+ * A frame either owns it's whole image, or is a region of a larger image shared by many frames, when it was packed
+ * into a {@link TextureAtlas}.
  *
  * @author James Murphy
  */
 @Immutable
 public class AnimationFrame {
     private final BufferedImage frameImage;
+    private final int xCoordinateInImage;
+    private final int yCoordinateInImage;
+    private final int widthOfFrame;
+    private final int heightOfFrame;
     private final long lengthOfFrameInMilliseconds;
+    private final boolean packed;
 
     public AnimationFrame(BufferedImage frameImage, long lengthOfFrameInMilliseconds) {
-        this.frameImage = frameImage;
-        this.lengthOfFrameInMilliseconds = lengthOfFrameInMilliseconds;
+        this(frameImage, 0, 0, frameImage.getWidth(), frameImage.getHeight(), lengthOfFrameInMilliseconds, false);
     }
 
     public AnimationFrame(DrawableAnimationFrame drawableFrame) {
@@ -29,12 +36,64 @@ public class AnimationFrame {
                         Transparency.TRANSLUCENT)), drawableFrame.getLengthOfFrameInMilliseconds());
     }
 
+    /**
+     * Creates a frame that is the passed region of an image packed by a {@link TextureAtlas}
+     */
+    AnimationFrame(BufferedImage frameImage, int xCoordinateInImage, int yCoordinateInImage, int widthOfFrame,
+            int heightOfFrame, long lengthOfFrameInMilliseconds) {
+        this(frameImage, xCoordinateInImage, yCoordinateInImage, widthOfFrame, heightOfFrame,
+                lengthOfFrameInMilliseconds, true);
+    }
+
+    private AnimationFrame(BufferedImage frameImage, int xCoordinateInImage, int yCoordinateInImage, int widthOfFrame,
+            int heightOfFrame, long lengthOfFrameInMilliseconds, boolean packed) {
+        this.frameImage = frameImage;
+        this.xCoordinateInImage = xCoordinateInImage;
+        this.yCoordinateInImage = yCoordinateInImage;
+        this.widthOfFrame = widthOfFrame;
+        this.heightOfFrame = heightOfFrame;
+        this.lengthOfFrameInMilliseconds = lengthOfFrameInMilliseconds;
+        this.packed = packed;
+    }
+
     public void drawFrame(Graphics2D g, int xCoordinate, int yCoordinate) {
-        g.drawImage(frameImage, xCoordinate, yCoordinate, null);
+        if (isWholeImage()) {
+            g.drawImage(frameImage, xCoordinate, yCoordinate, null);
+        } else {
+            g.drawImage(frameImage, xCoordinate, yCoordinate, xCoordinate + widthOfFrame, yCoordinate + heightOfFrame,
+                    xCoordinateInImage, yCoordinateInImage, xCoordinateInImage + widthOfFrame,
+                    yCoordinateInImage + heightOfFrame, null);
+        }
+    }
+
+    private boolean isWholeImage() {
+        return xCoordinateInImage == 0 && yCoordinateInImage == 0 && widthOfFrame == frameImage.getWidth() &&
+                heightOfFrame == frameImage.getHeight();
     }
 
     public long getLengthOfFrameInMilliseconds() {
         return lengthOfFrameInMilliseconds;
     }
 
+    public int getWidthOfFrame() {
+        return widthOfFrame;
+    }
+
+    public int getHeightOfFrame() {
+        return heightOfFrame;
+    }
+
+    /**
+     * @return True if the frame is a region of an image packed into a {@link TextureAtlas}
+     */
+    public boolean isPacked() {
+        return packed;
+    }
+
+    /**
+     * @return The image the frame is drawn from, which may be shared with other frames
+     */
+    BufferedImage getFrameImage() {
+        return frameImage;
+    }
 }
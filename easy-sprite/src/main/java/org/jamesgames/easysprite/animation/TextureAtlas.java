@@ -0,0 +1,345 @@
+package org.jamesgames.easysprite.animation;
+
+import net.jcip.annotations.ThreadSafe;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+/**
+ * TextureAtlas holds the frames of many {@link AnimationDescription}s packed together into a few large images, rather
+ * than every {@link AnimationFrame} owning it's own small image. Fewer and larger images take up less memory, are
+ * easier for Java2D to keep accelerated, and frames drawn one after another are read from the same image.
+ * <p>
+ * An atlas is created by a {@link TextureAtlasBuilder}, which packs the frames onto shelves of atlas images, tallest
+ * frames first. Each AnimationDescription added to the builder has a packed copy in the atlas, with the same frame
+ * timing and looping, whose frames draw their region of an atlas image (see {@link
+ * TextureAtlas#getPackedAnimationDescription(AnimationDescription)}). Once the packed copies are used in place of the
+ * original AnimationDescriptions, the images of the original frames can be garbage collected. A frame used by many
+ * AnimationDescriptions is only packed once.
+ * <p>
+ * The memory the frames took up before and after packing is kept, see {@link TextureAtlas#getMemoryReport()}.
+ *
+ * @author James Murphy
+ */
+@ThreadSafe
+public final class TextureAtlas {
+    private final List<BufferedImage> atlasImages;
+    private final List<AnimationDescription> packedAnimationDescriptions;
+    // Doesn't keep the original descriptions, and through them the images of the original frames, from being collected
+    private final Map<AnimationDescription, AnimationDescription> packedAnimationDescriptionsByOriginal;
+    private final int packedFrameCount;
+    private final int imageCountBeforePacking;
+    private final long bytesBeforePacking;
+    private final long bytesAfterPacking;
+    private final long pixelsUsedByFrames;
+    private final long pixelsOfAtlasImages;
+
+    private TextureAtlas(List<BufferedImage> atlasImages, List<AnimationDescription> originalAnimationDescriptions,
+            List<AnimationDescription> packedAnimationDescriptions, int packedFrameCount,
+            int imageCountBeforePacking, long bytesBeforePacking, long pixelsUsedByFrames) {
+        this.atlasImages = Collections.unmodifiableList(atlasImages);
+        this.packedAnimationDescriptions = Collections.unmodifiableList(packedAnimationDescriptions);
+        Map<AnimationDescription, AnimationDescription> descriptionsByOriginal = new WeakHashMap<>();
+        for (int i = 0; i < originalAnimationDescriptions.size(); i++) {
+            descriptionsByOriginal.put(originalAnimationDescriptions.get(i), packedAnimationDescriptions.get(i));
+        }
+        packedAnimationDescriptionsByOriginal = Collections.synchronizedMap(descriptionsByOriginal);
+        this.packedFrameCount = packedFrameCount;
+        this.imageCountBeforePacking = imageCountBeforePacking;
+        this.bytesBeforePacking = bytesBeforePacking;
+        this.bytesAfterPacking = atlasImages.stream().mapToLong(TextureAtlas::bytesOf).sum();
+        this.pixelsUsedByFrames = pixelsUsedByFrames;
+        this.pixelsOfAtlasImages =
+                atlasImages.stream().mapToLong(image -> (long) image.getWidth() * image.getHeight()).sum();
+    }
+
+    /**
+     * @return The packed copy of the passed AnimationDescription, which draws it's frames from the atlas
+     */
+    public AnimationDescription getPackedAnimationDescription(AnimationDescription originalAnimationDescription) {
+        AnimationDescription packedAnimationDescription =
+                packedAnimationDescriptionsByOriginal.get(originalAnimationDescription);
+        if (packedAnimationDescription == null) {
+            throw new IllegalArgumentException("Animation description was not packed into this atlas");
+        }
+        return packedAnimationDescription;
+    }
+
+    /**
+     * @return The packed copies of the AnimationDescriptions, in the order they were added to the builder
+     */
+    public List<AnimationDescription> getPackedAnimationDescriptions() {
+        return packedAnimationDescriptions;
+    }
+
+    public List<BufferedImage> getAtlasImages() {
+        return atlasImages;
+    }
+
+    public int getPackedFrameCount() {
+        return packedFrameCount;
+    }
+
+    /**
+     * @return Number of distinct images the frames were drawn from before packing
+     */
+    public int getImageCountBeforePacking() {
+        return imageCountBeforePacking;
+    }
+
+    /**
+     * @return Memory the images the frames were drawn from took up before packing
+     */
+    public long getBytesBeforePacking() {
+        return bytesBeforePacking;
+    }
+
+    /**
+     * @return Memory the atlas images take up
+     */
+    public long getBytesAfterPacking() {
+        return bytesAfterPacking;
+    }
+
+    /**
+     * @return Fraction of the pixels of the atlas images that are covered by frames, the rest is padding and space
+     * the packing couldn't fill
+     */
+    public double getPixelUsage() {
+        return pixelsOfAtlasImages == 0 ? 0 : (double) pixelsUsedByFrames / pixelsOfAtlasImages;
+    }
+
+    /**
+     * @return A short description of the images and memory the frames took up before and after packing
+     */
+    public String getMemoryReport() {
+        return String.format("Packed %d frames%nBefore packing: %d images, %d bytes%n" +
+                        "After packing: %d images, %d bytes, %.1f%% of atlas pixels used by frames",
+                packedFrameCount, imageCountBeforePacking, bytesBeforePacking, atlasImages.size(), bytesAfterPacking,
+                getPixelUsage() * 100);
+    }
+
+    private static long bytesOf(BufferedImage image) {
+        DataBuffer dataBuffer = image.getRaster().getDataBuffer();
+        return (long) dataBuffer.getSize() * dataBuffer.getNumBanks() *
+                DataBuffer.getDataTypeSize(dataBuffer.getDataType()) / 8;
+    }
+
+
+    /**
+     * TextureAtlasBuilder builds {@link TextureAtlas}s.
+     */
+    public static class TextureAtlasBuilder {
+        private static final int defaultMaxAtlasImageSize = 2048;
+        private static final int defaultPaddingBetweenFrames = 1;
+        private static final Comparator<AnimationFrame> packingOrder =
+                Comparator.comparingInt(AnimationFrame::getHeightOfFrame)
+                        .thenComparingInt(AnimationFrame::getWidthOfFrame).reversed();
+
+        private final List<AnimationDescription> animationDescriptions = new ArrayList<>();
+        private int maxAtlasImageWidth = defaultMaxAtlasImageSize;
+        private int maxAtlasImageHeight = defaultMaxAtlasImageSize;
+        private int paddingBetweenFrames = defaultPaddingBetweenFrames;
+
+        public TextureAtlasBuilder addAnimationDescription(AnimationDescription animationDescription) {
+            if (animationDescription == null) {
+                throw new IllegalArgumentException("Animation description cannot be null");
+            }
+            if (animationDescriptions.stream().noneMatch(added -> added == animationDescription)) {
+                animationDescriptions.add(animationDescription);
+            }
+            return this;
+        }
+
+        public TextureAtlasBuilder addAnimationDescriptions(List<AnimationDescription> animationDescriptions) {
+            animationDescriptions.forEach(this::addAnimationDescription);
+            return this;
+        }
+
+        /**
+         * Sets the largest an atlas image can be, a frame larger than this is given an atlas image of it's own
+         */
+        public TextureAtlasBuilder setMaxAtlasImageSize(int maxAtlasImageWidth, int maxAtlasImageHeight) {
+            if (maxAtlasImageWidth <= 0 || maxAtlasImageHeight <= 0) {
+                throw new IllegalArgumentException("Max atlas image size must be greater than 0");
+            }
+            this.maxAtlasImageWidth = maxAtlasImageWidth;
+            this.maxAtlasImageHeight = maxAtlasImageHeight;
+            return this;
+        }
+
+        /**
+         * Sets the number of empty pixels between packed frames, which keeps neighbouring frames from bleeding into
+         * each other when frames are drawn scaled or rotated
+         */
+        public TextureAtlasBuilder setPaddingBetweenFrames(int paddingBetweenFrames) {
+            if (paddingBetweenFrames < 0) {
+                throw new IllegalArgumentException("Padding between frames cannot be negative");
+            }
+            this.paddingBetweenFrames = paddingBetweenFrames;
+            return this;
+        }
+
+        public TextureAtlas createTextureAtlas() {
+            if (animationDescriptions.isEmpty()) {
+                throw new IllegalArgumentException("At least one animation description must be added");
+            }
+            List<AnimationFrame> framesToPack = new ArrayList<>();
+            Set<AnimationFrame> framesSeen = Collections.newSetFromMap(new IdentityHashMap<>());
+            Set<BufferedImage> imagesBeforePacking = Collections.newSetFromMap(new IdentityHashMap<>());
+            for (AnimationDescription animationDescription : animationDescriptions) {
+                for (int i = 0; i < animationDescription.getNumberOfFrames(); i++) {
+                    AnimationFrame frame = animationDescription.getFrameAtIndex(i);
+                    if (framesSeen.add(frame)) {
+                        framesToPack.add(frame);
+                        imagesBeforePacking.add(frame.getFrameImage());
+                    }
+                }
+            }
+            framesToPack.sort(packingOrder);
+
+            List<AtlasImageLayout> layouts = new ArrayList<>();
+            Map<AnimationFrame, AtlasImageLayout> layoutByFrame = new IdentityHashMap<>();
+            Map<AnimationFrame, Point> locationByFrame = new IdentityHashMap<>();
+            long pixelsUsedByFrames = 0;
+            for (AnimationFrame frame : framesToPack) {
+                pixelsUsedByFrames += (long) frame.getWidthOfFrame() * frame.getHeightOfFrame();
+                Point location = null;
+                for (AtlasImageLayout layout : layouts) {
+                    location = layout.place(frame);
+                    if (location != null) {
+                        layoutByFrame.put(frame, layout);
+                        break;
+                    }
+                }
+                if (location == null) {
+                    // Frames larger than the max atlas image size get an atlas image of their own
+                    AtlasImageLayout layout = new AtlasImageLayout(
+                            Math.max(maxAtlasImageWidth, frame.getWidthOfFrame()),
+                            Math.max(maxAtlasImageHeight, frame.getHeightOfFrame()), paddingBetweenFrames);
+                    layouts.add(layout);
+                    location = layout.place(frame);
+                    layoutByFrame.put(frame, layout);
+                }
+                locationByFrame.put(frame, location);
+            }
+
+            List<BufferedImage> atlasImages = new ArrayList<>();
+            Map<AtlasImageLayout, BufferedImage> imageByLayout = new IdentityHashMap<>();
+            for (AtlasImageLayout layout : layouts) {
+                // Atlas images are only as large as the frames on them need
+                BufferedImage atlasImage =
+                        createAtlasImage(Math.max(1, layout.usedWidth), Math.max(1, layout.usedHeight));
+                atlasImages.add(atlasImage);
+                imageByLayout.put(layout, atlasImage);
+            }
+            Map<AnimationFrame, AnimationFrame> packedFrameByFrame = new IdentityHashMap<>();
+            Map<BufferedImage, Graphics2D> graphicsByAtlasImage = new IdentityHashMap<>();
+            for (AnimationFrame frame : framesToPack) {
+                BufferedImage atlasImage = imageByLayout.get(layoutByFrame.get(frame));
+                Point location = locationByFrame.get(frame);
+                Graphics2D g = graphicsByAtlasImage.computeIfAbsent(atlasImage, image -> {
+                    Graphics2D atlasGraphics = image.createGraphics();
+                    // Copy the pixels of the frames as they are, rather than blending them onto the empty image
+                    atlasGraphics.setComposite(AlphaComposite.Src);
+                    return atlasGraphics;
+                });
+                frame.drawFrame(g, location.x, location.y);
+                packedFrameByFrame.put(frame, new AnimationFrame(atlasImage, location.x, location.y,
+                        frame.getWidthOfFrame(), frame.getHeightOfFrame(), frame.getLengthOfFrameInMilliseconds()));
+            }
+            graphicsByAtlasImage.values().forEach(Graphics::dispose);
+
+            List<AnimationDescription> packedAnimationDescriptions = new ArrayList<>();
+            for (AnimationDescription animationDescription : animationDescriptions) {
+                List<AnimationFrame> packedFrames = new ArrayList<>();
+                for (int i = 0; i < animationDescription.getNumberOfFrames(); i++) {
+                    packedFrames.add(packedFrameByFrame.get(animationDescription.getFrameAtIndex(i)));
+                }
+                packedAnimationDescriptions.add(new AnimationDescription.AnimationDescriptionBuilder()
+                        .setAnimationFramesToUse(packedFrames)
+                        .setFrameIndexToLoopBackTo(animationDescription.getFrameIndexToLoopBackTo())
+                        .setLooping(animationDescription.isLooping()).createAnimation());
+            }
+
+            return new TextureAtlas(atlasImages, animationDescriptions, packedAnimationDescriptions,
+                    framesToPack.size(), imagesBeforePacking.size(),
+                    imagesBeforePacking.stream().mapToLong(TextureAtlas::bytesOf).sum(), pixelsUsedByFrames);
+        }
+
+        private static BufferedImage createAtlasImage(int width, int height) {
+            if (GraphicsEnvironment.isHeadless()) {
+                return new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+            }
+            return GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice()
+                    .getDefaultConfiguration().createCompatibleImage(width, height, Transparency.TRANSLUCENT);
+        }
+    }
+
+    /**
+     * Places frames on horizontal shelves of an atlas image. A frame goes on the shortest shelf it fits on, or on a new
+     * shelf below the others. As frames are placed tallest first, each shelf is as tall as it's first frame.
+     */
+    private static final class AtlasImageLayout {
+        private final int maxWidth;
+        private final int maxHeight;
+        private final int padding;
+        private final List<Shelf> shelves = new ArrayList<>();
+        private int usedWidth = 0;
+        private int usedHeight = 0;
+
+        private AtlasImageLayout(int maxWidth, int maxHeight, int padding) {
+            this.maxWidth = maxWidth;
+            this.maxHeight = maxHeight;
+            this.padding = padding;
+        }
+
+        /**
+         * @return The location the frame was placed at, or null if it doesn't fit
+         */
+        private Point place(AnimationFrame frame) {
+            int width = frame.getWidthOfFrame();
+            int height = frame.getHeightOfFrame();
+            Shelf bestShelf = null;
+            for (Shelf shelf : shelves) {
+                if (height <= shelf.height && shelf.nextX + width <= maxWidth &&
+                        (bestShelf == null || shelf.height < bestShelf.height)) {
+                    bestShelf = shelf;
+                }
+            }
+            if (bestShelf == null) {
+                int shelfY = shelves.isEmpty() ? 0 : usedHeight + padding;
+                if (width > maxWidth || shelfY + height > maxHeight) {
+                    return null;
+                }
+                bestShelf = new Shelf(shelfY, height);
+                shelves.add(bestShelf);
+            }
+            Point location = new Point(bestShelf.nextX, bestShelf.y);
+            bestShelf.nextX += width + padding;
+            usedWidth = Math.max(usedWidth, location.x + width);
+            usedHeight = Math.max(usedHeight, location.y + height);
+            return location;
+        }
+    }
+
+    private static final class Shelf {
+        private final int y;
+        private final int height;
+        private int nextX = 0;
+
+        private Shelf(int y, int height) {
+            this.y = y;
+            this.height = height;
+        }
+    }
+}
@@ -12,6 +12,7 @@ import java.awt.*;
 import java.awt.event.KeyEvent;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
 
 
 /**
@@ -54,7 +55,8 @@ public class MainShapeExample {
             GameInputPanel gameInputPanel = new GameInputPanel(gameInputs);
             gameInputPanel.setOpaque(false);
 
-            Sprite board = new ParentShapeContainerSprite(width, height, moveLeft, moveRight, moveUp, moveDown);
+            Sprite board = new ParentShapeContainerSprite(width, height, moveLeft, moveRight, moveUp, moveDown,
+                    new Random());
 
             SpritePanel boardPanel = new SpritePanel(board, true);
             boardPanel.bindGameInputs(gameInputs);
@@ -64,7 +66,8 @@ public class MainShapeExample {
             boardPanel.setTimeValueDisplayColor(Color.BLACK);
 
             SpriteUpdater boardUpdater = new SpriteUpdater(board, 16);
-            boardUpdater.addAdditionalActionPerUpdate(elapsedTimeInMilliseconds -> boardPanel.repaint());
+            boardUpdater.addAdditionalActionPerUpdate(
+                    elapsedTimeInMilliseconds -> boardPanel.repaintChangedRegions());
             boardUpdater.addUpdateListener(boardPanel);
 
             frame.add(boardPanel);
@@ -4,8 +4,10 @@ import org.jamesgames.easysprite.physics.partitioning.SimpleSpacePartitioner;
 import org.jamesgames.easysprite.physics.simple.SimpleCollisionDirection;
 import org.jamesgames.easysprite.physics.simple.SimpleShapeCollisionDetection;
 import org.jamesgames.easysprite.sprite.Sprite;
+import org.jamesgames.easysprite.sprite.SpriteDrawing;
 
 import java.awt.*;
+import java.util.Random;
 
 /**
  * SimpleSquareSprite is another example {@link Sprite} that simply bounces off the edge of their parent sprite.
@@ -17,13 +19,16 @@ import java.awt.*;
 public class NestableSquareSprite extends Sprite {
 
     private final Color backgroundColor;
+    private final SpriteDrawing snapshotDrawing;
 
-    public NestableSquareSprite(int width, int height, Color color, int nestLevel) {
+    public NestableSquareSprite(int width, int height, Color color, int nestLevel, Random random) {
         super(width, height);
         backgroundColor = color;
+        snapshotDrawing = (g, x, y, drawingWidth, drawingHeight) ->
+                drawSquare(g, color, x, y, drawingWidth, drawingHeight);
 
         float maxVelocity = .08f / nestLevel;
-        setVelocitiesToRandomAmount(maxVelocity, .50f);
+        setVelocitiesToRandomAmount(maxVelocity, .50f, random);
 
         setSpacePartitioner(new SimpleSpacePartitioner());
 
@@ -43,19 +48,19 @@ public class NestableSquareSprite extends Sprite {
             }
 
             NestableSquareSprite spriteToAdd =
-                    new NestableSquareSprite(squareWidth, squareHeight, squareColor, nestLevel * 2);
+                    new NestableSquareSprite(squareWidth, squareHeight, squareColor, nestLevel * 2, random);
             spriteToAdd.setXCoordinateTopLeft(10);
             spriteToAdd.setYCoordinateTopLeft(10);
             addChildSprite(spriteToAdd);
-            spriteToAdd = new NestableSquareSprite(width / 3, height / 3, squareColor, nestLevel * 2);
+            spriteToAdd = new NestableSquareSprite(width / 3, height / 3, squareColor, nestLevel * 2, random);
             spriteToAdd.setXCoordinateTopLeft(width - squareWidth - 10);
             spriteToAdd.setYCoordinateTopLeft(10);
             addChildSprite(spriteToAdd);
-            spriteToAdd = new NestableSquareSprite(width / 3, height / 3, squareColor, nestLevel * 2);
+            spriteToAdd = new NestableSquareSprite(width / 3, height / 3, squareColor, nestLevel * 2, random);
             spriteToAdd.setXCoordinateTopLeft(10);
             spriteToAdd.setYCoordinateTopLeft(height - squareHeight - 10);
             addChildSprite(spriteToAdd);
-            spriteToAdd = new NestableSquareSprite(width / 3, height / 3, squareColor, nestLevel * 2);
+            spriteToAdd = new NestableSquareSprite(width / 3, height / 3, squareColor, nestLevel * 2, random);
             spriteToAdd.setXCoordinateTopLeft(width - squareWidth - 10);
             spriteToAdd.setYCoordinateTopLeft(height - squareHeight - 10);
             addChildSprite(spriteToAdd);
@@ -71,14 +76,20 @@ public class NestableSquareSprite extends Sprite {
     @Override
     protected synchronized void drawUnderChildren(Graphics2D g) {
         super.drawUnderChildren(g);
-        g.setColor(backgroundColor);
-        g.fillRect(getXDrawingCoordinateTopLeft(),
-                getYDrawingCoordinateTopLeft(),
-                getWidth() - 1, getHeight() - 1);
+        drawSquare(g, backgroundColor, getXDrawingCoordinateTopLeft(), getYDrawingCoordinateTopLeft(), getWidth(),
+                getHeight());
+    }
+
+    @Override
+    protected synchronized SpriteDrawing getSnapshotDrawingUnderChildren() {
+        return snapshotDrawing;
+    }
+
+    private static void drawSquare(Graphics2D g, Color color, int x, int y, int width, int height) {
+        g.setColor(color);
+        g.fillRect(x, y, width - 1, height - 1);
         g.setColor(Color.DARK_GRAY);
-        g.drawRect(getXDrawingCoordinateTopLeft(),
-                getYDrawingCoordinateTopLeft(),
-                getWidth() - 1, getHeight() - 1);
+        g.drawRect(x, y, width - 1, height - 1);
     }
 
     @Override
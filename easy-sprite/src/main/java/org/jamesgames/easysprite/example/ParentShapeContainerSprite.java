@@ -3,8 +3,10 @@ package org.jamesgames.easysprite.example;
 import org.jamesgames.easysprite.input.GameInput;
 import org.jamesgames.easysprite.physics.partitioning.SimpleSpacePartitioner;
 import org.jamesgames.easysprite.sprite.Sprite;
+import org.jamesgames.easysprite.sprite.SpriteDrawing;
 
 import java.awt.*;
+import java.util.Random;
 
 /**
  * ShapeSpriteBoard is a Sprite that acts as the parent container for all Sprites in this example. This sprite simply
@@ -14,10 +16,16 @@ import java.awt.*;
  */
 public class ParentShapeContainerSprite extends Sprite {
 
-    public ParentShapeContainerSprite(int x, int y, GameInput left, GameInput right, GameInput up, GameInput down) {
+    /**
+     * @param random
+     *         Random source of the whole example, seed it to have the example start out the same every time
+     */
+    public ParentShapeContainerSprite(int x, int y, GameInput left, GameInput right, GameInput up, GameInput down,
+            Random random) {
         super(x, y);
+        setRandom(random);
         setSpacePartitioner(new SimpleSpacePartitioner());
-        addChildShapeSprites();
+        addChildShapeSprites(random);
         addChildPlayerSprite(left, right, up, down);
     }
 
@@ -28,13 +36,13 @@ public class ParentShapeContainerSprite extends Sprite {
         addChildSprite(player);
     }
 
-    private void addChildShapeSprites() {
+    private void addChildShapeSprites(Random random) {
         int margin = 50;
         int shapesToCreate = 4;
         int shapesPerRow = (int) Math.round(Math.ceil(Math.sqrt(shapesToCreate)));
         for (int numberOfShapeSpritesCreated = 0; numberOfShapeSpritesCreated < shapesToCreate;
              numberOfShapeSpritesCreated++) {
-            ShapeSprite shapeSprite = new ShapeSprite();
+            ShapeSprite shapeSprite = new ShapeSprite(random);
             shapeSprite.setXCoordinateTopLeft((shapeSprite.getWidth() * (numberOfShapeSpritesCreated % shapesPerRow)) +
                     margin);
             shapeSprite.setYCoordinateTopLeft((shapeSprite.getHeight() * (numberOfShapeSpritesCreated / shapesPerRow)) +
@@ -45,7 +53,16 @@ public class ParentShapeContainerSprite extends Sprite {
 
     @Override
     protected synchronized void drawUnderChildren(Graphics2D g) {
+        drawBackground(g, getXDrawingCoordinateTopLeft(), getYDrawingCoordinateTopLeft(), getWidth(), getHeight());
+    }
+
+    @Override
+    protected synchronized SpriteDrawing getSnapshotDrawingUnderChildren() {
+        return ParentShapeContainerSprite::drawBackground;
+    }
+
+    private static void drawBackground(Graphics2D g, int x, int y, int width, int height) {
         g.setColor(Color.WHITE);
-        g.fillRect(getXDrawingCoordinateTopLeft(), getYDrawingCoordinateTopLeft(), getWidth(), getHeight());
+        g.fillRect(x, y, width, height);
     }
 }
@@ -2,6 +2,7 @@ package org.jamesgames.easysprite.example;
 
 import org.jamesgames.easysprite.input.GameInput;
 import org.jamesgames.easysprite.sprite.Sprite;
+import org.jamesgames.easysprite.sprite.SpriteDrawing;
 
 import java.awt.*;
 
@@ -33,22 +34,21 @@ public class PlayerSprite extends Sprite {
     @Override
     protected synchronized void drawUnderChildren(Graphics2D g) {
         super.drawUnderChildren(g);
+        drawPlayer(g, getXDrawingCoordinateTopLeft(), getYDrawingCoordinateTopLeft(), getWidth(), getHeight());
+    }
+
+    @Override
+    protected synchronized SpriteDrawing getSnapshotDrawingUnderChildren() {
+        return PlayerSprite::drawPlayer;
+    }
+
+    private static void drawPlayer(Graphics2D g, int x, int y, int width, int height) {
         g.setColor(Color.ORANGE);
-        g.fillRect(getXDrawingCoordinateTopLeft(),
-                getYDrawingCoordinateTopLeft(),
-                getWidth() - 1, getHeight() - 1);
+        g.fillRect(x, y, width - 1, height - 1);
         g.setColor(Color.DARK_GRAY);
-        g.drawRect(getXDrawingCoordinateTopLeft(),
-                getYDrawingCoordinateTopLeft(),
-                getWidth() - 1, getHeight() - 1);
-        g.drawLine(getXDrawingCoordinateTopLeft(),
-                getYDrawingCoordinateTopLeft() + getHeight() - 1,
-                getXDrawingCoordinateTopLeft() + getWidth() - 1,
-                getYDrawingCoordinateTopLeft());
-        g.drawLine(getXDrawingCoordinateTopLeft(),
-                getYDrawingCoordinateTopLeft(),
-                getXDrawingCoordinateTopLeft() + getWidth() - 1,
-                getYDrawingCoordinateTopLeft() + getHeight() - 1);
+        g.drawRect(x, y, width - 1, height - 1);
+        g.drawLine(x, y + height - 1, x + width - 1, y);
+        g.drawLine(x, y, x + width - 1, y + height - 1);
     }
 
     @Override
@@ -20,7 +20,6 @@ import java.util.Random;
  * @author James Murphy
  */
 public class ShapeSprite extends StatefulSprite<ShapeSpriteStates> {
-    private static final Random randomGen = new Random();
     private static final int width = 330;
     private static final int height = 330;
     private static final long timeToWaitBeforeChangingShape = 1_000_000L * 3000L;
@@ -138,14 +137,19 @@ public class ShapeSprite extends StatefulSprite<ShapeSpriteStates> {
                         .createStatesToAnimationMap();
     }
 
-    public ShapeSprite() {
+    /**
+     * @param random
+     *         Random source to pick the velocity and shape from, passed in as the ShapeSprite has no parent sprite to
+     *         take a random source from yet
+     */
+    public ShapeSprite(Random random) {
         super(stateToAnimationMap);
         setWidth(width);
         setHeight(height);
 
         float maxVelocity = .15f;
-        setVelocitiesToRandomAmount(maxVelocity, .50f);
-        if (randomGen.nextBoolean()) {
+        setVelocitiesToRandomAmount(maxVelocity, .50f, random);
+        if (random.nextBoolean()) {
             setStateActive(ShapeSpriteStates.isACircle);
         } else {
             setStateActive((ShapeSpriteStates.isASquare));
@@ -160,19 +164,19 @@ public class ShapeSprite extends StatefulSprite<ShapeSpriteStates> {
         int squareWidth = width / 3;
         int squareHeight = height / 3;
         Color squareColor = Color.GREEN;
-        NestableSquareSprite spriteToAdd = new NestableSquareSprite(squareWidth, squareHeight, squareColor, 1);
+        NestableSquareSprite spriteToAdd = new NestableSquareSprite(squareWidth, squareHeight, squareColor, 1, random);
         spriteToAdd.setXCoordinateTopLeft(10);
         spriteToAdd.setYCoordinateTopLeft(10);
         addChildSprite(spriteToAdd);
-        spriteToAdd = new NestableSquareSprite(width / 3, height / 3, squareColor, 1);
+        spriteToAdd = new NestableSquareSprite(width / 3, height / 3, squareColor, 1, random);
         spriteToAdd.setXCoordinateTopLeft(width - squareWidth - 10);
         spriteToAdd.setYCoordinateTopLeft(10);
         addChildSprite(spriteToAdd);
-        spriteToAdd = new NestableSquareSprite(width / 3, height / 3, squareColor, 1);
+        spriteToAdd = new NestableSquareSprite(width / 3, height / 3, squareColor, 1, random);
         spriteToAdd.setXCoordinateTopLeft(10);
         spriteToAdd.setYCoordinateTopLeft(height - squareHeight - 10);
         addChildSprite(spriteToAdd);
-        spriteToAdd = new NestableSquareSprite(width / 3, height / 3, squareColor, 1);
+        spriteToAdd = new NestableSquareSprite(width / 3, height / 3, squareColor, 1, random);
         spriteToAdd.setXCoordinateTopLeft(width - squareWidth - 10);
         spriteToAdd.setYCoordinateTopLeft(height - squareHeight - 10);
         addChildSprite(spriteToAdd);
@@ -0,0 +1,334 @@
+package org.jamesgames.easysprite.gui.swing;
+
+import org.jamesgames.easysprite.input.GameInput;
+import org.jamesgames.easysprite.sprite.Sprite;
+import org.jamesgames.easysprite.updater.CatchUpPolicy;
+import org.jamesgames.easysprite.updater.PreciseTickScheduler;
+import org.jamesgames.easysprite.updater.RenderSnapshotPublisher;
+import org.jamesgames.easysprite.updater.ScheduledTick;
+import org.jamesgames.easysprite.updater.TickScheduler;
+import org.jamesgames.easysprite.updater.UpdateListener;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.ComponentAdapter;
+import java.awt.event.ComponentEvent;
+import java.awt.image.BufferStrategy;
+import java.util.List;
+
+/**
+ * ActiveSpritePanel is a JPanel that displays a {@link Sprite} by actively rendering it, rather than waiting on Swing
+ * to paint it like {@link SpritePanel} does. The Sprite is drawn to a {@link Canvas} filling the panel through a
+ * {@link BufferStrategy}, by a render loop of it's own that runs at a target frame rate independent of any {@link
+ * org.jamesgames.easysprite.updater.SpriteUpdater}, so frames are neither coalesced nor held up by the event dispatch
+ * thread. The render loop runs on a {@link TickScheduler}, by default a {@link PreciseTickScheduler} with a thread of
+ * it's own that skips frames it's too late for.
+ * <p>
+ * The panel itself rather than the canvas takes the keyboard focus, so {@link GameInput}s can be bound to it the same
+ * as to a SpritePanel. Lightweight components added to the panel are hidden by the canvas, as the canvas is a
+ * heavyweight component.
+ * <p>
+ * How long frames take is kept, see {@link ActiveSpritePanel#getAverageFrameIntervalInNanoseconds()}.
+ *
+ * @author James Murphy
+ */
+@SuppressWarnings("serial")
+public class ActiveSpritePanel extends JPanel implements UpdateListener {
+
+    private static final long numberOfNanosecondsInSecond = 1_000_000_000;
+
+    private static final int numberOfBuffers = 2;
+
+    private static final String renderThreadName = "Sprite Render Thread";
+
+    /**
+     * Draws the Sprite being rendered on the panel, along with the time values
+     */
+    private final SpriteDisplay spriteDisplay;
+
+    /**
+     * Canvas the Sprite is rendered to
+     */
+    private final Canvas canvas = new Canvas();
+
+    /**
+     * Scheduler used to run the render loop
+     */
+    private final TickScheduler renderScheduler;
+
+    /**
+     * References the scheduled tick rendering frames, or null if not rendering
+     */
+    private ScheduledTick renderTask;
+
+    /**
+     * Created on the rendering thread once the canvas is displayable, only touched by the rendering thread
+     */
+    private BufferStrategy bufferStrategy;
+
+    // Frame time statistics, only written by the rendering thread
+    private long systemNanoTimeOfLastFrame = 0;
+    private volatile long lastFrameIntervalInNanoseconds = 0;
+    private volatile long maxFrameIntervalInNanoseconds = 0;
+    private volatile long totalFrameIntervalInNanoseconds = 0;
+    private volatile long frameIntervalCount = 0;
+    private volatile long lastRenderDurationInNanoseconds = 0;
+    private volatile boolean frameTimeStatisticsResetRequested = false;
+
+    /**
+     * Constructs an ActiveSpritePanel, which doesn't render until {@link ActiveSpritePanel#startRendering(int)} is
+     * called
+     *
+     * @param spriteToDisplay
+     *         The sprite that will be displayed by this panel
+     * @param resizeSpriteOnPanelResize
+     *         If true, then spriteToDisplay's {@link Sprite#resize(int, int)} method will be called when this panel is
+     *         resized with the panel's new width and height values
+     */
+    public ActiveSpritePanel(Sprite spriteToDisplay, boolean resizeSpriteOnPanelResize) {
+        this(spriteToDisplay, resizeSpriteOnPanelResize,
+                new PreciseTickScheduler.PreciseTickSchedulerBuilder().setThreadName(renderThreadName)
+                        .setCatchUpPolicy(CatchUpPolicy.skip).createTickScheduler());
+    }
+
+    /**
+     * Constructs an ActiveSpritePanel rendering on the passed TickScheduler, which doesn't render until {@link
+     * ActiveSpritePanel#startRendering(int)} is called
+     *
+     * @param spriteToDisplay
+     *         The sprite that will be displayed by this panel
+     * @param resizeSpriteOnPanelResize
+     *         If true, then spriteToDisplay's {@link Sprite#resize(int, int)} method will be called when this panel is
+     *         resized with the panel's new width and height values
+     * @param renderScheduler
+     *         Scheduler to run the render loop, best kept apart from the scheduler updating the Sprite
+     */
+    public ActiveSpritePanel(Sprite spriteToDisplay, boolean resizeSpriteOnPanelResize,
+            TickScheduler renderScheduler) {
+        super(new BorderLayout());
+        if (renderScheduler == null) {
+            throw new IllegalArgumentException("Render scheduler cannot be null");
+        }
+        this.spriteDisplay = new SpriteDisplay(spriteToDisplay);
+        this.renderScheduler = renderScheduler;
+
+        // Frames are only drawn by the render loop, and the panel keeps the focus so key bindings keep working
+        canvas.setIgnoreRepaint(true);
+        canvas.setFocusable(false);
+        setFocusable(true);
+        add(canvas, BorderLayout.CENTER);
+
+        if (resizeSpriteOnPanelResize) {
+            addComponentListener(new ComponentAdapter() {
+                public void componentResized(ComponentEvent e) {
+                    spriteToDisplay.resize(getWidth(), getHeight());
+                }
+            });
+        }
+    }
+
+    /**
+     * Starts rendering frames at the passed rate, replacing any rate rendered at before. Frames are only drawn once
+     * the panel is displayed.
+     *
+     * @param targetFramesPerSecond
+     *         Number of frames to render each second
+     */
+    public synchronized void startRendering(int targetFramesPerSecond) {
+        if (targetFramesPerSecond <= 0) {
+            throw new IllegalArgumentException("Target frames per second must be greater than 0");
+        }
+        stopRendering();
+        renderTask = renderScheduler.scheduleAtFixedRate(this::renderFrame,
+                numberOfNanosecondsInSecond / targetFramesPerSecond);
+    }
+
+    /**
+     * Stops rendering frames, safe to call even if not rendering
+     */
+    public synchronized void stopRendering() {
+        if (renderTask != null) {
+            renderTask.cancel();
+            renderTask = null;
+        }
+    }
+
+    public synchronized boolean isRendering() {
+        return renderTask != null;
+    }
+
+    /**
+     * Stops rendering when the panel is taken off screen, so the render loop doesn't keep running (and keep the panel
+     * from being garbage collected) once the panel is gone. Call {@link ActiveSpritePanel#startRendering(int)} again
+     * to render once the panel is displayed again.
+     */
+    @Override
+    public void removeNotify() {
+        stopRendering();
+        super.removeNotify();
+    }
+
+    public void bindGameInputs(List<GameInput> gameInputsToBind) {
+        spriteDisplay.bindGameInputs(gameInputsToBind, this);
+    }
+
+    public boolean isDrawingSpriteDebugGraphics() {
+        return spriteDisplay.isDrawingSpriteDebugGraphics();
+    }
+
+    public void setDrawingSpriteDebugGraphics(boolean drawingSpriteDebugGraphics) {
+        spriteDisplay.setDrawingSpriteDebugGraphics(drawingSpriteDebugGraphics);
+    }
+
+    public void toggleDrawingSpriteDebugGraphics() {
+        spriteDisplay.toggleDrawingSpriteDebugGraphics();
+    }
+
+    public boolean isDisplayingTimeValues() {
+        return spriteDisplay.isDisplayingTimeValues();
+    }
+
+    public void setDisplayingTimeValues(boolean displayingTimeValues) {
+        spriteDisplay.setDisplayingTimeValues(displayingTimeValues);
+    }
+
+    public void toggleSetDisplayingTimeValues() {
+        spriteDisplay.toggleSetDisplayingTimeValues();
+    }
+
+    public Color getTimeValueDisplayColor() {
+        return spriteDisplay.getTimeValueDisplayColor();
+    }
+
+    public void setTimeValueDisplayColor(Color timeValueDisplayColor) {
+        spriteDisplay.setTimeValueDisplayColor(timeValueDisplayColor);
+    }
+
+    /**
+     * Has the panel draw the latest {@link org.jamesgames.easysprite.sprite.RenderSnapshot} published by the passed
+     * publisher, rather than drawing the Sprite directly. Rendering then never waits on the Sprite being updated. Debug
+     * graphics are not drawn while drawing from snapshots.
+     *
+     * @param publisher
+     *         Publisher of snapshots of the Sprite this panel displays
+     */
+    public void drawFromRenderSnapshots(RenderSnapshotPublisher publisher) {
+        spriteDisplay.drawFromRenderSnapshots(publisher);
+    }
+
+    /**
+     * Goes back to drawing the Sprite directly, which is the default
+     */
+    public void drawFromSprite() {
+        spriteDisplay.drawFromSprite();
+    }
+
+    public boolean isDrawingFromRenderSnapshots() {
+        return spriteDisplay.isDrawingFromRenderSnapshots();
+    }
+
+    /**
+     * @return Time between the starts of the two most recent frames
+     */
+    public long getLastFrameIntervalInNanoseconds() {
+        return lastFrameIntervalInNanoseconds;
+    }
+
+    /**
+     * @return Average time between the starts of frames since the statistics were last reset
+     */
+    public long getAverageFrameIntervalInNanoseconds() {
+        long count = frameIntervalCount;
+        return count == 0 ? 0 : totalFrameIntervalInNanoseconds / count;
+    }
+
+    /**
+     * @return Longest time between the starts of two frames since the statistics were last reset, the worst hitch
+     */
+    public long getMaxFrameIntervalInNanoseconds() {
+        return maxFrameIntervalInNanoseconds;
+    }
+
+    /**
+     * @return Time it took to draw and show the most recent frame
+     */
+    public long getLastRenderDurationInNanoseconds() {
+        return lastRenderDurationInNanoseconds;
+    }
+
+    /**
+     * Starts the average and longest frame interval over, from the next frame on
+     */
+    public void resetFrameTimeStatistics() {
+        frameTimeStatisticsResetRequested = true;
+    }
+
+    /**
+     * Renders one frame, only called by the render loop
+     */
+    private void renderFrame() {
+        if (!canvas.isDisplayable() || canvas.getWidth() <= 0 || canvas.getHeight() <= 0) {
+            // Not on screen (yet, or anymore), a new buffer strategy is needed once it is
+            bufferStrategy = null;
+            systemNanoTimeOfLastFrame = 0;
+            return;
+        }
+        long frameStartTime = System.nanoTime();
+        recordFrameInterval(frameStartTime);
+        if (bufferStrategy == null) {
+            canvas.createBufferStrategy(numberOfBuffers);
+            bufferStrategy = canvas.getBufferStrategy();
+        }
+
+        // The contents of the buffers can be lost at any time, such as when the display mode changes
+        do {
+            do {
+                Graphics2D g = (Graphics2D) bufferStrategy.getDrawGraphics();
+                try {
+                    drawFrame(g);
+                } finally {
+                    g.dispose();
+                }
+            } while (bufferStrategy.contentsRestored());
+            bufferStrategy.show();
+        } while (bufferStrategy.contentsLost());
+        // Some platforms buffer drawing commands, sync so the frame shows up now rather than some time later
+        Toolkit.getDefaultToolkit().sync();
+
+        spriteDisplay.countFrame();
+        lastRenderDurationInNanoseconds = System.nanoTime() - frameStartTime;
+    }
+
+    private void drawFrame(Graphics2D g) {
+        int width = canvas.getWidth();
+        int height = canvas.getHeight();
+        // Clipped to the canvas so Sprites outside of it are culled
+        g.setClip(0, 0, width, height);
+        g.setColor(getBackground());
+        g.fillRect(0, 0, width, height);
+
+        spriteDisplay.draw(g);
+    }
+
+    private void recordFrameInterval(long frameStartTime) {
+        if (frameTimeStatisticsResetRequested) {
+            frameTimeStatisticsResetRequested = false;
+            maxFrameIntervalInNanoseconds = 0;
+            totalFrameIntervalInNanoseconds = 0;
+            frameIntervalCount = 0;
+        }
+        if (systemNanoTimeOfLastFrame != 0) {
+            long frameInterval = frameStartTime - systemNanoTimeOfLastFrame;
+            lastFrameIntervalInNanoseconds = frameInterval;
+            maxFrameIntervalInNanoseconds = Math.max(maxFrameIntervalInNanoseconds, frameInterval);
+            totalFrameIntervalInNanoseconds += frameInterval;
+            frameIntervalCount++;
+        }
+        systemNanoTimeOfLastFrame = frameStartTime;
+    }
+
+    @Override
+    public void newUpdatePerSecondCalculated(float updatesPerSecond) {
+        spriteDisplay.setUpdatesPerSecond(updatesPerSecond);
+    }
+}
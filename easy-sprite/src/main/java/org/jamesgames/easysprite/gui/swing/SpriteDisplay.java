@@ -0,0 +1,162 @@
+package org.jamesgames.easysprite.gui.swing;
+
+import org.jamesgames.easysprite.input.GameInput;
+import org.jamesgames.easysprite.sprite.Sprite;
+import org.jamesgames.easysprite.updater.RenderSnapshotPublisher;
+import org.jamesgames.jamesjavautils.time.ActionsPerTimeFrameCounter;
+
+import javax.swing.*;
+import java.awt.*;
+import java.text.DecimalFormat;
+import java.util.List;
+
+/**
+ * SpriteDisplay holds what {@link SpritePanel} and {@link ActiveSpritePanel} have in common about displaying a {@link
+ * Sprite}: drawing it directly or from render snapshots, the frames and updates per second overlay, debug graphics,
+ * and game input bindings. Each panel draws through it from one thread only, the event dispatch thread or the
+ * rendering thread, while the settings can be changed from any thread.
+ *
+ * @author James Murphy
+ */
+final class SpriteDisplay {
+
+    /**
+     * The amount in nano seconds of how long the frames per second value will be calculated for every new value
+     */
+    private static final long timeToCalculateNewFpsValue = 1_000_000_000;
+
+    /**
+     * The amount of actions per frame render, which is one, one render will be viewed as one action
+     */
+    private static final int amountOfActionsPerFrameRender = 1;
+
+    /**
+     * This is the Sprite that is being displayed
+     */
+    private final Sprite spriteToDisplay;
+
+    /**
+     * Used to calculate the frames per second value
+     */
+    private final ActionsPerTimeFrameCounter framesPerSecondCounter =
+            new ActionsPerTimeFrameCounter(timeToCalculateNewFpsValue);
+
+    /**
+     * Holds the most recent known updates per second value
+     */
+    private volatile float updatesPerSecond = 0;
+
+    /**
+     * If true, the frames and updates per second values are displayed
+     */
+    private volatile boolean isDisplayingTimeValues = false;
+
+    /**
+     * Preferred color to display time values in
+     */
+    private volatile Color timeValueDisplayColor = Color.WHITE;
+
+    /**
+     * Formatted used to format output of the time values, only used by the thread drawing
+     */
+    private final DecimalFormat timeValueFormatter = new DecimalFormat();
+
+    /**
+     * If not null, the latest snapshot of this publisher is drawn rather than drawing the Sprite directly
+     */
+    private volatile RenderSnapshotPublisher renderSnapshotPublisher;
+
+    SpriteDisplay(Sprite spriteToDisplay) {
+        this.spriteToDisplay = spriteToDisplay;
+        timeValueFormatter.setMaximumFractionDigits(3);
+    }
+
+    Sprite getSpriteToDisplay() {
+        return spriteToDisplay;
+    }
+
+    void bindGameInputs(List<GameInput> gameInputsToBind, JComponent componentToBindTo) {
+        gameInputsToBind.forEach(input -> input.setComponentToBindInputTo(componentToBindTo));
+    }
+
+    boolean isDrawingSpriteDebugGraphics() {
+        return spriteToDisplay.isDrawingDebugGraphics();
+    }
+
+    void setDrawingSpriteDebugGraphics(boolean drawingSpriteDebugGraphics) {
+        spriteToDisplay.setDrawingDebugGraphicsIncludingChildSprites(drawingSpriteDebugGraphics);
+    }
+
+    void toggleDrawingSpriteDebugGraphics() {
+        spriteToDisplay.toggleDrawingDebugGraphicsIncludingChildSprites();
+    }
+
+    boolean isDisplayingTimeValues() {
+        return isDisplayingTimeValues;
+    }
+
+    void setDisplayingTimeValues(boolean displayingTimeValues) {
+        isDisplayingTimeValues = displayingTimeValues;
+    }
+
+    void toggleSetDisplayingTimeValues() {
+        isDisplayingTimeValues = !isDisplayingTimeValues;
+    }
+
+    Color getTimeValueDisplayColor() {
+        return timeValueDisplayColor;
+    }
+
+    void setTimeValueDisplayColor(Color timeValueDisplayColor) {
+        this.timeValueDisplayColor = timeValueDisplayColor;
+    }
+
+    void setUpdatesPerSecond(float updatesPerSecond) {
+        this.updatesPerSecond = updatesPerSecond;
+    }
+
+    void drawFromRenderSnapshots(RenderSnapshotPublisher publisher) {
+        if (publisher == null) {
+            throw new IllegalArgumentException("Publisher cannot be null");
+        }
+        renderSnapshotPublisher = publisher;
+    }
+
+    void drawFromSprite() {
+        renderSnapshotPublisher = null;
+    }
+
+    boolean isDrawingFromRenderSnapshots() {
+        return renderSnapshotPublisher != null;
+    }
+
+    /**
+     * Draws the latest render snapshot if drawing from snapshots, or else the Sprite itself, followed by the time
+     * values if they're displayed
+     */
+    void draw(Graphics2D g) {
+        RenderSnapshotPublisher publisher = renderSnapshotPublisher;
+        if (publisher != null) {
+            publisher.getLatestRenderSnapshot().draw(g);
+        } else {
+            spriteToDisplay.drawAll(g);
+        }
+
+        if (isDisplayingTimeValues) {
+            Graphics tempGraphics = g.create();
+            tempGraphics.setColor(timeValueDisplayColor);
+            int fontHeight = g.getFontMetrics(g.getFont()).getHeight();
+            tempGraphics.drawString("FPS: " + timeValueFormatter.format(
+                    framesPerSecondCounter.getActionCountPerTimeFrame()), 0, fontHeight);
+            tempGraphics.drawString("UPS: " + timeValueFormatter.format(updatesPerSecond), 0, fontHeight * 2);
+            tempGraphics.dispose();
+        }
+    }
+
+    /**
+     * Counts one more frame towards the frames per second value
+     */
+    void countFrame() {
+        framesPerSecondCounter.addActions(amountOfActionsPerFrameRender);
+    }
+}
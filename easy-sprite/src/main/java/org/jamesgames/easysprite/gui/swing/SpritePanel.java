@@ -2,69 +2,48 @@ package org.jamesgames.easysprite.gui.swing;
 
 import org.jamesgames.easysprite.input.GameInput;
 import org.jamesgames.easysprite.sprite.Sprite;
+import org.jamesgames.easysprite.updater.RenderSnapshotPublisher;
 import org.jamesgames.easysprite.updater.UpdateListener;
-import org.jamesgames.jamesjavautils.time.ActionsPerTimeFrameCounter;
 
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ComponentAdapter;
 import java.awt.event.ComponentEvent;
-import java.text.DecimalFormat;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
  * SpritePanel is a JPanel that displays a {@link Sprite}.
+ * <p>
+ * The panel can be repainted as a whole with {@link SpritePanel#repaint()} after every update, or with {@link
+ * SpritePanel#repaintChangedRegions()} only where the drawing of the Sprite changed, which makes mostly static scenes
+ * far cheaper to render.
  *
  * @author James Murphy
  */
 public class SpritePanel extends JPanel implements UpdateListener {
 
     /**
-     * The amount in nano seconds of how long the frames per second value will be calculated for every new value
+     * Most regions repainted one by one after an update, any more changed regions are repainted together as one region
+     * covering all of them
      */
-    private static final long timeToCalculateNewFpsValue = 1_000_000_000;
+    private static final int maxRegionsRepaintedSeparately = 8;
 
     /**
-     * The amount of actions per frame render, which is one, one render will be viewed as one action
+     * Widest time value expected to be displayed, used to know what to repaint along with the changed regions
      */
-    private static final int amountOfActionsPerFrameRender = 1;
+    private static final String widestTimeValueDisplayed = "FPS: 00000.000";
 
     /**
-     * This is the Sprite that is being rendered on the panel
+     * Draws the Sprite being rendered on the panel, along with the time values
      */
-    private final Sprite spriteToDisplay;
+    private final SpriteDisplay spriteDisplay;
 
     /**
-     * Used to calculate the frames per second value
+     * True while the changed regions of one update are painted, which all together make one frame, only touched by the
+     * event dispatch thread
      */
-    private final ActionsPerTimeFrameCounter framesPerSecondCounter;
-
-    /**
-     * Holds the most recent known updates per second value from {@link SpritePanel#newUpdatePerSecondCalculated(float)}
-     */
-    private float updatesPerSecond = 0;
-
-    /**
-     * If true, the panel displays the frames per second value
-     *
-     * @see #updatesPerSecond
-     * @see #framesPerSecondCounter
-     */
-    private boolean isDisplayingTimeValues = false;
-
-    /**
-     * Preferred color to display time values in
-     *
-     * @see #isDisplayingTimeValues
-     */
-    private Color timeValueDisplayColor = Color.WHITE;
-
-    /**
-     * Formatted used to format output of the time values
-     *
-     * @see #isDisplayingTimeValues
-     */
-    private final DecimalFormat timeValueFormatter = new DecimalFormat();
+    private boolean paintingChangedRegions = false;
 
     /**
      * Constructs a SpritePanel
@@ -77,9 +56,7 @@ public class SpritePanel extends JPanel implements UpdateListener {
      *         with the panel's new width and height values
      */
     public SpritePanel(Sprite spriteToDisplay, boolean resizeSpriteOnPanelResize) {
-        this.spriteToDisplay = spriteToDisplay;
-        framesPerSecondCounter = new ActionsPerTimeFrameCounter(timeToCalculateNewFpsValue);
-        timeValueFormatter.setMaximumFractionDigits(3);
+        spriteDisplay = new SpriteDisplay(spriteToDisplay);
 
         if (resizeSpriteOnPanelResize) {
             addComponentListener(new ComponentAdapter() {
@@ -91,61 +68,129 @@ public class SpritePanel extends JPanel implements UpdateListener {
     }
 
     public void bindGameInputs(List<GameInput> gameInputsToBind) {
-        gameInputsToBind.forEach(input -> input.setComponentToBindInputTo(this));
+        spriteDisplay.bindGameInputs(gameInputsToBind, this);
     }
 
     public boolean isDrawingSpriteDebugGraphics() {
-        return spriteToDisplay.isDrawingDebugGraphics();
+        return spriteDisplay.isDrawingSpriteDebugGraphics();
     }
 
     public void setDrawingSpriteDebugGraphics(boolean drawingSpriteDebugGraphics) {
-        spriteToDisplay.setDrawingDebugGraphicsIncludingChildSprites(drawingSpriteDebugGraphics);
+        spriteDisplay.setDrawingSpriteDebugGraphics(drawingSpriteDebugGraphics);
     }
 
     public void toggleDrawingSpriteDebugGraphics() {
-        spriteToDisplay.toggleDrawingDebugGraphicsIncludingChildSprites();
+        spriteDisplay.toggleDrawingSpriteDebugGraphics();
     }
 
     public boolean isDisplayingTimeValues() {
-        return isDisplayingTimeValues;
+        return spriteDisplay.isDisplayingTimeValues();
     }
 
     public void setDisplayingTimeValues(boolean displayingTimeValues) {
-        isDisplayingTimeValues = displayingTimeValues;
+        spriteDisplay.setDisplayingTimeValues(displayingTimeValues);
     }
 
     public void toggleSetDisplayingTimeValues() {
-        isDisplayingTimeValues = !isDisplayingTimeValues;
+        spriteDisplay.toggleSetDisplayingTimeValues();
+    }
+
+    /**
+     * Has the panel draw the latest {@link org.jamesgames.easysprite.sprite.RenderSnapshot} published by the passed
+     * publisher, rather than drawing the Sprite directly. Painting then takes no Sprite locks, so it never waits on the
+     * Sprite being updated. Debug graphics are not drawn while drawing from snapshots.
+     *
+     * @param publisher
+     *         Publisher of snapshots of the Sprite this panel displays
+     */
+    public void drawFromRenderSnapshots(RenderSnapshotPublisher publisher) {
+        spriteDisplay.drawFromRenderSnapshots(publisher);
+    }
+
+    /**
+     * Goes back to drawing the Sprite directly, which is the default
+     */
+    public void drawFromSprite() {
+        spriteDisplay.drawFromSprite();
+    }
+
+    public boolean isDrawingFromRenderSnapshots() {
+        return spriteDisplay.isDrawingFromRenderSnapshots();
+    }
+
+    /**
+     * Repaints only the regions where the drawing of the Sprite changed since the last call, see {@link
+     * Sprite#collectChangedDrawingRegions(java.util.function.Consumer)}, rather than the whole panel. Meant to be
+     * called after every update instead of {@link SpritePanel#repaint()}, such as from an {@link
+     * org.jamesgames.easysprite.updater.UpdateAction}. Overlapping regions are repainted together, and when there are
+     * many regions they're all repainted as one region covering all of them. While debug graphics are drawn, the whole
+     * panel is repainted, as they aren't limited to the Sprites they belong to.
+     */
+    public void repaintChangedRegions() {
+        Sprite spriteToDisplay = spriteDisplay.getSpriteToDisplay();
+        List<Rectangle> changedRegions = new ArrayList<>();
+        spriteToDisplay.collectChangedDrawingRegions(region -> addChangedRegion(changedRegions, region));
+        if (spriteToDisplay.isDrawingDebugGraphics()) {
+            repaint();
+            return;
+        }
+        if (changedRegions.size() > maxRegionsRepaintedSeparately) {
+            Rectangle regionCoveringAll = changedRegions.get(0);
+            changedRegions.forEach(regionCoveringAll::add);
+            changedRegions.clear();
+            changedRegions.add(regionCoveringAll);
+        }
+        SwingUtilities.invokeLater(() -> {
+            if (spriteDisplay.isDisplayingTimeValues()) {
+                FontMetrics fontMetrics = getFontMetrics(getFont());
+                changedRegions.add(new Rectangle(0, 0, fontMetrics.stringWidth(widestTimeValueDisplayed),
+                        fontMetrics.getHeight() * 2 + fontMetrics.getDescent()));
+            }
+            // Every region is a paint call of it's own, but together they're one frame
+            paintingChangedRegions = true;
+            try {
+                changedRegions.forEach(this::paintImmediately);
+            } finally {
+                paintingChangedRegions = false;
+            }
+            spriteDisplay.countFrame();
+        });
+    }
+
+    /**
+     * Adds the region to the changed regions, merging it with any changed region it overlaps
+     */
+    private static void addChangedRegion(List<Rectangle> changedRegions, Rectangle region) {
+        for (int i = changedRegions.size() - 1; i >= 0; i--) {
+            if (changedRegions.get(i).intersects(region)) {
+                // The merged region may now overlap others, so it's added over again
+                region.add(changedRegions.remove(i));
+                addChangedRegion(changedRegions, region);
+                return;
+            }
+        }
+        changedRegions.add(region);
     }
 
     public Color getTimeValueDisplayColor() {
-        return timeValueDisplayColor;
+        return spriteDisplay.getTimeValueDisplayColor();
     }
 
     public void setTimeValueDisplayColor(Color timeValueDisplayColor) {
-        this.timeValueDisplayColor = timeValueDisplayColor;
+        spriteDisplay.setTimeValueDisplayColor(timeValueDisplayColor);
     }
 
     @Override
     public void paintComponent(Graphics g) {
         super.paintComponent(g);
-        spriteToDisplay.drawAll((Graphics2D) g);
-
-        if (isDisplayingTimeValues) {
-            Graphics tempGraphics = g.create();
-            tempGraphics.setColor(timeValueDisplayColor);
-            int fontHeight = g.getFontMetrics(g.getFont()).getHeight();
-            tempGraphics.drawString("FPS: " + timeValueFormatter.format(
-                    framesPerSecondCounter.getActionCountPerTimeFrame()), 0, fontHeight);
-            tempGraphics.drawString("UPS: " + timeValueFormatter.format(updatesPerSecond), 0, fontHeight * 2);
-            tempGraphics.dispose();
+        spriteDisplay.draw((Graphics2D) g);
+        if (!paintingChangedRegions) {
+            spriteDisplay.countFrame();
         }
-
-        framesPerSecondCounter.addActions(amountOfActionsPerFrameRender);
     }
 
     @Override
     public void newUpdatePerSecondCalculated(float updatesPerSecond) {
-        this.updatesPerSecond = updatesPerSecond;
+        spriteDisplay.setUpdatesPerSecond(updatesPerSecond);
     }
 }
@@ -0,0 +1,551 @@
+package org.jamesgames.easysprite.physics.partitioning;
+
+import org.jamesgames.easysprite.physics.simple.SimpleShapeCollisionDetection;
+import org.jamesgames.easysprite.sprite.Sprite;
+
+import java.awt.*;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * DynamicAabbTreeSpacePartitioner is a {@link SpacePartitioner} that stores {@link Sprite}s in a dynamic bounding volume
+ * hierarchy, a binary tree of axis aligned bounding boxes where every leaf holds one Sprite and every other node holds
+ * the box that encloses both of its children. Positions are based on the rectangle each Sprite occupied as of the last
+ * update in the coordinate plane of the parent Sprite that owns this partitioner.
+ * <p>
+ * Leaves don't store a Sprite's exact rectangle, but a "fat" box that is enlarged by a margin on every side. As long as
+ * a Sprite stays within its fat box, {@link DynamicAabbTreeSpacePartitioner#updatePosition(Sprite)} leaves the tree
+ * alone, so Sprites that sit still or move slowly cost next to nothing to keep up to date. Only Sprites that leave their
+ * fat box are removed and reinserted. Insertions pick the sibling that grows the tree's boxes the least, and tree
+ * rotations keep the tree balanced, so lookups stay logarithmic no matter the order Sprites are added or moved in.
+ * <p>
+ * Region, ray, and point lookups ({@link SpacePartitioner#forEachInRegion(Rectangle, Consumer)}, {@link
+ * SpacePartitioner#raycast(float, float, float, float, Consumer)}, {@link SpacePartitioner#pick(int, int)}) only
+ * descend into boxes the lookup touches, the same as potential collision lookups. Lookups don't allocate.
+ * <p>
+ * Not thread-safe on its own, it's expected to only be used by the Sprite that owns it (which guards it with its own
+ * lock).
+ *
+ * @author James Murphy
+ */
+public class DynamicAabbTreeSpacePartitioner implements SpacePartitioner {
+
+    private static final int defaultFatMargin = 8;
+    private static final int initialTraversalStackSize = 64;
+    private static final Color leafColor = Color.RED;
+    private static final Color branchColor = Color.LIGHT_GRAY;
+
+    private final int fatMargin;
+    private final Map<Sprite, TreeNode> leaves = new HashMap<>();
+    private TreeNode root;
+
+    /**
+     * Every leaf gets a unique id, used to only hand out one ordering of each pair of potential colliding Sprites
+     */
+    private int nextLeafId = 0;
+
+    /**
+     * Shared stack of nodes left to visit during lookups. Each lookup only uses the part of the stack above where it
+     * started, so a lookup started from within the action of another lookup doesn't disturb the first one.
+     */
+    private TreeNode[] traversalStack = new TreeNode[initialTraversalStackSize];
+    private int traversalStackSize = 0;
+
+    public DynamicAabbTreeSpacePartitioner() {
+        this(defaultFatMargin);
+    }
+
+    /**
+     * @param fatMargin
+     *         How far in coordinate units a leaf's box extends past its Sprite's rectangle on each side. Larger margins
+     *         mean fewer reinsertions of moving Sprites, but more potential colliding Sprites handed out per lookup.
+     */
+    public DynamicAabbTreeSpacePartitioner(int fatMargin) {
+        if (fatMargin < 0) {
+            throw new IllegalArgumentException("Fat margin cannot be negative");
+        }
+        this.fatMargin = fatMargin;
+    }
+
+    @Override
+    public void addSprite(Sprite s) {
+        if (leaves.containsKey(s)) {
+            return;
+        }
+        TreeNode leaf = new TreeNode();
+        leaf.sprite = s;
+        leaf.leafId = nextLeafId++;
+        leaf.calculateSpriteBounds();
+        leaf.fatten(fatMargin);
+        leaves.put(s, leaf);
+        insertLeaf(leaf);
+    }
+
+    @Override
+    public void removeSprite(Sprite s) {
+        TreeNode leaf = leaves.remove(s);
+        if (leaf != null) {
+            removeLeaf(leaf);
+        }
+    }
+
+    @Override
+    public void applyActionWithAllPotentialCollidingSprites(Sprite spriteInPossibleCollision, Consumer<Sprite> action) {
+        TreeNode leaf = leaves.get(spriteInPossibleCollision);
+        if (leaf != null) {
+            forEachLeafOverlapping(leaf.spriteMinX, leaf.spriteMinY, leaf.spriteMaxX, leaf.spriteMaxY, action);
+        } else {
+            int x = spriteInPossibleCollision.getRoundedOldXCoordinateTopLeft();
+            int y = spriteInPossibleCollision.getRoundedOldYCoordinateTopLeft();
+            forEachLeafOverlapping(x, y, x + Math.max(spriteInPossibleCollision.getWidth(), 1),
+                    y + Math.max(spriteInPossibleCollision.getHeight(), 1), action);
+        }
+    }
+
+    @Override
+    public void applyActionWithAllPotentialCollidingPairs(List<Sprite> sprites, BiConsumer<Sprite, Sprite> action) {
+        // Walked in the order of the passed Sprites rather than of the leaves map, so pairs are handed out in the same
+        // order every run
+        for (int i = 0; i < sprites.size(); i++) {
+            TreeNode leaf = leaves.get(sprites.get(i));
+            if (leaf != null) {
+                applyActionWithPairsOf(leaf, action);
+            }
+        }
+    }
+
+    @Override
+    public void updatePosition(Sprite s) {
+        TreeNode leaf = leaves.get(s);
+        if (leaf == null) {
+            return;
+        }
+        leaf.calculateSpriteBounds();
+        if (leaf.fatBoundsContainSpriteBounds()) {
+            // Still within the fat box, the tree doesn't need to change
+            return;
+        }
+        removeLeaf(leaf);
+        leaf.fatten(fatMargin);
+        insertLeaf(leaf);
+    }
+
+    @Override
+    public void forEachInRegion(Rectangle region, Consumer<Sprite> action) {
+        if (root == null) {
+            return;
+        }
+        int minX = region.x;
+        int minY = region.y;
+        int maxX = region.x + region.width;
+        int maxY = region.y + region.height;
+        int stackBase = traversalStackSize;
+        push(root);
+        while (traversalStackSize > stackBase) {
+            TreeNode node = pop();
+            if (node.maxX < minX || node.minX > maxX || node.maxY < minY || node.minY > maxY) {
+                continue;
+            }
+            if (node.isLeaf()) {
+                if (SimpleShapeCollisionDetection.doRectanglesIntersect(region.x, region.y, region.width,
+                        region.height, node.spriteMinX, node.spriteMinY, node.spriteMaxX - node.spriteMinX,
+                        node.spriteMaxY - node.spriteMinY)) {
+                    action.accept(node.sprite);
+                }
+            } else {
+                push(node.child1);
+                push(node.child2);
+            }
+        }
+    }
+
+    @Override
+    public void raycast(float x0, float y0, float x1, float y1, Consumer<Sprite> hitConsumer) {
+        if (root == null) {
+            return;
+        }
+        int stackBase = traversalStackSize;
+        push(root);
+        while (traversalStackSize > stackBase) {
+            TreeNode node = pop();
+            if (node.isLeaf()) {
+                if (SimpleShapeCollisionDetection.doesLineSegmentIntersectRectangle(x0, y0, x1, y1,
+                        node.spriteMinX, node.spriteMinY, node.spriteMaxX - node.spriteMinX,
+                        node.spriteMaxY - node.spriteMinY)) {
+                    hitConsumer.accept(node.sprite);
+                }
+            } else if (segmentIntersects(x0, y0, x1, y1, node.minX, node.minY, node.maxX, node.maxY)) {
+                push(node.child1);
+                push(node.child2);
+            }
+        }
+    }
+
+    @Override
+    public Sprite pick(int x, int y) {
+        if (root == null) {
+            return null;
+        }
+        int stackBase = traversalStackSize;
+        push(root);
+        while (traversalStackSize > stackBase) {
+            TreeNode node = pop();
+            if (node.isLeaf()) {
+                if (SimpleShapeCollisionDetection.isPointInRectangle(x, y, node.spriteMinX, node.spriteMinY,
+                        node.spriteMaxX - node.spriteMinX, node.spriteMaxY - node.spriteMinY)) {
+                    // Leave the shared stack as it was found, lookups may be running further up the call stack
+                    while (traversalStackSize > stackBase) {
+                        pop();
+                    }
+                    return node.sprite;
+                }
+            } else if (x >= node.minX && x <= node.maxX && y >= node.minY && y <= node.maxY) {
+                push(node.child1);
+                push(node.child2);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Draws the fat box of every leaf, and the enclosing box of every branch of the tree
+     */
+    @Override
+    public void draw(Graphics2D g) {
+        if (root == null) {
+            return;
+        }
+        Graphics2D treeGraphics = (Graphics2D) g.create();
+        int stackBase = traversalStackSize;
+        push(root);
+        while (traversalStackSize > stackBase) {
+            TreeNode node = pop();
+            treeGraphics.setColor(node.isLeaf() ? leafColor : branchColor);
+            treeGraphics.drawRect(node.minX, node.minY, node.maxX - node.minX - 1, node.maxY - node.minY - 1);
+            if (!node.isLeaf()) {
+                push(node.child1);
+                push(node.child2);
+            }
+        }
+        treeGraphics.dispose();
+    }
+
+    public int getFatMargin() {
+        return fatMargin;
+    }
+
+    /**
+     * @return Height of the tree, where a tree of only one leaf has a height of 0, and an empty tree -1
+     */
+    public int getTreeHeight() {
+        return root == null ? -1 : root.height;
+    }
+
+    private void forEachLeafOverlapping(int minX, int minY, int maxX, int maxY, Consumer<Sprite> action) {
+        if (root == null) {
+            return;
+        }
+        int stackBase = traversalStackSize;
+        push(root);
+        while (traversalStackSize > stackBase) {
+            TreeNode node = pop();
+            if (node.maxX < minX || node.minX > maxX || node.maxY < minY || node.minY > maxY) {
+                continue;
+            }
+            if (node.isLeaf()) {
+                // Fat boxes overlapping doesn't mean the Sprites do, so check the Sprite's own rectangle as well
+                if (node.spriteMaxX >= minX && node.spriteMinX <= maxX && node.spriteMaxY >= minY &&
+                        node.spriteMinY <= maxY) {
+                    action.accept(node.sprite);
+                }
+            } else {
+                push(node.child1);
+                push(node.child2);
+            }
+        }
+    }
+
+    /**
+     * Pairs the leaf up with every overlapping leaf that has a higher id, so a pair is only handed out by one of its two
+     * leaves
+     */
+    private void applyActionWithPairsOf(TreeNode leaf, BiConsumer<Sprite, Sprite> action) {
+        int stackBase = traversalStackSize;
+        push(root);
+        while (traversalStackSize > stackBase) {
+            TreeNode node = pop();
+            if (node.maxX < leaf.spriteMinX || node.minX > leaf.spriteMaxX || node.maxY < leaf.spriteMinY ||
+                    node.minY > leaf.spriteMaxY) {
+                continue;
+            }
+            if (node.isLeaf()) {
+                if (node.leafId > leaf.leafId && node.spriteMaxX >= leaf.spriteMinX &&
+                        node.spriteMinX <= leaf.spriteMaxX && node.spriteMaxY >= leaf.spriteMinY &&
+                        node.spriteMinY <= leaf.spriteMaxY) {
+                    action.accept(leaf.sprite, node.sprite);
+                }
+            } else {
+                push(node.child1);
+                push(node.child2);
+            }
+        }
+    }
+
+    private void push(TreeNode node) {
+        if (traversalStackSize == traversalStack.length) {
+            traversalStack = Arrays.copyOf(traversalStack, traversalStack.length * 2);
+        }
+        traversalStack[traversalStackSize++] = node;
+    }
+
+    private TreeNode pop() {
+        TreeNode node = traversalStack[--traversalStackSize];
+        traversalStack[traversalStackSize] = null;
+        return node;
+    }
+
+    private void insertLeaf(TreeNode leaf) {
+        if (root == null) {
+            root = leaf;
+            leaf.parent = null;
+            return;
+        }
+
+        // Walk down picking whichever side grows the tree's boxes the least, stopping when pairing the leaf with the
+        // current node directly is cheaper than descending any further
+        TreeNode sibling = root;
+        while (!sibling.isLeaf()) {
+            long combinedPerimeter = combinedPerimeter(sibling, leaf);
+            long costOfPairingHere = 2 * combinedPerimeter;
+            long costOfDescending = 2 * (combinedPerimeter - sibling.perimeter());
+            long costOfChild1 = costOfDescending + costOfDescendingInto(sibling.child1, leaf);
+            long costOfChild2 = costOfDescending + costOfDescendingInto(sibling.child2, leaf);
+            if (costOfPairingHere < costOfChild1 && costOfPairingHere < costOfChild2) {
+                break;
+            }
+            sibling = costOfChild1 < costOfChild2 ? sibling.child1 : sibling.child2;
+        }
+
+        TreeNode oldParent = sibling.parent;
+        TreeNode newParent = new TreeNode();
+        newParent.parent = oldParent;
+        newParent.setToUnionOf(leaf, sibling);
+        newParent.height = sibling.height + 1;
+        if (oldParent != null) {
+            oldParent.replaceChild(sibling, newParent);
+        } else {
+            root = newParent;
+        }
+        newParent.child1 = sibling;
+        newParent.child2 = leaf;
+        sibling.parent = newParent;
+        leaf.parent = newParent;
+
+        refitAndBalanceUpFrom(newParent);
+    }
+
+    private static long costOfDescendingInto(TreeNode child, TreeNode leaf) {
+        return child.isLeaf() ? combinedPerimeter(child, leaf) : combinedPerimeter(child, leaf) - child.perimeter();
+    }
+
+    private void removeLeaf(TreeNode leaf) {
+        if (leaf == root) {
+            root = null;
+            return;
+        }
+        TreeNode parent = leaf.parent;
+        TreeNode grandParent = parent.parent;
+        TreeNode sibling = parent.child1 == leaf ? parent.child2 : parent.child1;
+        if (grandParent != null) {
+            // The parent branch is no longer needed, the sibling takes its place
+            grandParent.replaceChild(parent, sibling);
+            sibling.parent = grandParent;
+            refitAndBalanceUpFrom(grandParent);
+        } else {
+            root = sibling;
+            sibling.parent = null;
+        }
+        leaf.parent = null;
+    }
+
+    private void refitAndBalanceUpFrom(TreeNode node) {
+        while (node != null) {
+            node = balance(node);
+            node.height = 1 + Math.max(node.child1.height, node.child2.height);
+            node.setToUnionOf(node.child1, node.child2);
+            node = node.parent;
+        }
+    }
+
+    /**
+     * Rotates the taller grandchild of the node up a level if one side of the node is more than one level taller than
+     * the other side
+     *
+     * @return The node that is now at the node's old position in the tree
+     */
+    private TreeNode balance(TreeNode a) {
+        if (a.isLeaf() || a.height < 2) {
+            return a;
+        }
+        TreeNode b = a.child1;
+        TreeNode c = a.child2;
+        int balance = c.height - b.height;
+        if (balance > 1) {
+            rotateUp(a, c, b, false);
+            return c;
+        }
+        if (balance < -1) {
+            rotateUp(a, b, c, true);
+            return b;
+        }
+        return a;
+    }
+
+    /**
+     * Moves the taller child of the node up into the node's place, the node takes the shorter of the taller child's
+     * children in exchange
+     *
+     * @param tallerChildIsChild1
+     *         True if the taller child is the node's child1
+     */
+    private void rotateUp(TreeNode node, TreeNode tallerChild, TreeNode shorterChild, boolean tallerChildIsChild1) {
+        TreeNode grandChild1 = tallerChild.child1;
+        TreeNode grandChild2 = tallerChild.child2;
+
+        tallerChild.child1 = node;
+        tallerChild.parent = node.parent;
+        node.parent = tallerChild;
+        if (tallerChild.parent != null) {
+            tallerChild.parent.replaceChild(node, tallerChild);
+        } else {
+            root = tallerChild;
+        }
+
+        TreeNode grandChildToKeep = grandChild1.height > grandChild2.height ? grandChild1 : grandChild2;
+        TreeNode grandChildToGive = grandChildToKeep == grandChild1 ? grandChild2 : grandChild1;
+        tallerChild.child2 = grandChildToKeep;
+        if (tallerChildIsChild1) {
+            node.child1 = grandChildToGive;
+        } else {
+            node.child2 = grandChildToGive;
+        }
+        grandChildToGive.parent = node;
+
+        node.setToUnionOf(shorterChild, grandChildToGive);
+        node.height = 1 + Math.max(shorterChild.height, grandChildToGive.height);
+        tallerChild.setToUnionOf(node, grandChildToKeep);
+        tallerChild.height = 1 + Math.max(node.height, grandChildToKeep.height);
+    }
+
+    private static long combinedPerimeter(TreeNode a, TreeNode b) {
+        long width = Math.max(a.maxX, b.maxX) - Math.min(a.minX, b.minX);
+        long height = Math.max(a.maxY, b.maxY) - Math.min(a.minY, b.minY);
+        return 2 * (width + height);
+    }
+
+    /**
+     * Slab test of a line segment against a box
+     */
+    private static boolean segmentIntersects(float x0, float y0, float x1, float y1, int minX, int minY, int maxX,
+            int maxY) {
+        float enterTime = 0;
+        float exitTime = 1;
+        float deltaX = x1 - x0;
+        float deltaY = y1 - y0;
+
+        if (deltaX == 0) {
+            if (x0 < minX || x0 > maxX) {
+                return false;
+            }
+        } else {
+            float timeAtMinX = (minX - x0) / deltaX;
+            float timeAtMaxX = (maxX - x0) / deltaX;
+            enterTime = Math.max(enterTime, Math.min(timeAtMinX, timeAtMaxX));
+            exitTime = Math.min(exitTime, Math.max(timeAtMinX, timeAtMaxX));
+        }
+
+        if (deltaY == 0) {
+            if (y0 < minY || y0 > maxY) {
+                return false;
+            }
+        } else {
+            float timeAtMinY = (minY - y0) / deltaY;
+            float timeAtMaxY = (maxY - y0) / deltaY;
+            enterTime = Math.max(enterTime, Math.min(timeAtMinY, timeAtMaxY));
+            exitTime = Math.min(exitTime, Math.max(timeAtMinY, timeAtMaxY));
+        }
+
+        return enterTime <= exitTime;
+    }
+
+    /**
+     * A node of the tree, either a leaf holding a Sprite, or a branch holding two children. The min/max values are the
+     * node's box, which for leaves is the fat box, and for branches the box enclosing both children.
+     */
+    private static final class TreeNode {
+        private TreeNode parent;
+        private TreeNode child1;
+        private TreeNode child2;
+        /**
+         * Leaves have a height of 0
+         */
+        private int height;
+        private int minX;
+        private int minY;
+        private int maxX;
+        private int maxY;
+
+        // Leaf only values
+        private Sprite sprite;
+        private int leafId;
+        private int spriteMinX;
+        private int spriteMinY;
+        private int spriteMaxX;
+        private int spriteMaxY;
+
+        private boolean isLeaf() {
+            return child1 == null;
+        }
+
+        private long perimeter() {
+            return 2 * ((long) (maxX - minX) + (maxY - minY));
+        }
+
+        private void setToUnionOf(TreeNode a, TreeNode b) {
+            minX = Math.min(a.minX, b.minX);
+            minY = Math.min(a.minY, b.minY);
+            maxX = Math.max(a.maxX, b.maxX);
+            maxY = Math.max(a.maxY, b.maxY);
+        }
+
+        private void replaceChild(TreeNode oldChild, TreeNode newChild) {
+            if (child1 == oldChild) {
+                child1 = newChild;
+            } else {
+                child2 = newChild;
+            }
+        }
+
+        private void calculateSpriteBounds() {
+            spriteMinX = sprite.getRoundedOldXCoordinateTopLeft();
+            spriteMinY = sprite.getRoundedOldYCoordinateTopLeft();
+            spriteMaxX = spriteMinX + Math.max(sprite.getWidth(), 1);
+            spriteMaxY = spriteMinY + Math.max(sprite.getHeight(), 1);
+        }
+
+        private void fatten(int margin) {
+            minX = spriteMinX - margin;
+            minY = spriteMinY - margin;
+            maxX = spriteMaxX + margin;
+            maxY = spriteMaxY + margin;
+        }
+
+        private boolean fatBoundsContainSpriteBounds() {
+            return spriteMinX >= minX && spriteMinY >= minY && spriteMaxX <= maxX && spriteMaxY <= maxY;
+        }
+    }
+}
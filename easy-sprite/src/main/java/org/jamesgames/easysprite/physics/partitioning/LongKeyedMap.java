@@ -0,0 +1,121 @@
+package org.jamesgames.easysprite.physics.partitioning;
+
+/**
+ * LongKeyedMap is a hash map from primitive long keys to values, using open addressing with linear probing, so that
+ * looking up a key never boxes it or allocates. Meant for the packed cell indexes of grid based partitioners, which are
+ * looked up many times per update.
+ * <p>
+ * Entries are visited by slot, from 0 to {@link LongKeyedMap#getSlotCount()}, where a slot without an entry has a null
+ * value. Not thread-safe.
+ *
+ * @author James Murphy
+ */
+final class LongKeyedMap<V> {
+
+    private static final int initialSlotCount = 16;
+
+    private long[] keys = new long[initialSlotCount];
+    private Object[] values = new Object[initialSlotCount];
+    private int size = 0;
+
+    @SuppressWarnings("unchecked")
+    V get(long key) {
+        int mask = keys.length - 1;
+        for (int slot = slotOf(key, mask); values[slot] != null; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                return (V) values[slot];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @param value
+     *         Value to map the key to, must not be null
+     */
+    void put(long key, V value) {
+        // Kept at most half full, so probe sequences stay short
+        if ((size + 1) * 2 > keys.length) {
+            resize(keys.length * 2);
+        }
+        int mask = keys.length - 1;
+        int slot = slotOf(key, mask);
+        while (values[slot] != null) {
+            if (keys[slot] == key) {
+                values[slot] = value;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        size++;
+    }
+
+    void remove(long key) {
+        int mask = keys.length - 1;
+        int slot = slotOf(key, mask);
+        while (values[slot] != null && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        if (values[slot] == null) {
+            return;
+        }
+        values[slot] = null;
+        size--;
+        // Shift back the entries after the removed one that would otherwise no longer be found by probing from their
+        // own slot, rather than leaving a marker in the removed slot
+        int emptySlot = slot;
+        for (slot = (slot + 1) & mask; values[slot] != null; slot = (slot + 1) & mask) {
+            int homeSlot = slotOf(keys[slot], mask);
+            boolean homeSlotIsAfterEmptySlot = emptySlot <= slot ?
+                    homeSlot > emptySlot && homeSlot <= slot : homeSlot > emptySlot || homeSlot <= slot;
+            if (!homeSlotIsAfterEmptySlot) {
+                keys[emptySlot] = keys[slot];
+                values[emptySlot] = values[slot];
+                values[slot] = null;
+                emptySlot = slot;
+            }
+        }
+    }
+
+    int getSlotCount() {
+        return keys.length;
+    }
+
+    long getKeyAtSlot(int slot) {
+        return keys[slot];
+    }
+
+    /**
+     * @return The value in the slot, or null if the slot has no entry
+     */
+    @SuppressWarnings("unchecked")
+    V getValueAtSlot(int slot) {
+        return (V) values[slot];
+    }
+
+    private void resize(int newSlotCount) {
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        keys = new long[newSlotCount];
+        values = new Object[newSlotCount];
+        int mask = newSlotCount - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldValues[i] != null) {
+                int slot = slotOf(oldKeys[i], mask);
+                while (values[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private static int slotOf(long key, int mask) {
+        // Packed cell indexes differ mostly in their low bits of each half, so mix all bits before masking
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+}
@@ -0,0 +1,487 @@
+package org.jamesgames.easysprite.physics.partitioning;
+
+import org.jamesgames.easysprite.physics.simple.SimpleShapeCollisionDetection;
+import org.jamesgames.easysprite.sprite.Sprite;
+
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * LooseQuadTreeSpacePartitioner is a {@link SpacePartitioner} that stores {@link Sprite}s in a loose quadtree. Each
+ * node of the tree covers a quarter of its parent node, but a node accepts any Sprite whose center lies within the
+ * node and who is no larger than the node, so the area a node's Sprites can occupy (the loose bounds) is twice the
+ * width and height of the node itself. Because of that, every Sprite is stored in exactly one node, no matter how it
+ * straddles node boundaries, and large Sprites simply live higher up in the tree than small Sprites. This makes the
+ * tree a good fit for Sprites that bunch up together or vary a lot in size.
+ * <p>
+ * The tree is dynamic, a node is only split once it holds more Sprites than the node capacity (and the maximum depth
+ * has not been reached yet), and nodes are merged back into their parent once their part of the tree holds half the
+ * node capacity or less. Both happen lazily as Sprites are added, removed, or updated with {@link
+ * LooseQuadTreeSpacePartitioner#updatePosition(Sprite)}.
+ * <p>
+ * Positions are based on the rectangle each Sprite occupied as of the last update in the coordinate plane of the
+ * parent Sprite that owns this partitioner. Sprites positioned outside the bounds of the tree are kept in the root
+ * node.
+ * <p>
+ * Not thread-safe on its own, it's expected to only be used by the Sprite that owns it (which guards it with its own
+ * lock).
+ *
+ * @author James Murphy
+ */
+public class LooseQuadTreeSpacePartitioner implements SpacePartitioner {
+
+    private static final int defaultMaxDepth = 8;
+    private static final int defaultNodeCapacity = 8;
+    private static final Color nodeOutlineColor = Color.BLUE;
+
+    private final int maxDepth;
+    private final int nodeCapacity;
+    private final Node root;
+    private final Map<Sprite, QuadTreeEntry> entries = new HashMap<>();
+
+    /**
+     * Every entry gets a unique id, used to only hand out one ordering of each pair of potential colliding Sprites
+     */
+    private int nextEntryId = 0;
+
+    /**
+     * Creates a LooseQuadTreeSpacePartitioner covering the area from 0,0 to width,height with a default maximum depth
+     * and node capacity
+     */
+    public LooseQuadTreeSpacePartitioner(int width, int height) {
+        this(0, 0, width, height, defaultMaxDepth, defaultNodeCapacity);
+    }
+
+    /**
+     * Creates a LooseQuadTreeSpacePartitioner
+     *
+     * @param x
+     *         x coordinate of the top left of the area covered by the tree
+     * @param y
+     *         y coordinate of the top left of the area covered by the tree
+     * @param width
+     *         Width of the area covered by the tree
+     * @param height
+     *         Height of the area covered by the tree
+     * @param maxDepth
+     *         The deepest level a node can be at, where the root node is at depth 0
+     * @param nodeCapacity
+     *         How many Sprites a node may hold before it is split into four child nodes
+     */
+    public LooseQuadTreeSpacePartitioner(int x, int y, int width, int height, int maxDepth, int nodeCapacity) {
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("Width and height must be greater than 0");
+        }
+        if (maxDepth < 0) {
+            throw new IllegalArgumentException("Max depth cannot be negative");
+        }
+        if (nodeCapacity <= 0) {
+            throw new IllegalArgumentException("Node capacity must be greater than 0");
+        }
+        this.maxDepth = maxDepth;
+        this.nodeCapacity = nodeCapacity;
+        root = new Node(null, x + width / 2f, y + height / 2f, width / 2f, height / 2f, 0);
+    }
+
+    @Override
+    public void addSprite(Sprite s) {
+        if (entries.containsKey(s)) {
+            return;
+        }
+        QuadTreeEntry entry = new QuadTreeEntry(s, nextEntryId++);
+        entry.calculateBounds();
+        entries.put(s, entry);
+        insert(root, entry);
+    }
+
+    @Override
+    public void removeSprite(Sprite s) {
+        QuadTreeEntry entry = entries.remove(s);
+        if (entry != null) {
+            Node nodeRemovedFrom = entry.node;
+            removeFromNode(entry);
+            mergeIfSparse(nodeRemovedFrom);
+        }
+    }
+
+    @Override
+    public void applyActionWithAllPotentialCollidingSprites(Sprite spriteInPossibleCollision, Consumer<Sprite> action) {
+        QuadTreeEntry entry = entries.get(spriteInPossibleCollision);
+        if (entry != null) {
+            applyActionWithSpritesNear(root, entry.x, entry.y, entry.x + entry.width, entry.y + entry.height, action);
+        } else {
+            int x = spriteInPossibleCollision.getRoundedOldXCoordinateTopLeft();
+            int y = spriteInPossibleCollision.getRoundedOldYCoordinateTopLeft();
+            applyActionWithSpritesNear(root, x, y, x + Math.max(spriteInPossibleCollision.getWidth(), 1),
+                    y + Math.max(spriteInPossibleCollision.getHeight(), 1), action);
+        }
+    }
+
+    @Override
+    public void applyActionWithAllPotentialCollidingPairs(List<Sprite> sprites, BiConsumer<Sprite, Sprite> action) {
+        // Walked in the order of the passed Sprites rather than of the entries map, so pairs are handed out in the same
+        // order every run
+        for (int i = 0; i < sprites.size(); i++) {
+            QuadTreeEntry entry = entries.get(sprites.get(i));
+            if (entry != null) {
+                applyActionWithPairsNear(root, entry, action);
+            }
+        }
+    }
+
+    @Override
+    public void forEachInRegion(Rectangle region, Consumer<Sprite> action) {
+        forEachInRegion(root, region, action);
+    }
+
+    @Override
+    public void raycast(float x0, float y0, float x1, float y1, Consumer<Sprite> hitConsumer) {
+        raycast(root, x0, y0, x1, y1, hitConsumer);
+    }
+
+    @Override
+    public Sprite pick(int x, int y) {
+        return pick(root, x, y);
+    }
+
+    @Override
+    public void updatePosition(Sprite s) {
+        QuadTreeEntry entry = entries.get(s);
+        if (entry == null) {
+            return;
+        }
+        entry.calculateBounds();
+        Node currentNode = entry.node;
+        if (belongsIn(currentNode, entry)) {
+            // Still belongs in the same node, nothing to move
+            return;
+        }
+        removeFromNode(entry);
+        // Walk up only as far as needed, Sprites tend to move a little at a time and stay in the same part of the tree
+        Node nodeToInsertFrom = currentNode;
+        while (nodeToInsertFrom.parent != null && !fits(nodeToInsertFrom, entry)) {
+            nodeToInsertFrom = nodeToInsertFrom.parent;
+        }
+        insert(nodeToInsertFrom, entry);
+        mergeIfSparse(currentNode);
+    }
+
+    /**
+     * Draws the boundaries of every node in the tree
+     */
+    @Override
+    public void draw(Graphics2D g) {
+        Graphics2D treeGraphics = (Graphics2D) g.create();
+        treeGraphics.setColor(nodeOutlineColor);
+        drawNode(treeGraphics, root);
+        treeGraphics.dispose();
+    }
+
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    public int getNodeCapacity() {
+        return nodeCapacity;
+    }
+
+    private void drawNode(Graphics2D g, Node node) {
+        g.drawRect(Math.round(node.centerX - node.halfWidth), Math.round(node.centerY - node.halfHeight),
+                Math.round(node.halfWidth * 2) - 1, Math.round(node.halfHeight * 2) - 1);
+        if (node.children != null) {
+            for (Node child : node.children) {
+                drawNode(g, child);
+            }
+        }
+    }
+
+    private void applyActionWithSpritesNear(Node node, int minX, int minY, int maxX, int maxY,
+            Consumer<Sprite> action) {
+        for (int i = 0; i < node.entries.size(); i++) {
+            QuadTreeEntry entry = node.entries.get(i);
+            // Nodes high up in the tree (and the root, which holds out of bounds Sprites) can hold Sprites spread over a
+            // large area, so only hand out the ones whose rectangles actually touch
+            if (entry.intersects(minX, minY, maxX, maxY)) {
+                action.accept(entry.sprite);
+            }
+        }
+        if (node.children != null) {
+            for (Node child : node.children) {
+                if (child.subtreeCount > 0 && child.looseBoundsIntersect(minX, minY, maxX, maxY)) {
+                    applyActionWithSpritesNear(child, minX, minY, maxX, maxY, action);
+                }
+            }
+        }
+    }
+
+    private void forEachInRegion(Node node, Rectangle region, Consumer<Sprite> action) {
+        for (int i = 0; i < node.entries.size(); i++) {
+            QuadTreeEntry entry = node.entries.get(i);
+            if (SimpleShapeCollisionDetection.doRectanglesIntersect(region.x, region.y, region.width, region.height,
+                    entry.x, entry.y, entry.width, entry.height)) {
+                action.accept(entry.sprite);
+            }
+        }
+        if (node.children != null) {
+            for (Node child : node.children) {
+                if (child.subtreeCount > 0 && child.looseBoundsIntersect(region.x, region.y,
+                        region.x + region.width, region.y + region.height)) {
+                    forEachInRegion(child, region, action);
+                }
+            }
+        }
+    }
+
+    private void raycast(Node node, float x0, float y0, float x1, float y1, Consumer<Sprite> hitConsumer) {
+        for (int i = 0; i < node.entries.size(); i++) {
+            QuadTreeEntry entry = node.entries.get(i);
+            if (SimpleShapeCollisionDetection.doesLineSegmentIntersectRectangle(x0, y0, x1, y1, entry.x, entry.y,
+                    entry.width, entry.height)) {
+                hitConsumer.accept(entry.sprite);
+            }
+        }
+        if (node.children != null) {
+            for (Node child : node.children) {
+                if (child.subtreeCount > 0 && child.looseBoundsIntersectLineSegment(x0, y0, x1, y1)) {
+                    raycast(child, x0, y0, x1, y1, hitConsumer);
+                }
+            }
+        }
+    }
+
+    private Sprite pick(Node node, int x, int y) {
+        for (int i = 0; i < node.entries.size(); i++) {
+            QuadTreeEntry entry = node.entries.get(i);
+            if (SimpleShapeCollisionDetection.isPointInRectangle(x, y, entry.x, entry.y, entry.width, entry.height)) {
+                return entry.sprite;
+            }
+        }
+        if (node.children != null) {
+            for (Node child : node.children) {
+                if (child.subtreeCount > 0 && child.looseBoundsIntersect(x, y, x, y)) {
+                    Sprite picked = pick(child, x, y);
+                    if (picked != null) {
+                        return picked;
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Same as {@link LooseQuadTreeSpacePartitioner#applyActionWithSpritesNear(Node, int, int, int, int, Consumer)}, but
+     * only pairs the entry up with entries that have a higher id, so a pair is only handed out by one of its two entries
+     */
+    private void applyActionWithPairsNear(Node node, QuadTreeEntry entry, BiConsumer<Sprite, Sprite> action) {
+        int maxX = entry.x + entry.width;
+        int maxY = entry.y + entry.height;
+        for (int i = 0; i < node.entries.size(); i++) {
+            QuadTreeEntry other = node.entries.get(i);
+            if (other.id > entry.id && other.intersects(entry.x, entry.y, maxX, maxY)) {
+                action.accept(entry.sprite, other.sprite);
+            }
+        }
+        if (node.children != null) {
+            for (Node child : node.children) {
+                if (child.subtreeCount > 0 && child.looseBoundsIntersect(entry.x, entry.y, maxX, maxY)) {
+                    applyActionWithPairsNear(child, entry, action);
+                }
+            }
+        }
+    }
+
+    /**
+     * Places the entry in the deepest node it fits in, starting at the passed node, splitting the node it ends up in if
+     * that node has grown past its capacity
+     */
+    private void insert(Node startingNode, QuadTreeEntry entry) {
+        Node node = startingNode;
+        Node childThatFits = findChildThatFits(node, entry);
+        while (childThatFits != null) {
+            node = childThatFits;
+            childThatFits = findChildThatFits(node, entry);
+        }
+        addToNode(node, entry);
+        if (node.children == null && node.depth < maxDepth && node.entries.size() > nodeCapacity) {
+            split(node);
+        }
+    }
+
+    private void split(Node node) {
+        float quarterWidth = node.halfWidth / 2;
+        float quarterHeight = node.halfHeight / 2;
+        node.children = new Node[]{
+                new Node(node, node.centerX - quarterWidth, node.centerY - quarterHeight, quarterWidth,
+                        quarterHeight, node.depth + 1),
+                new Node(node, node.centerX + quarterWidth, node.centerY - quarterHeight, quarterWidth,
+                        quarterHeight, node.depth + 1),
+                new Node(node, node.centerX - quarterWidth, node.centerY + quarterHeight, quarterWidth,
+                        quarterHeight, node.depth + 1),
+                new Node(node, node.centerX + quarterWidth, node.centerY + quarterHeight, quarterWidth,
+                        quarterHeight, node.depth + 1)};
+        // Push down whatever fits into the new child nodes, the rest (large or out of bounds Sprites) stay here
+        List<QuadTreeEntry> entriesToRedistribute = new ArrayList<>(node.entries);
+        for (QuadTreeEntry entry : entriesToRedistribute) {
+            if (findChildThatFits(node, entry) != null) {
+                removeFromNode(entry);
+                insert(node, entry);
+            }
+        }
+    }
+
+    /**
+     * Collapses the highest ancestor (or the node itself) whose part of the tree has become sparse enough to not need
+     * child nodes anymore
+     */
+    private void mergeIfSparse(Node node) {
+        Node nodeToCollapse = null;
+        for (Node n = node; n != null; n = n.parent) {
+            if (n.children != null && n.subtreeCount <= nodeCapacity / 2) {
+                nodeToCollapse = n;
+            }
+        }
+        if (nodeToCollapse != null) {
+            for (Node child : nodeToCollapse.children) {
+                moveEntriesOfSubtreeInto(child, nodeToCollapse);
+            }
+            nodeToCollapse.children = null;
+        }
+    }
+
+    private void moveEntriesOfSubtreeInto(Node subtree, Node destination) {
+        for (QuadTreeEntry entry : subtree.entries) {
+            entry.node = destination;
+            destination.entries.add(entry);
+        }
+        if (subtree.children != null) {
+            for (Node child : subtree.children) {
+                moveEntriesOfSubtreeInto(child, destination);
+            }
+        }
+    }
+
+    private void addToNode(Node node, QuadTreeEntry entry) {
+        node.entries.add(entry);
+        entry.node = node;
+        for (Node n = node; n != null; n = n.parent) {
+            n.subtreeCount++;
+        }
+    }
+
+    private void removeFromNode(QuadTreeEntry entry) {
+        entry.node.entries.remove(entry);
+        for (Node n = entry.node; n != null; n = n.parent) {
+            n.subtreeCount--;
+        }
+        entry.node = null;
+    }
+
+    private Node findChildThatFits(Node node, QuadTreeEntry entry) {
+        if (node.children != null) {
+            for (Node child : node.children) {
+                if (fits(child, entry)) {
+                    return child;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return True if the entry is currently in the node it would be inserted in
+     */
+    private boolean belongsIn(Node node, QuadTreeEntry entry) {
+        return (node.parent == null || fits(node, entry)) && findChildThatFits(node, entry) == null;
+    }
+
+    /**
+     * A node fits an entry if the entry's center is in the node and the entry is no larger than the node, which means
+     * the entry is fully within the node's loose bounds
+     */
+    private static boolean fits(Node node, QuadTreeEntry entry) {
+        return entry.width <= node.halfWidth * 2 && entry.height <= node.halfHeight * 2 &&
+                entry.centerX >= node.centerX - node.halfWidth && entry.centerX < node.centerX + node.halfWidth &&
+                entry.centerY >= node.centerY - node.halfHeight && entry.centerY < node.centerY + node.halfHeight;
+    }
+
+    private static final class Node {
+        private final Node parent;
+        private final float centerX;
+        private final float centerY;
+        private final float halfWidth;
+        private final float halfHeight;
+        private final int depth;
+        private final List<QuadTreeEntry> entries = new ArrayList<>();
+        private Node[] children;
+        /**
+         * Number of entries in this node and all nodes below it
+         */
+        private int subtreeCount;
+
+        private Node(Node parent, float centerX, float centerY, float halfWidth, float halfHeight, int depth) {
+            this.parent = parent;
+            this.centerX = centerX;
+            this.centerY = centerY;
+            this.halfWidth = halfWidth;
+            this.halfHeight = halfHeight;
+            this.depth = depth;
+        }
+
+        private boolean looseBoundsIntersect(int minX, int minY, int maxX, int maxY) {
+            // Loose bounds are twice the size of the node, so they extend a full half width/height past each side
+            float looseHalfWidth = halfWidth * 2;
+            float looseHalfHeight = halfHeight * 2;
+            return minX <= centerX + looseHalfWidth && maxX >= centerX - looseHalfWidth &&
+                    minY <= centerY + looseHalfHeight && maxY >= centerY - looseHalfHeight;
+        }
+
+        private boolean looseBoundsIntersectLineSegment(float x0, float y0, float x1, float y1) {
+            int looseMinX = (int) Math.floor(centerX - halfWidth * 2);
+            int looseMinY = (int) Math.floor(centerY - halfHeight * 2);
+            int looseMaxX = (int) Math.ceil(centerX + halfWidth * 2);
+            int looseMaxY = (int) Math.ceil(centerY + halfHeight * 2);
+            // Grown by one on each side, so segments only touching the edge of the loose bounds aren't skipped
+            return SimpleShapeCollisionDetection.doesLineSegmentIntersectRectangle(x0, y0, x1, y1, looseMinX - 1,
+                    looseMinY - 1, looseMaxX - looseMinX + 2, looseMaxY - looseMinY + 2);
+        }
+    }
+
+    /**
+     * A Sprite stored in the tree along with the rectangle it was stored with and the node it is stored in
+     */
+    private static final class QuadTreeEntry {
+        private final Sprite sprite;
+        private final int id;
+        private Node node;
+        private int x;
+        private int y;
+        private int width;
+        private int height;
+        private float centerX;
+        private float centerY;
+
+        private QuadTreeEntry(Sprite sprite, int id) {
+            this.sprite = sprite;
+            this.id = id;
+        }
+
+        private void calculateBounds() {
+            x = sprite.getRoundedOldXCoordinateTopLeft();
+            y = sprite.getRoundedOldYCoordinateTopLeft();
+            width = Math.max(sprite.getWidth(), 1);
+            height = Math.max(sprite.getHeight(), 1);
+            centerX = x + width / 2f;
+            centerY = y + height / 2f;
+        }
+
+        private boolean intersects(int minX, int minY, int maxX, int maxY) {
+            return x <= maxX && x + width >= minX && y <= maxY && y + height >= minY;
+        }
+    }
+}
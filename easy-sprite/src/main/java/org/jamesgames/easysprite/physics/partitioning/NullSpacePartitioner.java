@@ -2,6 +2,9 @@ package org.jamesgames.easysprite.physics.partitioning;
 
 import org.jamesgames.easysprite.sprite.Sprite;
 
+import java.awt.*;
+import java.util.List;
+import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 
 /**
@@ -29,4 +32,26 @@ public class NullSpacePartitioner implements SpacePartitioner {
     public void updatePosition(Sprite s) {
 
     }
+
+    @Override
+    public void applyActionWithAllPotentialCollidingPairs(List<Sprite> sprites, BiConsumer<Sprite, Sprite> action) {
+    }
+
+    @Override
+    public void forEachInRegion(Rectangle region, Consumer<Sprite> action) {
+    }
+
+    @Override
+    public void raycast(float x0, float y0, float x1, float y1, Consumer<Sprite> hitConsumer) {
+    }
+
+    @Override
+    public Sprite pick(int x, int y) {
+        return null;
+    }
+
+    @Override
+    public boolean canFindPotentialCollisions() {
+        return false;
+    }
 }
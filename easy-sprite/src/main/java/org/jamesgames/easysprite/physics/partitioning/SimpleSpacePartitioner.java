@@ -1,9 +1,13 @@
 package org.jamesgames.easysprite.physics.partitioning;
 
+import org.jamesgames.easysprite.physics.simple.SimpleShapeCollisionDetection;
 import org.jamesgames.easysprite.sprite.Sprite;
 
-import java.util.HashSet;
+import java.awt.*;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 
 /**
@@ -14,24 +18,69 @@ import java.util.function.Consumer;
  */
 public class SimpleSpacePartitioner implements SpacePartitioner {
 
-    private final Set<Sprite> sprites = new HashSet<>();
+    // Kept in the order they were added, so Sprites are handed out in the same order every run
+    private final Set<Sprite> partitionedSprites = new LinkedHashSet<>();
 
     @Override
     public void addSprite(Sprite s) {
-        sprites.add(s);
+        partitionedSprites.add(s);
     }
 
     @Override
     public void removeSprite(Sprite s) {
-        sprites.remove(s);
+        partitionedSprites.remove(s);
     }
 
     @Override
     public void applyActionWithAllPotentialCollidingSprites(Sprite spriteInPossibleCollision, Consumer<Sprite> action) {
-        sprites.forEach(action);
+        partitionedSprites.forEach(action);
     }
 
     @Override
     public void updatePosition(Sprite s) {
     }
+
+    @Override
+    public void applyActionWithAllPotentialCollidingPairs(List<Sprite> sprites, BiConsumer<Sprite, Sprite> action) {
+        // Every Sprite could be colliding with every other, so pair them up in the order they were passed in
+        for (int i = 0; i < sprites.size(); i++) {
+            Sprite first = sprites.get(i);
+            for (int j = i + 1; j < sprites.size(); j++) {
+                action.accept(first, sprites.get(j));
+            }
+        }
+    }
+
+    @Override
+    public void forEachInRegion(Rectangle region, Consumer<Sprite> action) {
+        for (Sprite s : partitionedSprites) {
+            if (SimpleShapeCollisionDetection.doRectanglesIntersect(region.x, region.y, region.width, region.height,
+                    s.getRoundedOldXCoordinateTopLeft(), s.getRoundedOldYCoordinateTopLeft(), s.getWidth(),
+                    s.getHeight())) {
+                action.accept(s);
+            }
+        }
+    }
+
+    @Override
+    public void raycast(float x0, float y0, float x1, float y1, Consumer<Sprite> hitConsumer) {
+        for (Sprite s : partitionedSprites) {
+            if (SimpleShapeCollisionDetection.doesLineSegmentIntersectRectangle(x0, y0, x1, y1,
+                    s.getRoundedOldXCoordinateTopLeft(), s.getRoundedOldYCoordinateTopLeft(), s.getWidth(),
+                    s.getHeight())) {
+                hitConsumer.accept(s);
+            }
+        }
+    }
+
+    @Override
+    public Sprite pick(int x, int y) {
+        for (Sprite s : partitionedSprites) {
+            if (SimpleShapeCollisionDetection.isPointInRectangle(x, y, s.getRoundedOldXCoordinateTopLeft(),
+                    s.getRoundedOldYCoordinateTopLeft(), s.getWidth(), s.getHeight())) {
+                return s;
+            }
+        }
+        return null;
+    }
 }
@@ -0,0 +1,281 @@
+package org.jamesgames.easysprite.physics.partitioning;
+
+import org.jamesgames.easysprite.physics.simple.SimpleShapeCollisionDetection;
+import org.jamesgames.easysprite.sprite.Sprite;
+
+import java.awt.*;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * SortAndSweepSpacePartitioner is a {@link SpacePartitioner} that keeps {@link Sprite}s sorted along the x axis by the
+ * left edge of the rectangle they occupied as of the last update (in the coordinate plane of the parent Sprite that owns
+ * this partitioner). Potential colliding Sprites are found by sweeping outwards from a Sprite's place in the sorted
+ * order, only visiting Sprites whose x intervals could overlap, and only handing out those whose x and y intervals both
+ * overlap.
+ * <p>
+ * Sprites tend to move very little between updates, so the sorted order changes very little between updates as well.
+ * Instead of sorting on every {@link SortAndSweepSpacePartitioner#updatePosition(Sprite)}, the order is marked as stale
+ * and fixed up with an insertion sort before the next lookup, which runs in close to linear time when the order is
+ * nearly sorted already. Lookups and updates don't allocate, only adding Sprites may grow the internal array.
+ * <p>
+ * Works best when Sprites are spread out along the x axis. Very wide Sprites make the sweep visit more Sprites, since the
+ * sweep has to look back as far as the widest Sprite.
+ * <p>
+ * Not thread-safe on its own, it's expected to only be used by the Sprite that owns it (which guards it with its own
+ * lock).
+ *
+ * @author James Murphy
+ */
+public class SortAndSweepSpacePartitioner implements SpacePartitioner {
+
+    private static final int initialCapacity = 16;
+    private static final Color intervalColor = Color.RED;
+
+    private final Map<Sprite, SweepEntry> entries = new HashMap<>();
+
+    /**
+     * Entries sorted by their left edge (once the order is not stale), only the first sortedEntryCount are in use
+     */
+    private SweepEntry[] sortedEntries = new SweepEntry[initialCapacity];
+    private int sortedEntryCount = 0;
+    private boolean orderStale = false;
+
+    /**
+     * Widest entry, which determines how far back a sweep has to look for entries that could overlap
+     */
+    private int widestEntryWidth = 0;
+
+    @Override
+    public void addSprite(Sprite s) {
+        if (entries.containsKey(s)) {
+            return;
+        }
+        SweepEntry entry = new SweepEntry(s);
+        entry.calculateBounds();
+        entries.put(s, entry);
+        if (sortedEntryCount == sortedEntries.length) {
+            sortedEntries = Arrays.copyOf(sortedEntries, sortedEntries.length * 2);
+        }
+        entry.index = sortedEntryCount;
+        sortedEntries[sortedEntryCount++] = entry;
+        widestEntryWidth = Math.max(widestEntryWidth, entry.right - entry.left);
+        orderStale = true;
+    }
+
+    @Override
+    public void removeSprite(Sprite s) {
+        SweepEntry entry = entries.remove(s);
+        if (entry == null) {
+            return;
+        }
+        // Shifting keeps the order intact, so no re-sort is needed
+        System.arraycopy(sortedEntries, entry.index + 1, sortedEntries, entry.index,
+                sortedEntryCount - entry.index - 1);
+        sortedEntries[--sortedEntryCount] = null;
+        for (int i = entry.index; i < sortedEntryCount; i++) {
+            sortedEntries[i].index = i;
+        }
+    }
+
+    @Override
+    public void applyActionWithAllPotentialCollidingSprites(Sprite spriteInPossibleCollision, Consumer<Sprite> action) {
+        sortIfStale();
+        SweepEntry entry = entries.get(spriteInPossibleCollision);
+        if (entry != null) {
+            sweep(entry.index, entry.left, entry.right, entry.top, entry.bottom, action);
+        } else {
+            int left = spriteInPossibleCollision.getRoundedOldXCoordinateTopLeft();
+            int top = spriteInPossibleCollision.getRoundedOldYCoordinateTopLeft();
+            int right = left + Math.max(spriteInPossibleCollision.getWidth(), 1);
+            int bottom = top + Math.max(spriteInPossibleCollision.getHeight(), 1);
+            sweep(findFirstIndexWithLeftEdgeAtOrAfter(left), left, right, top, bottom, action);
+        }
+    }
+
+    /**
+     * Sweeps forward only, each entry is paired with the entries after it in the sorted order that start before it
+     * ends, so every pair is found exactly once
+     */
+    @Override
+    public void applyActionWithAllPotentialCollidingPairs(List<Sprite> sprites, BiConsumer<Sprite, Sprite> action) {
+        sortIfStale();
+        for (int i = 0; i < sortedEntryCount; i++) {
+            SweepEntry first = sortedEntries[i];
+            for (int j = i + 1; j < sortedEntryCount && sortedEntries[j].left <= first.right; j++) {
+                SweepEntry second = sortedEntries[j];
+                if (second.top <= first.bottom && second.bottom >= first.top) {
+                    action.accept(first.sprite, second.sprite);
+                }
+            }
+        }
+    }
+
+    /**
+     * Sweeps from the first entry that could reach the region, no further back than the widest entry, until entries
+     * start past the region, testing each entry's rectangle against the region
+     */
+    @Override
+    public void forEachInRegion(Rectangle region, Consumer<Sprite> action) {
+        sortIfStale();
+        int right = region.x + region.width;
+        for (int i = findFirstIndexWithLeftEdgeAtOrAfter(region.x - widestEntryWidth);
+             i < sortedEntryCount && sortedEntries[i].left <= right; i++) {
+            SweepEntry entry = sortedEntries[i];
+            if (SimpleShapeCollisionDetection.doRectanglesIntersect(region.x, region.y, region.width, region.height,
+                    entry.left, entry.top, entry.right - entry.left, entry.bottom - entry.top)) {
+                action.accept(entry.sprite);
+            }
+        }
+    }
+
+    /**
+     * Sweeps over the x extent of the segment the same way as a region, and tests the segment against each entry
+     */
+    @Override
+    public void raycast(float x0, float y0, float x1, float y1, Consumer<Sprite> hitConsumer) {
+        sortIfStale();
+        int left = (int) Math.floor(Math.min(x0, x1));
+        int right = (int) Math.ceil(Math.max(x0, x1));
+        for (int i = findFirstIndexWithLeftEdgeAtOrAfter(left - widestEntryWidth);
+             i < sortedEntryCount && sortedEntries[i].left <= right; i++) {
+            SweepEntry entry = sortedEntries[i];
+            if (SimpleShapeCollisionDetection.doesLineSegmentIntersectRectangle(x0, y0, x1, y1, entry.left,
+                    entry.top, entry.right - entry.left, entry.bottom - entry.top)) {
+                hitConsumer.accept(entry.sprite);
+            }
+        }
+    }
+
+    @Override
+    public Sprite pick(int x, int y) {
+        sortIfStale();
+        // Any Sprite containing the point starts at or before it, and no further back than the widest Sprite
+        int earliestPossibleLeftEdge = x - widestEntryWidth;
+        for (int i = findFirstIndexWithLeftEdgeAtOrAfter(x + 1) - 1;
+             i >= 0 && sortedEntries[i].left >= earliestPossibleLeftEdge; i--) {
+            SweepEntry entry = sortedEntries[i];
+            if (SimpleShapeCollisionDetection.isPointInRectangle(x, y, entry.left, entry.top,
+                    entry.right - entry.left, entry.bottom - entry.top)) {
+                return entry.sprite;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void updatePosition(Sprite s) {
+        SweepEntry entry = entries.get(s);
+        if (entry == null) {
+            return;
+        }
+        int oldLeft = entry.left;
+        entry.calculateBounds();
+        widestEntryWidth = Math.max(widestEntryWidth, entry.right - entry.left);
+        if (entry.left != oldLeft) {
+            orderStale = true;
+        }
+    }
+
+    /**
+     * Draws each Sprite's x interval along the top of the owning Sprite, which makes overlapping intervals easy to spot
+     */
+    @Override
+    public void draw(Graphics2D g) {
+        sortIfStale();
+        Graphics2D sweepGraphics = (Graphics2D) g.create();
+        sweepGraphics.setColor(intervalColor);
+        for (int i = 0; i < sortedEntryCount; i++) {
+            SweepEntry entry = sortedEntries[i];
+            int y = (i % 8) * 2;
+            sweepGraphics.drawLine(entry.left, y, entry.right - 1, y);
+        }
+        sweepGraphics.dispose();
+    }
+
+    /**
+     * Visits entries whose x intervals could overlap the passed interval, backwards from the starting index as far as
+     * the widest entry allows, and forward until entries start past the right edge
+     */
+    private void sweep(int startingIndex, int left, int right, int top, int bottom, Consumer<Sprite> action) {
+        int earliestPossibleOverlappingLeftEdge = left - widestEntryWidth;
+        for (int i = startingIndex - 1; i >= 0 && sortedEntries[i].left >= earliestPossibleOverlappingLeftEdge; i--) {
+            SweepEntry other = sortedEntries[i];
+            if (other.right >= left && other.top <= bottom && other.bottom >= top) {
+                action.accept(other.sprite);
+            }
+        }
+        for (int i = startingIndex; i < sortedEntryCount && sortedEntries[i].left <= right; i++) {
+            SweepEntry other = sortedEntries[i];
+            if (other.right >= left && other.top <= bottom && other.bottom >= top) {
+                action.accept(other.sprite);
+            }
+        }
+    }
+
+    private int findFirstIndexWithLeftEdgeAtOrAfter(int left) {
+        int low = 0;
+        int high = sortedEntryCount;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (sortedEntries[middle].left < left) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Insertion sort, which is close to linear time when only a few entries moved a small amount since the last sort
+     */
+    private void sortIfStale() {
+        if (!orderStale) {
+            return;
+        }
+        int widest = 0;
+        for (int i = 0; i < sortedEntryCount; i++) {
+            SweepEntry entry = sortedEntries[i];
+            int j = i - 1;
+            while (j >= 0 && sortedEntries[j].left > entry.left) {
+                sortedEntries[j + 1] = sortedEntries[j];
+                sortedEntries[j + 1].index = j + 1;
+                j--;
+            }
+            sortedEntries[j + 1] = entry;
+            entry.index = j + 1;
+            widest = Math.max(widest, entry.right - entry.left);
+        }
+        // Entries may have shrunk or been removed since the widest width was last raised, so recalculate it here
+        widestEntryWidth = widest;
+        orderStale = false;
+    }
+
+    /**
+     * A Sprite stored in the sorted array along with the rectangle it was last sorted with
+     */
+    private static final class SweepEntry {
+        private final Sprite sprite;
+        private int index;
+        private int left;
+        private int right;
+        private int top;
+        private int bottom;
+
+        private SweepEntry(Sprite sprite) {
+            this.sprite = sprite;
+        }
+
+        private void calculateBounds() {
+            left = sprite.getRoundedOldXCoordinateTopLeft();
+            top = sprite.getRoundedOldYCoordinateTopLeft();
+            right = left + Math.max(sprite.getWidth(), 1);
+            bottom = top + Math.max(sprite.getHeight(), 1);
+        }
+    }
+}
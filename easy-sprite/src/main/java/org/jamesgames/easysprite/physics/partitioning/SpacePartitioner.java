@@ -3,6 +3,10 @@ package org.jamesgames.easysprite.physics.partitioning;
 import org.jamesgames.easysprite.sprite.Sprite;
 
 import java.awt.*;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 
 /**
@@ -24,6 +28,67 @@ public interface SpacePartitioner {
 
     void updatePosition(Sprite s);
 
+    /**
+     * Applies the action once to every unordered pair of Sprites that could be colliding, so if Sprites A and B could
+     * be colliding, the action is applied with either A,B or B,A but not both. The default implementation asks for the
+     * potential colliding Sprites of each passed Sprite and remembers which Sprites were already paired up,
+     * implementations should override this with something that doesn't need to remember what was handed out.
+     *
+     * @param sprites
+     *         All Sprites in this partitioner, in the order they should be paired up in
+     */
+    default void applyActionWithAllPotentialCollidingPairs(List<Sprite> sprites, BiConsumer<Sprite, Sprite> action) {
+        Set<Sprite> spritesAlreadyPaired = new HashSet<>();
+        for (Sprite sprite : sprites) {
+            applyActionWithAllPotentialCollidingSprites(sprite, potentialCollidingSprite -> {
+                if (potentialCollidingSprite != sprite && !spritesAlreadyPaired.contains(potentialCollidingSprite)) {
+                    action.accept(sprite, potentialCollidingSprite);
+                }
+            });
+            spritesAlreadyPaired.add(sprite);
+        }
+    }
+
+    /**
+     * Applies the action to every Sprite whose rectangle as of the last update intersects the region, where the region
+     * is in the coordinate plane of the Sprite that owns this partitioner. The default implementation looks up the
+     * potential colliding Sprites of a probe Sprite covering the region, implementations should override this with a
+     * lookup that goes straight to the region, without a probe being moved and updated first.
+     */
+    default void forEachInRegion(Rectangle region, Consumer<Sprite> action) {
+        SpacePartitionerFallbackQueries.forEachInRegion(this, region, action);
+    }
+
+    /**
+     * Applies the action to every Sprite whose rectangle as of the last update the line segment from x0,y0 to x1,y1
+     * passes through, in no particular order. Coordinates are in the coordinate plane of the Sprite that owns this
+     * partitioner. The default implementation looks up the potential colliding Sprites of a probe Sprite covering the
+     * segment's bounds, implementations should override this with a lookup that only visits what the segment crosses.
+     */
+    default void raycast(float x0, float y0, float x1, float y1, Consumer<Sprite> hitConsumer) {
+        SpacePartitionerFallbackQueries.raycast(this, x0, y0, x1, y1, hitConsumer);
+    }
+
+    /**
+     * Finds a Sprite whose rectangle as of the last update contains the point, where the point is in the coordinate
+     * plane of the Sprite that owns this partitioner. The default implementation looks up the potential colliding
+     * Sprites of a probe Sprite at the point, implementations should override this with a lookup that goes straight to
+     * the point, without a probe being moved and updated first.
+     *
+     * @return A Sprite containing the point, if more than one do then any one of them, or null if there are none
+     */
+    default Sprite pick(int x, int y) {
+        return SpacePartitionerFallbackQueries.pick(this, x, y);
+    }
+
+    /**
+     * @return False if this partitioner never hands out any potential colliding Sprites, so that whatever would be
+     * prepared to test the potential collisions can be skipped. True by default.
+     */
+    default boolean canFindPotentialCollisions() {
+        return true;
+    }
+
     /**
      * Useful for visual debugging, default method draws nothing.
      */
@@ -0,0 +1,143 @@
+package org.jamesgames.easysprite.physics.partitioning;
+
+import org.jamesgames.easysprite.physics.simple.SimpleShapeCollisionDetection;
+import org.jamesgames.easysprite.sprite.Sprite;
+
+import java.awt.*;
+import java.util.function.Consumer;
+
+/**
+ * SpacePartitionerFallbackQueries implements the region, ray, and point lookups of {@link SpacePartitioner} for
+ * partitioners that don't provide their own, by looking up the potential colliding Sprites of a probe Sprite that
+ * covers what is being looked up, and then testing each of those Sprites exactly. Each thread reuses one probe and one
+ * SpacePartitionerFallbackQueries, which is also the action handed to the partitioner, so a lookup allocates nothing. A
+ * lookup started from the action of another lookup on the same thread gets one of it's own instead.
+ *
+ * @author James Murphy
+ */
+final class SpacePartitionerFallbackQueries implements Consumer<Sprite> {
+
+    private static final ThreadLocal<SpacePartitionerFallbackQueries> queriesOfThread =
+            ThreadLocal.withInitial(SpacePartitionerFallbackQueries::new);
+
+    private enum Query {
+        region, ray, point
+    }
+
+    // Has no parent sprite, so it's coordinate plane is whatever the partitioner's is
+    private final Sprite probe = new Sprite();
+    private boolean inUse = false;
+    private Query query;
+    private int x;
+    private int y;
+    private int width;
+    private int height;
+    private float x0;
+    private float y0;
+    private float x1;
+    private float y1;
+    private Consumer<Sprite> action;
+    private Sprite pickedSprite;
+
+    private SpacePartitionerFallbackQueries() {
+    }
+
+    static void forEachInRegion(SpacePartitioner partitioner, Rectangle region, Consumer<Sprite> action) {
+        SpacePartitionerFallbackQueries queries = acquire();
+        try {
+            queries.query = Query.region;
+            queries.action = action;
+            queries.lookUp(partitioner, region.x, region.y, region.width, region.height);
+        } finally {
+            queries.release();
+        }
+    }
+
+    static void raycast(SpacePartitioner partitioner, float x0, float y0, float x1, float y1,
+            Consumer<Sprite> hitConsumer) {
+        int left = (int) Math.floor(Math.min(x0, x1));
+        int top = (int) Math.floor(Math.min(y0, y1));
+        int right = (int) Math.ceil(Math.max(x0, x1));
+        int bottom = (int) Math.ceil(Math.max(y0, y1));
+        SpacePartitionerFallbackQueries queries = acquire();
+        try {
+            queries.query = Query.ray;
+            queries.x0 = x0;
+            queries.y0 = y0;
+            queries.x1 = x1;
+            queries.y1 = y1;
+            queries.action = hitConsumer;
+            queries.lookUp(partitioner, left, top, right - left + 1, bottom - top + 1);
+        } finally {
+            queries.release();
+        }
+    }
+
+    static Sprite pick(SpacePartitioner partitioner, int x, int y) {
+        SpacePartitionerFallbackQueries queries = acquire();
+        try {
+            queries.query = Query.point;
+            queries.lookUp(partitioner, x, y, 1, 1);
+            return queries.pickedSprite;
+        } finally {
+            queries.release();
+        }
+    }
+
+    private static SpacePartitionerFallbackQueries acquire() {
+        SpacePartitionerFallbackQueries queries = queriesOfThread.get();
+        if (queries.inUse) {
+            queries = new SpacePartitionerFallbackQueries();
+        }
+        queries.inUse = true;
+        return queries;
+    }
+
+    private void release() {
+        // Don't hold on to what was looked up
+        action = null;
+        pickedSprite = null;
+        inUse = false;
+    }
+
+    private void lookUp(SpacePartitioner partitioner, int x, int y, int width, int height) {
+        this.x = x;
+        this.y = y;
+        this.width = width;
+        this.height = height;
+        probe.setXCoordinateTopLeft(x);
+        probe.setYCoordinateTopLeft(y);
+        probe.setWidth(width);
+        probe.setHeight(height);
+        // Partitioners look Sprites up by where they were as of the last update, updating the probe moves it there
+        probe.updateAll(0);
+        partitioner.applyActionWithAllPotentialCollidingSprites(probe, this);
+    }
+
+    @Override
+    public void accept(Sprite s) {
+        switch (query) {
+            case region:
+                if (SimpleShapeCollisionDetection.doRectanglesIntersect(x, y, width, height,
+                        s.getRoundedOldXCoordinateTopLeft(), s.getRoundedOldYCoordinateTopLeft(), s.getWidth(),
+                        s.getHeight())) {
+                    action.accept(s);
+                }
+                break;
+            case ray:
+                if (SimpleShapeCollisionDetection.doesLineSegmentIntersectRectangle(x0, y0, x1, y1,
+                        s.getRoundedOldXCoordinateTopLeft(), s.getRoundedOldYCoordinateTopLeft(), s.getWidth(),
+                        s.getHeight())) {
+                    action.accept(s);
+                }
+                break;
+            case point:
+                if (pickedSprite == null && SimpleShapeCollisionDetection.isPointInRectangle(x, y,
+                        s.getRoundedOldXCoordinateTopLeft(), s.getRoundedOldYCoordinateTopLeft(), s.getWidth(),
+                        s.getHeight())) {
+                    pickedSprite = s;
+                }
+                break;
+        }
+    }
+}
@@ -0,0 +1,384 @@
+package org.jamesgames.easysprite.physics.partitioning;
+
+import org.jamesgames.easysprite.physics.simple.SimpleShapeCollisionDetection;
+import org.jamesgames.easysprite.sprite.Sprite;
+
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * UniformGridSpacePartitioner is a {@link SpacePartitioner} that hashes {@link Sprite}s into fixed size cells of a
+ * uniform grid based on the rectangle each Sprite occupied as of the last update (in the coordinate plane of the parent
+ * Sprite that owns this partitioner). A Sprite is stored in every cell that its rectangle covers, and only Sprites that
+ * share at least one cell are handed out as potential colliding Sprites. Only cells that contain Sprites are stored, so
+ * the grid is unbounded and can extend into negative coordinates.
+ * <p>
+ * Works best when the Sprites are roughly the same size as, or smaller than, a cell. Sprites much larger than a cell
+ * cover many cells and make every update and lookup of that Sprite more expensive.
+ * <p>
+ * Not thread-safe on its own, it's expected to only be used by the Sprite that owns it (which guards it with its own
+ * lock).
+ *
+ * @author James Murphy
+ */
+public class UniformGridSpacePartitioner implements SpacePartitioner {
+
+    private static final Color cellOutlineColor = Color.MAGENTA;
+
+    private final int cellWidth;
+    private final int cellHeight;
+
+    /**
+     * Cells keyed by their packed x,y cell index, see {@link UniformGridSpacePartitioner#cellKey(int, int)}. Keyed by a
+     * primitive long so that looking up a cell doesn't allocate.
+     */
+    private final LongKeyedMap<List<GridEntry>> cells = new LongKeyedMap<>();
+    private final Map<Sprite, GridEntry> entries = new HashMap<>();
+
+    /**
+     * Creates a UniformGridSpacePartitioner with square cells
+     *
+     * @param cellSize
+     *         Width and height of a cell in coordinate units
+     */
+    public UniformGridSpacePartitioner(int cellSize) {
+        this(cellSize, cellSize);
+    }
+
+    public UniformGridSpacePartitioner(int cellWidth, int cellHeight) {
+        if (cellWidth <= 0 || cellHeight <= 0) {
+            throw new IllegalArgumentException("Cell width and height must be greater than 0");
+        }
+        this.cellWidth = cellWidth;
+        this.cellHeight = cellHeight;
+    }
+
+    @Override
+    public void addSprite(Sprite s) {
+        if (entries.containsKey(s)) {
+            return;
+        }
+        GridEntry entry = new GridEntry(s);
+        entry.calculateCoveredCells();
+        entries.put(s, entry);
+        addToCoveredCells(entry);
+    }
+
+    @Override
+    public void removeSprite(Sprite s) {
+        GridEntry entry = entries.remove(s);
+        if (entry != null) {
+            removeFromCoveredCells(entry);
+        }
+    }
+
+    @Override
+    public void applyActionWithAllPotentialCollidingSprites(Sprite spriteInPossibleCollision, Consumer<Sprite> action) {
+        GridEntry entry = entries.get(spriteInPossibleCollision);
+        int minCellX;
+        int minCellY;
+        int maxCellX;
+        int maxCellY;
+        if (entry != null) {
+            minCellX = entry.minCellX;
+            minCellY = entry.minCellY;
+            maxCellX = entry.maxCellX;
+            maxCellY = entry.maxCellY;
+        } else {
+            // Sprite is not in this partitioner, so look up the cells it would cover without storing it
+            int x = getIndexedXCoordinateTopLeft(spriteInPossibleCollision);
+            int y = getIndexedYCoordinateTopLeft(spriteInPossibleCollision);
+            minCellX = cellX(x);
+            minCellY = cellY(y);
+            maxCellX = cellX(x + Math.max(spriteInPossibleCollision.getWidth(), 1) - 1);
+            maxCellY = cellY(y + Math.max(spriteInPossibleCollision.getHeight(), 1) - 1);
+        }
+
+        for (int cellX = minCellX; cellX <= maxCellX; cellX++) {
+            for (int cellY = minCellY; cellY <= maxCellY; cellY++) {
+                List<GridEntry> cell = cells.get(cellKey(cellX, cellY));
+                if (cell == null) {
+                    continue;
+                }
+                for (int i = 0; i < cell.size(); i++) {
+                    GridEntry other = cell.get(i);
+                    // Two Sprites spanning several cells share more than one cell, only report the pair in the first
+                    // (top left most) cell they share so each potential colliding Sprite is reported once
+                    if (cellX == Math.max(minCellX, other.minCellX) && cellY == Math.max(minCellY, other.minCellY)) {
+                        action.accept(other.sprite);
+                    }
+                }
+            }
+        }
+    }
+
+    @Override
+    public void applyActionWithAllPotentialCollidingPairs(List<Sprite> sprites, BiConsumer<Sprite, Sprite> action) {
+        for (int slot = 0; slot < cells.getSlotCount(); slot++) {
+            List<GridEntry> cell = cells.getValueAtSlot(slot);
+            if (cell == null) {
+                continue;
+            }
+            long key = cells.getKeyAtSlot(slot);
+            int cellX = (int) (key >> 32);
+            int cellY = (int) key;
+            for (int i = 0; i < cell.size(); i++) {
+                GridEntry first = cell.get(i);
+                for (int j = i + 1; j < cell.size(); j++) {
+                    GridEntry second = cell.get(j);
+                    // Same as single Sprite lookups, pairs sharing several cells are only reported in the first one
+                    if (cellX == Math.max(first.minCellX, second.minCellX) &&
+                            cellY == Math.max(first.minCellY, second.minCellY)) {
+                        action.accept(first.sprite, second.sprite);
+                    }
+                }
+            }
+        }
+    }
+
+    @Override
+    public void updatePosition(Sprite s) {
+        GridEntry entry = entries.get(s);
+        if (entry == null) {
+            return;
+        }
+        int oldMinCellX = entry.minCellX;
+        int oldMinCellY = entry.minCellY;
+        int oldMaxCellX = entry.maxCellX;
+        int oldMaxCellY = entry.maxCellY;
+        entry.calculateCoveredCells();
+        if (oldMinCellX == entry.minCellX && oldMinCellY == entry.minCellY &&
+                oldMaxCellX == entry.maxCellX && oldMaxCellY == entry.maxCellY) {
+            // Still covering the same cells, nothing to move
+            return;
+        }
+        removeFromCells(entry, oldMinCellX, oldMinCellY, oldMaxCellX, oldMaxCellY);
+        addToCoveredCells(entry);
+    }
+
+    @Override
+    public void forEachInRegion(Rectangle region, Consumer<Sprite> action) {
+        int minCellX = cellX(region.x);
+        int minCellY = cellY(region.y);
+        int maxCellX = cellX(region.x + Math.max(region.width, 1) - 1);
+        int maxCellY = cellY(region.y + Math.max(region.height, 1) - 1);
+        for (int cellX = minCellX; cellX <= maxCellX; cellX++) {
+            for (int cellY = minCellY; cellY <= maxCellY; cellY++) {
+                List<GridEntry> cell = cells.get(cellKey(cellX, cellY));
+                if (cell == null) {
+                    continue;
+                }
+                for (int i = 0; i < cell.size(); i++) {
+                    GridEntry entry = cell.get(i);
+                    // Only report in the first cell the Sprite and region share, same as potential colliding Sprites
+                    if (cellX == Math.max(minCellX, entry.minCellX) && cellY == Math.max(minCellY, entry.minCellY) &&
+                            SimpleShapeCollisionDetection.doRectanglesIntersect(region.x, region.y, region.width,
+                                    region.height, entry.x, entry.y, entry.width, entry.height)) {
+                        action.accept(entry.sprite);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Walks the cells the segment passes through in order from x0,y0 to x1,y1, only visiting cells along the way
+     */
+    @Override
+    public void raycast(float x0, float y0, float x1, float y1, Consumer<Sprite> hitConsumer) {
+        int cellX = cellX((int) Math.floor(x0));
+        int cellY = cellY((int) Math.floor(y0));
+        int endCellX = cellX((int) Math.floor(x1));
+        int endCellY = cellY((int) Math.floor(y1));
+        float deltaX = x1 - x0;
+        float deltaY = y1 - y0;
+        int stepX = Integer.signum(endCellX - cellX);
+        int stepY = Integer.signum(endCellY - cellY);
+        // Portion of the segment (0 being the start, 1 the end) at which the next cell boundary is crossed on each
+        // axis, and how much of the segment it takes to cross one whole cell on each axis
+        float timeOfNextXBoundary = stepX == 0 ? Float.POSITIVE_INFINITY :
+                ((stepX > 0 ? cellX + 1 : cellX) * (float) cellWidth - x0) / deltaX;
+        float timeOfNextYBoundary = stepY == 0 ? Float.POSITIVE_INFINITY :
+                ((stepY > 0 ? cellY + 1 : cellY) * (float) cellHeight - y0) / deltaY;
+        float timeToCrossCellX = stepX == 0 ? Float.POSITIVE_INFINITY : cellWidth / Math.abs(deltaX);
+        float timeToCrossCellY = stepY == 0 ? Float.POSITIVE_INFINITY : cellHeight / Math.abs(deltaY);
+
+        int cellsLeftToVisit = Math.abs(endCellX - cellX) + Math.abs(endCellY - cellY) + 1;
+        int previousCellX = cellX;
+        int previousCellY = cellY;
+        boolean firstCell = true;
+        while (cellsLeftToVisit-- > 0) {
+            List<GridEntry> cell = cells.get(cellKey(cellX, cellY));
+            if (cell != null) {
+                for (int i = 0; i < cell.size(); i++) {
+                    GridEntry entry = cell.get(i);
+                    // The cells the segment passes through only ever enter a Sprite's range of cells once, so only
+                    // report a Sprite when the segment just entered it's range of cells
+                    if ((firstCell || !entry.coversCell(previousCellX, previousCellY)) &&
+                            SimpleShapeCollisionDetection.doesLineSegmentIntersectRectangle(x0, y0, x1, y1, entry.x,
+                                    entry.y, entry.width, entry.height)) {
+                        hitConsumer.accept(entry.sprite);
+                    }
+                }
+            }
+            firstCell = false;
+            previousCellX = cellX;
+            previousCellY = cellY;
+            if (timeOfNextXBoundary < timeOfNextYBoundary) {
+                cellX += stepX;
+                timeOfNextXBoundary += timeToCrossCellX;
+            } else {
+                cellY += stepY;
+                timeOfNextYBoundary += timeToCrossCellY;
+            }
+        }
+    }
+
+    @Override
+    public Sprite pick(int x, int y) {
+        List<GridEntry> cell = cells.get(cellKey(cellX(x), cellY(y)));
+        if (cell != null) {
+            for (int i = 0; i < cell.size(); i++) {
+                GridEntry entry = cell.get(i);
+                if (SimpleShapeCollisionDetection.isPointInRectangle(x, y, entry.x, entry.y, entry.width,
+                        entry.height)) {
+                    return entry.sprite;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Draws the outline of every cell that contains at least one Sprite, along with how many Sprites are in that cell
+     */
+    @Override
+    public void draw(Graphics2D g) {
+        Graphics2D gridGraphics = (Graphics2D) g.create();
+        gridGraphics.setColor(cellOutlineColor);
+        for (int slot = 0; slot < cells.getSlotCount(); slot++) {
+            List<GridEntry> cell = cells.getValueAtSlot(slot);
+            if (cell == null) {
+                continue;
+            }
+            long key = cells.getKeyAtSlot(slot);
+            int x = (int) (key >> 32) * cellWidth;
+            int y = (int) key * cellHeight;
+            gridGraphics.drawRect(x, y, cellWidth - 1, cellHeight - 1);
+            gridGraphics.drawString(Integer.toString(cell.size()), x + 2,
+                    y + gridGraphics.getFontMetrics().getAscent());
+        }
+        gridGraphics.dispose();
+    }
+
+    public int getCellWidth() {
+        return cellWidth;
+    }
+
+    public int getCellHeight() {
+        return cellHeight;
+    }
+
+    private void addToCoveredCells(GridEntry entry) {
+        for (int cellX = entry.minCellX; cellX <= entry.maxCellX; cellX++) {
+            for (int cellY = entry.minCellY; cellY <= entry.maxCellY; cellY++) {
+                long key = cellKey(cellX, cellY);
+                List<GridEntry> cell = cells.get(key);
+                if (cell == null) {
+                    cell = new ArrayList<>();
+                    cells.put(key, cell);
+                }
+                cell.add(entry);
+            }
+        }
+    }
+
+    private void removeFromCoveredCells(GridEntry entry) {
+        removeFromCells(entry, entry.minCellX, entry.minCellY, entry.maxCellX, entry.maxCellY);
+    }
+
+    private void removeFromCells(GridEntry entry, int minCellX, int minCellY, int maxCellX, int maxCellY) {
+        for (int cellX = minCellX; cellX <= maxCellX; cellX++) {
+            for (int cellY = minCellY; cellY <= maxCellY; cellY++) {
+                long key = cellKey(cellX, cellY);
+                List<GridEntry> cell = cells.get(key);
+                if (cell != null) {
+                    cell.remove(entry);
+                    if (cell.isEmpty()) {
+                        // Don't hold on to empty cells, the grid would otherwise grow with every cell ever visited
+                        cells.remove(key);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * @return The x coordinate the Sprite is stored in the grid by, which is the Sprite's x coordinate as of the last
+     * update in the coordinate plane of it's parent Sprite. Designed to be overridden by subclasses that store Sprites
+     * in a different coordinate plane.
+     */
+    protected int getIndexedXCoordinateTopLeft(Sprite s) {
+        return s.getRoundedOldXCoordinateTopLeft();
+    }
+
+    /**
+     * @return The y coordinate the Sprite is stored in the grid by
+     * @see UniformGridSpacePartitioner#getIndexedXCoordinateTopLeft(Sprite)
+     */
+    protected int getIndexedYCoordinateTopLeft(Sprite s) {
+        return s.getRoundedOldYCoordinateTopLeft();
+    }
+
+    private int cellX(int xCoordinate) {
+        return Math.floorDiv(xCoordinate, cellWidth);
+    }
+
+    private int cellY(int yCoordinate) {
+        return Math.floorDiv(yCoordinate, cellHeight);
+    }
+
+    private static long cellKey(int cellX, int cellY) {
+        return ((long) cellX << 32) | (cellY & 0xFFFFFFFFL);
+    }
+
+    /**
+     * A Sprite stored in the grid along with it's rectangle and the inclusive range of cells it covers
+     */
+    private final class GridEntry {
+        private final Sprite sprite;
+        private int x;
+        private int y;
+        private int width;
+        private int height;
+        private int minCellX;
+        private int minCellY;
+        private int maxCellX;
+        private int maxCellY;
+
+        private GridEntry(Sprite sprite) {
+            this.sprite = sprite;
+        }
+
+        private void calculateCoveredCells() {
+            x = getIndexedXCoordinateTopLeft(sprite);
+            y = getIndexedYCoordinateTopLeft(sprite);
+            width = sprite.getWidth();
+            height = sprite.getHeight();
+            // Sprites with no width or height still occupy the cell they are positioned in
+            minCellX = cellX(x);
+            minCellY = cellY(y);
+            maxCellX = cellX(x + Math.max(width, 1) - 1);
+            maxCellY = cellY(y + Math.max(height, 1) - 1);
+        }
+
+        private boolean coversCell(int cellX, int cellY) {
+            return cellX >= minCellX && cellX <= maxCellX && cellY >= minCellY && cellY <= maxCellY;
+        }
+    }
+}
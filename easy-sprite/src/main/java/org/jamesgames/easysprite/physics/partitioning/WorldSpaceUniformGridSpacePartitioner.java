@@ -0,0 +1,36 @@
+package org.jamesgames.easysprite.physics.partitioning;
+
+import org.jamesgames.easysprite.sprite.Sprite;
+
+/**
+ * WorldSpaceUniformGridSpacePartitioner is a {@link UniformGridSpacePartitioner} that stores {@link Sprite}s by their
+ * drawing coordinates as of the last update (see {@link Sprite#getOldXDrawingCoordinateTopLeft()}), which are in the
+ * coordinate plane of the top most parent Sprite, rather than in the coordinate plane of each Sprite's own parent.
+ * Since every Sprite of a tree shares that coordinate plane no matter how deep it is, one of these can hold Sprites
+ * from anywhere in the tree, which is what {@link Sprite#setSceneSpacePartitioner(SpacePartitioner,
+ * org.jamesgames.easysprite.sprite.SceneCollisionScope)} expects.
+ * <p>
+ * Region, ray, and point lookups are in the same coordinate plane, and debug graphics are drawn in it as well.
+ *
+ * @author James Murphy
+ */
+public class WorldSpaceUniformGridSpacePartitioner extends UniformGridSpacePartitioner {
+
+    public WorldSpaceUniformGridSpacePartitioner(int cellSize) {
+        super(cellSize);
+    }
+
+    public WorldSpaceUniformGridSpacePartitioner(int cellWidth, int cellHeight) {
+        super(cellWidth, cellHeight);
+    }
+
+    @Override
+    protected int getIndexedXCoordinateTopLeft(Sprite s) {
+        return s.getOldXDrawingCoordinateTopLeft();
+    }
+
+    @Override
+    protected int getIndexedYCoordinateTopLeft(Sprite s) {
+        return s.getOldYDrawingCoordinateTopLeft();
+    }
+}
@@ -50,6 +50,154 @@ public class SimpleShapeCollisionDetection {
         return SimpleCollisionDirection.no_collision;
     }
 
+    /**
+     * Determines if two rectangles moving in a straight line from a start position to an end position collided at any
+     * point along the way, and if so when and from what general direction. Unlike {@link
+     * SimpleShapeCollisionDetection#detectCollisionOfTwoRectangles(int, int, int, int, int, int, int, int)}, which only
+     * looks at the end positions, this finds collisions where a fast moving rectangle passed clean through another
+     * rectangle during a large time step.
+     * <p>
+     * Direction is described the same way as {@link SimpleShapeCollisionDetection#detectCollisionOfTwoRectangles(int,
+     * int, int, int, int, int, int, int)} does, except it's based on which sides of the two rectangles met first. If
+     * the rectangles already overlapped at the start, the time of impact is 0 and the direction is based on how much
+     * the rectangles overlapped along each axis at the start.
+     *
+     * @return The collision, or {@link SimpleSweptCollision#noCollision} if the rectangles never overlapped
+     */
+    public static SimpleSweptCollision detectSweptCollisionOfTwoRectangles(float xOneStart, float yOneStart,
+            float xOneEnd, float yOneEnd, int widthOne, int heightOne,
+            float xTwoStart, float yTwoStart, float xTwoEnd, float yTwoEnd, int widthTwo, int heightTwo) {
+        if (widthOne <= 0 || heightOne <= 0 || widthTwo <= 0 || heightTwo <= 0) {
+            return SimpleSweptCollision.noCollision;
+        }
+
+        // Move rectangle One relative to rectangle Two, so only one of the two rectangles is moving. Then find the
+        // portion of the movement (0 being the start, 1 the end) during which the rectangles overlap along each axis,
+        // the rectangles collide if those portions overlap before the end of the movement.
+        float relativeDeltaX = (xOneEnd - xOneStart) - (xTwoEnd - xTwoStart);
+        float relativeDeltaY = (yOneEnd - yOneStart) - (yTwoEnd - yTwoStart);
+
+        float enterTimeX;
+        float exitTimeX;
+        if (relativeDeltaX == 0) {
+            if (!(xOneStart < xTwoStart + widthTwo && xTwoStart < xOneStart + widthOne)) {
+                return SimpleSweptCollision.noCollision;
+            }
+            enterTimeX = Float.NEGATIVE_INFINITY;
+            exitTimeX = Float.POSITIVE_INFINITY;
+        } else {
+            float timeRightOfOneMeetsLeftOfTwo = (xTwoStart - (xOneStart + widthOne)) / relativeDeltaX;
+            float timeLeftOfOneMeetsRightOfTwo = (xTwoStart + widthTwo - xOneStart) / relativeDeltaX;
+            enterTimeX = Math.min(timeRightOfOneMeetsLeftOfTwo, timeLeftOfOneMeetsRightOfTwo);
+            exitTimeX = Math.max(timeRightOfOneMeetsLeftOfTwo, timeLeftOfOneMeetsRightOfTwo);
+        }
+
+        float enterTimeY;
+        float exitTimeY;
+        if (relativeDeltaY == 0) {
+            if (!(yOneStart < yTwoStart + heightTwo && yTwoStart < yOneStart + heightOne)) {
+                return SimpleSweptCollision.noCollision;
+            }
+            enterTimeY = Float.NEGATIVE_INFINITY;
+            exitTimeY = Float.POSITIVE_INFINITY;
+        } else {
+            float timeBottomOfOneMeetsTopOfTwo = (yTwoStart - (yOneStart + heightOne)) / relativeDeltaY;
+            float timeTopOfOneMeetsBottomOfTwo = (yTwoStart + heightTwo - yOneStart) / relativeDeltaY;
+            enterTimeY = Math.min(timeBottomOfOneMeetsTopOfTwo, timeTopOfOneMeetsBottomOfTwo);
+            exitTimeY = Math.max(timeBottomOfOneMeetsTopOfTwo, timeTopOfOneMeetsBottomOfTwo);
+        }
+
+        float enterTime = Math.max(enterTimeX, enterTimeY);
+        float exitTime = Math.min(exitTimeX, exitTimeY);
+        // Rectangles only touching on an edge don't collide, same as with the end positions only
+        if (enterTime >= exitTime || enterTime >= 1 || exitTime <= 0) {
+            return SimpleSweptCollision.noCollision;
+        }
+
+        if (enterTime <= 0) {
+            float unitsSharedInXAxis = Math.min(xOneStart + widthOne, xTwoStart + widthTwo) -
+                    Math.max(xOneStart, xTwoStart);
+            float unitsSharedInYAxis = Math.min(yOneStart + heightOne, yTwoStart + heightTwo) -
+                    Math.max(yOneStart, yTwoStart);
+            SimpleCollisionDirection direction;
+            if (unitsSharedInXAxis > unitsSharedInYAxis) {
+                direction = yOneStart < yTwoStart ? SimpleCollisionDirection.from_bottom :
+                        SimpleCollisionDirection.from_top;
+            } else {
+                direction = xOneStart < xTwoStart ? SimpleCollisionDirection.from_right :
+                        SimpleCollisionDirection.from_left;
+            }
+            return new SimpleSweptCollision(direction, 0);
+        }
+
+        // The axis that started overlapping last is the one the rectangles met along, ties favor side collisions
+        SimpleCollisionDirection direction;
+        if (enterTimeX >= enterTimeY) {
+            direction = relativeDeltaX > 0 ? SimpleCollisionDirection.from_right : SimpleCollisionDirection.from_left;
+        } else {
+            direction = relativeDeltaY > 0 ? SimpleCollisionDirection.from_bottom : SimpleCollisionDirection.from_top;
+        }
+        return new SimpleSweptCollision(direction, enterTime);
+    }
+
+    /**
+     * @return True if the two rectangles share some area, rectangles that only touch on an edge don't intersect
+     */
+    public static boolean doRectanglesIntersect(int xOne, int yOne, int widthOne, int heightOne,
+            int xTwo, int yTwo, int widthTwo, int heightTwo) {
+        return widthOne > 0 && heightOne > 0 && widthTwo > 0 && heightTwo > 0 &&
+                xOne < xTwo + widthTwo && xTwo < xOne + widthOne &&
+                yOne < yTwo + heightTwo && yTwo < yOne + heightOne;
+    }
+
+    /**
+     * @return True if the point is within the rectangle, where the right and bottom edges are just outside of the
+     * rectangle (the same as how a rectangle is filled when drawn)
+     */
+    public static boolean isPointInRectangle(int pointX, int pointY, int x, int y, int width, int height) {
+        return pointX >= x && pointX < x + width && pointY >= y && pointY < y + height;
+    }
+
+    /**
+     * Determines if the line segment from x0,y0 to x1,y1 passes through or touches the rectangle.
+     */
+    public static boolean doesLineSegmentIntersectRectangle(float x0, float y0, float x1, float y1,
+            int x, int y, int width, int height) {
+        if (width <= 0 || height <= 0) {
+            return false;
+        }
+        // Slab test, find the portion of the segment (0 being the start, 1 the end) that is within the rectangle's
+        // extent along each axis, the segment hits the rectangle if those portions overlap
+        float enterTime = 0;
+        float exitTime = 1;
+        float deltaX = x1 - x0;
+        float deltaY = y1 - y0;
+
+        if (deltaX == 0) {
+            if (x0 < x || x0 > x + width) {
+                return false;
+            }
+        } else {
+            float timeAtLeftEdge = (x - x0) / deltaX;
+            float timeAtRightEdge = (x + width - x0) / deltaX;
+            enterTime = Math.max(enterTime, Math.min(timeAtLeftEdge, timeAtRightEdge));
+            exitTime = Math.min(exitTime, Math.max(timeAtLeftEdge, timeAtRightEdge));
+        }
+
+        if (deltaY == 0) {
+            if (y0 < y || y0 > y + height) {
+                return false;
+            }
+        } else {
+            float timeAtTopEdge = (y - y0) / deltaY;
+            float timeAtBottomEdge = (y + height - y0) / deltaY;
+            enterTime = Math.max(enterTime, Math.min(timeAtTopEdge, timeAtBottomEdge));
+            exitTime = Math.min(exitTime, Math.max(timeAtTopEdge, timeAtBottomEdge));
+        }
+
+        return enterTime <= exitTime;
+    }
+
     private static int calculateUnitsSharedAlongAxis(int axisCoordOne, int axisLengthOne, int axisCoordTwo,
             int axisLengthTwo) {
         boolean isARectangleFullyInTheOtherAlongXAxis =
@@ -0,0 +1,101 @@
+package org.jamesgames.easysprite.physics.simple;
+
+import java.util.Arrays;
+
+/**
+ * SimpleShapeCollisionKernel holds a batch of rectangles in packed primitive arrays (one array per value rather than
+ * one object per rectangle), and detects {@link SimpleCollisionDirection}s between any two rectangles of the batch by
+ * their index. The idea is to copy the rectangles of a group of Sprites once, and then test the pairs found by a space
+ * partitioner all in one pass with {@link SimpleShapeCollisionKernel#detectCollisions(int[], int[], int,
+ * SimpleCollisionDirection[])}, without going back to the Sprites for each of their values. Results are the same as
+ * {@link SimpleShapeCollisionDetection#detectCollisionOfTwoRectangles(int, int, int, int, int, int, int, int)}.
+ * <p>
+ * Not thread-safe, the arrays are reused from one batch to the next.
+ *
+ * @author James Murphy
+ */
+public final class SimpleShapeCollisionKernel {
+
+    private static final int initialCapacity = 16;
+
+    private int[] xCoordinates = new int[initialCapacity];
+    private int[] yCoordinates = new int[initialCapacity];
+    private int[] widths = new int[initialCapacity];
+    private int[] heights = new int[initialCapacity];
+    private int rectangleCount = 0;
+
+    /**
+     * Clears the current batch, and makes room for a new batch of rectangles
+     *
+     * @param newRectangleCount
+     *         Number of rectangles the new batch will consist of
+     */
+    public void reset(int newRectangleCount) {
+        if (newRectangleCount > xCoordinates.length) {
+            int newCapacity = Math.max(newRectangleCount, xCoordinates.length * 2);
+            xCoordinates = Arrays.copyOf(xCoordinates, newCapacity);
+            yCoordinates = Arrays.copyOf(yCoordinates, newCapacity);
+            widths = Arrays.copyOf(widths, newCapacity);
+            heights = Arrays.copyOf(heights, newCapacity);
+        }
+        rectangleCount = newRectangleCount;
+    }
+
+    public void setRectangle(int index, int x, int y, int width, int height) {
+        xCoordinates[index] = x;
+        yCoordinates[index] = y;
+        widths[index] = width;
+        heights[index] = height;
+    }
+
+    public int getRectangleCount() {
+        return rectangleCount;
+    }
+
+    /**
+     * Determines the collisions of many pairs of rectangles of the batch in one pass, the same as calling {@link
+     * SimpleShapeCollisionKernel#detectCollision(int, int)} for each pair.
+     *
+     * @param firstIndexes
+     *         Index of the first rectangle of each pair
+     * @param secondIndexes
+     *         Index of the second rectangle of each pair
+     * @param pairCount
+     *         Number of pairs to test, from the start of the arrays
+     * @param collisions
+     *         Where the collision of each pair is written to, the direction being in relation to the first rectangle
+     */
+    public void detectCollisions(int[] firstIndexes, int[] secondIndexes, int pairCount,
+            SimpleCollisionDirection[] collisions) {
+        for (int pair = 0; pair < pairCount; pair++) {
+            collisions[pair] = detectCollision(firstIndexes[pair], secondIndexes[pair]);
+        }
+    }
+
+    /**
+     * Determines if there is a collision between two rectangles of the batch and if so from what general direction,
+     * the direction being in relation to the first rectangle.
+     *
+     * @see SimpleShapeCollisionDetection#detectCollisionOfTwoRectangles(int, int, int, int, int, int, int, int)
+     */
+    public SimpleCollisionDirection detectCollision(int firstIndex, int secondIndex) {
+        int xOne = xCoordinates[firstIndex];
+        int yOne = yCoordinates[firstIndex];
+        int widthOne = widths[firstIndex];
+        int heightOne = heights[firstIndex];
+        int xTwo = xCoordinates[secondIndex];
+        int yTwo = yCoordinates[secondIndex];
+        int widthTwo = widths[secondIndex];
+        int heightTwo = heights[secondIndex];
+
+        // Most pairs handed out by a partitioner don't collide, so reject those with one combined test and only work
+        // out the direction for actual overlaps
+        boolean overlapping = (xOne < xTwo + widthTwo) & (xTwo < xOne + widthOne) &
+                (yOne < yTwo + heightTwo) & (yTwo < yOne + heightOne);
+        if (!overlapping) {
+            return SimpleCollisionDirection.no_collision;
+        }
+        return SimpleShapeCollisionDetection.detectCollisionOfTwoRectangles(xOne, yOne, widthOne, heightOne, xTwo, yTwo,
+                widthTwo, heightTwo);
+    }
+}
@@ -0,0 +1,61 @@
+package org.jamesgames.easysprite.physics.simple;
+
+/**
+ * SimpleSweptCollision is the immutable result of testing two moving rectangles for a collision over a period of time
+ * rather than only at the end of it, see {@link SimpleShapeCollisionDetection#detectSweptCollisionOfTwoRectangles(float,
+ * float, float, float, int, int, float, float, float, float, int, int)}. It holds the {@link SimpleCollisionDirection}
+ * the collision came from, and the time of impact, the portion of the period (0 being the start, 1 the end) at which
+ * the two rectangles first started to overlap.
+ *
+ * @author James Murphy
+ */
+public final class SimpleSweptCollision {
+
+    /**
+     * Result for two rectangles that did not collide at any point
+     */
+    public static final SimpleSweptCollision noCollision =
+            new SimpleSweptCollision(SimpleCollisionDirection.no_collision, 1);
+
+    private final SimpleCollisionDirection direction;
+    private final float timeOfImpact;
+
+    public SimpleSweptCollision(SimpleCollisionDirection direction, float timeOfImpact) {
+        if (timeOfImpact < 0 || timeOfImpact > 1) {
+            throw new IllegalArgumentException("Time of impact must be between 0 and 1");
+        }
+        this.direction = direction;
+        this.timeOfImpact = timeOfImpact;
+    }
+
+    /**
+     * @return The direction the collision came from, in relation to the first rectangle
+     */
+    public SimpleCollisionDirection getDirection() {
+        return direction;
+    }
+
+    /**
+     * @return Portion of the period, from 0 to 1, at which the rectangles first started to overlap, which is 0 if they
+     * already overlapped at the start
+     */
+    public float getTimeOfImpact() {
+        return timeOfImpact;
+    }
+
+    public boolean isCollision() {
+        return direction != SimpleCollisionDirection.no_collision;
+    }
+
+    /**
+     * @return The same collision from the point of view of the second rectangle
+     */
+    public SimpleSweptCollision oppositeCollision() {
+        return isCollision() ? new SimpleSweptCollision(direction.oppositeDirection(), timeOfImpact) : this;
+    }
+
+    @Override
+    public String toString() {
+        return "SimpleSweptCollision{" + direction + " at " + timeOfImpact + "}";
+    }
+}
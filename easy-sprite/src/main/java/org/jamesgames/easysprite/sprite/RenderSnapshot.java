@@ -0,0 +1,89 @@
+package org.jamesgames.easysprite.sprite;
+
+import net.jcip.annotations.Immutable;
+
+import java.awt.*;
+import java.util.Arrays;
+
+/**
+ * RenderSnapshot holds the graphics of a Sprite and all of it's child sprites as they were at the moment the snapshot
+ * was taken with {@link Sprite#createRenderSnapshot()}. Each {@link SpriteDrawing} is stored along with the drawing
+ * coordinates and size of the Sprite it came from, in the same order {@link Sprite#drawAll(Graphics2D)} would draw
+ * them.
+ * <p>
+ * Drawing a RenderSnapshot never touches the Sprites it was taken from, so it takes no Sprite locks and a thread
+ * painting the last snapshot never waits on the thread updating the Sprites, or the other way around.
+ *
+ * @author James Murphy
+ */
+@Immutable
+public final class RenderSnapshot {
+
+    /**
+     * Snapshot with nothing to draw
+     */
+    public static final RenderSnapshot empty = new RenderSnapshot(new Builder());
+
+    private final SpriteDrawing[] drawings;
+    private final int[] xDrawingCoordinates;
+    private final int[] yDrawingCoordinates;
+    private final int[] widths;
+    private final int[] heights;
+
+    private RenderSnapshot(Builder builder) {
+        drawings = Arrays.copyOf(builder.drawings, builder.drawingCount);
+        xDrawingCoordinates = Arrays.copyOf(builder.xDrawingCoordinates, builder.drawingCount);
+        yDrawingCoordinates = Arrays.copyOf(builder.yDrawingCoordinates, builder.drawingCount);
+        widths = Arrays.copyOf(builder.widths, builder.drawingCount);
+        heights = Arrays.copyOf(builder.heights, builder.drawingCount);
+    }
+
+    /**
+     * Draws every SpriteDrawing of the snapshot, in the order the Sprites would have drawn themselves
+     */
+    public void draw(Graphics2D g) {
+        for (int i = 0; i < drawings.length; i++) {
+            drawings[i].draw(g, xDrawingCoordinates[i], yDrawingCoordinates[i], widths[i], heights[i]);
+        }
+    }
+
+    public int getDrawingCount() {
+        return drawings.length;
+    }
+
+    /**
+     * Collects SpriteDrawings while walking a tree of Sprites, only used by the Sprite taking the snapshot
+     */
+    static final class Builder {
+        private static final int initialCapacity = 16;
+
+        private SpriteDrawing[] drawings = new SpriteDrawing[initialCapacity];
+        private int[] xDrawingCoordinates = new int[initialCapacity];
+        private int[] yDrawingCoordinates = new int[initialCapacity];
+        private int[] widths = new int[initialCapacity];
+        private int[] heights = new int[initialCapacity];
+        private int drawingCount = 0;
+
+        void addDrawing(SpriteDrawing drawing, int xDrawingCoordinateTopLeft, int yDrawingCoordinateTopLeft,
+                int width, int height) {
+            if (drawingCount == drawings.length) {
+                int newCapacity = drawings.length * 2;
+                drawings = Arrays.copyOf(drawings, newCapacity);
+                xDrawingCoordinates = Arrays.copyOf(xDrawingCoordinates, newCapacity);
+                yDrawingCoordinates = Arrays.copyOf(yDrawingCoordinates, newCapacity);
+                widths = Arrays.copyOf(widths, newCapacity);
+                heights = Arrays.copyOf(heights, newCapacity);
+            }
+            drawings[drawingCount] = drawing;
+            xDrawingCoordinates[drawingCount] = xDrawingCoordinateTopLeft;
+            yDrawingCoordinates[drawingCount] = yDrawingCoordinateTopLeft;
+            widths[drawingCount] = width;
+            heights[drawingCount] = height;
+            drawingCount++;
+        }
+
+        RenderSnapshot build() {
+            return new RenderSnapshot(this);
+        }
+    }
+}
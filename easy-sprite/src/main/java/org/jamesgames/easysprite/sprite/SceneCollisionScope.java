@@ -0,0 +1,21 @@
+package org.jamesgames.easysprite.sprite;
+
+/**
+ * SceneCollisionScope describes which pairs of Sprites a scene wide {@link
+ * org.jamesgames.easysprite.physics.partitioning.SpacePartitioner} tests for collisions, see {@link
+ * Sprite#setSceneSpacePartitioner(org.jamesgames.easysprite.physics.partitioning.SpacePartitioner,
+ * SceneCollisionScope)}.
+ *
+ * @author James Murphy
+ */
+public enum SceneCollisionScope {
+    /**
+     * Only Sprites that share the same parent Sprite can collide, the same as each parent Sprite having it's own
+     * SpacePartitioner
+     */
+    siblings,
+    /**
+     * Sprites anywhere in the scene can collide, except for a Sprite and one of it's own ancestors
+     */
+    any_depth
+}
@@ -4,11 +4,21 @@ import net.jcip.annotations.ThreadSafe;
 import org.jamesgames.easysprite.physics.partitioning.NullSpacePartitioner;
 import org.jamesgames.easysprite.physics.partitioning.SpacePartitioner;
 import org.jamesgames.easysprite.physics.simple.SimpleCollisionDirection;
+import org.jamesgames.easysprite.physics.simple.SimpleShapeCollisionKernel;
 import org.jamesgames.easysprite.physics.simple.SimpleShapeCollisionDetection;
+import org.jamesgames.easysprite.physics.simple.SimpleSweptCollision;
 
 import java.awt.*;
+import java.awt.image.BufferedImage;
 import java.util.*;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 
 /**
  * A Sprite is an object that represents drawable graphics with a specified x coordinate, y coordinate, x velocity, and
@@ -26,15 +36,49 @@ import java.util.List;
  */
 @ThreadSafe
 public class Sprite implements Iterable<Sprite> {
+    /**
+     * Whether a Sprite class relies on Sprite's own {@link Sprite#potentialCollision(Sprite)}, in which case it's
+     * collisions can be tested with a {@link SimpleShapeCollisionKernel} instead
+     */
+    private static final ClassValue<Boolean> usesDefaultPotentialCollision = new ClassValue<Boolean>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            for (Class<?> c = type; c != Sprite.class; c = c.getSuperclass()) {
+                try {
+                    c.getDeclaredMethod("potentialCollision", Sprite.class);
+                    return false;
+                } catch (NoSuchMethodException e) {
+                    // Not overridden at this level, keep looking up the class hierarchy
+                }
+            }
+            return true;
+        }
+    };
+
+    // Must be created after everything a Sprite needs during construction is initialized
     private static final Sprite endRootSprite = new EndRootSprite();
-    private static final Random randomGen = new Random();
+    // Number of Sprites using a subtree render cache, so that no Sprite looks for one to invalidate while there are none
+    private static final AtomicInteger subtreeRenderCachingSpriteCount = new AtomicInteger();
+    private static final Sprite[] noSprites = new Sprite[0];
+    private static final Comparator<Sprite> drawingOrder =
+            (first, second) -> Integer.compare(second.indexInParentSprite, first.indexInParentSprite);
 
-    private final List<Sprite> childSprites = new ArrayList<>();
+    private final ArrayList<Sprite> childSprites = new ArrayList<>();
     private Sprite parentSprite = endRootSprite;
+    // Index of this Sprite in the child sprites of it's parent sprite, or -1 if it has no parent sprite
+    private int indexInParentSprite = -1;
+    // While the child sprites are in use by an update, changes to them are held back until the update is done
+    private boolean childSpritesInUse = false;
+    private List<DeferredChildSpriteChange> deferredChildSpriteChanges;
+    // True while released to a SpritePool, written under the lock of the pool and read without it when attaching
+    volatile boolean pooled = false;
     private float xCoordinateTopLeft = 0;
     private float yCoordinateTopLeft = 0;
     private float oldXCoordinateTopLeft = xCoordinateTopLeft;
     private float oldYCoordinateTopLeft = yCoordinateTopLeft;
+    // Where the last update moved the Sprite from, for finding collisions that happened part way through an update
+    private float xCoordinateTopLeftAtStartOfLastUpdate = xCoordinateTopLeft;
+    private float yCoordinateTopLeftAtStartOfLastUpdate = yCoordinateTopLeft;
     private float xVelocity = 0;
     private float yVelocity = 0;
     private float oldXVelocity = xVelocity;
@@ -42,7 +86,75 @@ public class Sprite implements Iterable<Sprite> {
     private int width = 0;
     private int height = 0;
     private boolean drawingDebugGraphics = false;
+    private boolean culledWhenOutsideClip = true;
+    private boolean findingChildSpritesToDrawWithPartitioner = false;
+    // Reused by every draw that finds the child sprites to draw with the partitioner, guarded by this
+    private List<Sprite> childSpritesInClip;
+
+    // Where this Sprite was drawn when changed drawing regions were last collected, so a change can repaint where the
+    // Sprite was as well as where it is now. Changes that don't move the Sprite are flagged without taking any lock.
+    private boolean drawingRegionCollected = false;
+    private final Rectangle collectedDrawingRegion = new Rectangle();
+    private List<Rectangle> removedChildSpritesDrawingRegions;
+    private volatile boolean drawingChanged = false;
+    private volatile boolean descendantDrawingChanged = false;
+
+    // Cache of the image of this Sprite's subtree, or null to draw the subtree as usual. The cached image is stale once
+    // anything in the subtree changed, which is flagged without taking any lock.
+    private volatile SubtreeRenderCache subtreeRenderCache;
+    private volatile boolean subtreeRenderCacheStale = true;
+    private boolean positionChangedDuringLastUpdate = false;
+    // Partitioners also keep track of the size of each Sprite, so a resize needs them updated the same as a move does
+    private boolean sizeChangedSinceLastUpdate = false;
+    private boolean sizeChangedDuringLastUpdate = false;
+    private boolean handlingChildCollisionsSymmetrically = false;
+    private boolean detectingChildCollisionsContinuously = false;
     private SpacePartitioner spacePartitioner = new NullSpacePartitioner();
+    // Random source of this Sprite and it's descendants, or null to use the one of the parent sprite
+    private volatile Random random;
+
+    // A sleeping Sprite is skipped by updates, and all of it's child sprites are sleeping too. Written without holding
+    // the lock of the Sprite when an awake child sprite wakes up it's ancestors, so that no lock is taken upwards.
+    private volatile boolean sleeping = false;
+    private int ticksAtRest = 0;
+    private int ticksAtRestBeforeSleeping = 0;
+
+    // Scene wide partitioner holding every descendant of this Sprite by their drawing coordinates, along with the
+    // descendants currently in it and their index in the list of them. Sprites joining or leaving the scene are queued
+    // up by whichever thread attached or detached them, and only join or leave once this Sprite next handles collisions.
+    private SpacePartitioner sceneSpacePartitioner;
+    private SceneCollisionScope sceneCollisionScope = SceneCollisionScope.siblings;
+    private Map<Sprite, Integer> sceneMemberIndexes;
+    private List<Sprite> sceneMemberList;
+    // Guarded by itself
+    private List<Sprite> queuedSceneMemberChanges;
+    private List<Sprite> sceneMemberChangesToApply;
+    // Closest ancestor with a scene wide partitioner, or null if none, kept up to date as the Sprite is attached and
+    // detached. Flagged stale whenever the drawing coordinates or size change, so the scene only updates what moved.
+    private Sprite sceneRoot;
+    private volatile boolean sceneEntryStale = false;
+
+    // Drawing coordinates (coordinates on the plane of the top most parent sprite) are cached, and only recalculated
+    // when this Sprite's position or an ancestor's position changed since they were last calculated. If this Sprite's
+    // cached drawing coordinates are stale, then so are the cached drawing coordinates of all of it's child sprites.
+    private volatile boolean cachedDrawingCoordinatesStale = true;
+    private int xDrawingCoordinateTopLeft = 0;
+    private int yDrawingCoordinateTopLeft = 0;
+    private int oldXDrawingCoordinateTopLeft = 0;
+    private int oldYDrawingCoordinateTopLeft = 0;
+    // Drawing coordinates of where the last update moved the Sprite from, for interpolating between updates
+    private int xDrawingCoordinateTopLeftAtStartOfLastUpdate = 0;
+    private int yDrawingCoordinateTopLeftAtStartOfLastUpdate = 0;
+
+    // Reused by every update that tests the potential collisions of child sprites, guarded by this
+    private ChildCollisionBatch childCollisionBatch;
+    // Reused by every update that detects child collisions continuously, guarded by this
+    private SweptAreaQuery sweptAreaQuery;
+    // Reused by every parallel update of this Sprite, guarded by this
+    private ParallelUpdate parallelUpdate;
+    private final boolean usingDefaultPotentialCollision = usesDefaultPotentialCollision.get(getClass());
+    // Number of child sprites relying on Sprite's own potentialCollision, the only ones tested with a collision kernel
+    private int childSpritesUsingDefaultPotentialCollision = 0;
 
     public Sprite() {
         this(0, 0);
@@ -62,8 +174,9 @@ public class Sprite implements Iterable<Sprite> {
         return oldXCoordinateTopLeft;
     }
 
-    public final synchronized int getOldXDrawingCoordinateTopLeft() {
-        return getParentOldXDrawingCoordinateTopLeftInternalImpl() + getRoundedOldXCoordinateTopLeft();
+    public final int getOldXDrawingCoordinateTopLeft() {
+        refreshCachedDrawingCoordinatesIfStale();
+        return oldXDrawingCoordinateTopLeft;
     }
 
     public final synchronized int getRoundedOldXCoordinateTopLeft() {
@@ -78,8 +191,9 @@ public class Sprite implements Iterable<Sprite> {
         return oldYCoordinateTopLeft;
     }
 
-    public final synchronized int getOldYDrawingCoordinateTopLeft() {
-        return getParentOldYDrawingCoordinateTopLeftInternalImpl() + getRoundedOldYCoordinateTopLeft();
+    public final int getOldYDrawingCoordinateTopLeft() {
+        refreshCachedDrawingCoordinatesIfStale();
+        return oldYDrawingCoordinateTopLeft;
     }
 
     public final synchronized int getRoundedOldYCoordinateTopLeft() {
@@ -101,14 +215,21 @@ public class Sprite implements Iterable<Sprite> {
      * Set x coordinate location
      */
     public final synchronized void setXCoordinateTopLeft(float xCoordinateTopLeft) {
-        this.xCoordinateTopLeft = xCoordinateTopLeft;
+        if (this.xCoordinateTopLeft != xCoordinateTopLeft) {
+            this.xCoordinateTopLeft = xCoordinateTopLeft;
+            invalidateCachedDrawingCoordinates();
+            // A cached image of this Sprite's own subtree is drawn wherever the Sprite is, only the ancestors' change
+            parentSprite.invalidateSubtreeRenderCaches();
+            wakeUp();
+        }
     }
 
     /**
      * @return x coordinate units rounded to nearest integer for drawing purposes
      */
-    public final synchronized int getXDrawingCoordinateTopLeft() {
-        return getParentXDrawingCoordinateTopLeftInternalImpl() + getRoundedXCoordinateTopLeft();
+    public final int getXDrawingCoordinateTopLeft() {
+        refreshCachedDrawingCoordinatesIfStale();
+        return xDrawingCoordinateTopLeft;
     }
 
     /**
@@ -137,14 +258,21 @@ public class Sprite implements Iterable<Sprite> {
      * Set y coordinate location
      */
     public final synchronized void setYCoordinateTopLeft(float yCoordinateTopLeft) {
-        this.yCoordinateTopLeft = yCoordinateTopLeft;
+        if (this.yCoordinateTopLeft != yCoordinateTopLeft) {
+            this.yCoordinateTopLeft = yCoordinateTopLeft;
+            invalidateCachedDrawingCoordinates();
+            // A cached image of this Sprite's own subtree is drawn wherever the Sprite is, only the ancestors' change
+            parentSprite.invalidateSubtreeRenderCaches();
+            wakeUp();
+        }
     }
 
     /**
      * @return y coordinate units rounded to nearest integer for drawing purposes
      */
-    public final synchronized int getYDrawingCoordinateTopLeft() {
-        return getParentYDrawingCoordinateTopLeftInternalImpl() + getRoundedYCoordinateTopLeft();
+    public final int getYDrawingCoordinateTopLeft() {
+        refreshCachedDrawingCoordinatesIfStale();
+        return yDrawingCoordinateTopLeft;
     }
 
     /**
@@ -162,6 +290,134 @@ public class Sprite implements Iterable<Sprite> {
         return parentSprite.getYDrawingCoordinateTopLeft();
     }
 
+    /**
+     * Recalculates the cached drawing coordinates if they are stale. The parent Sprite's drawing coordinates are
+     * refreshed first if they are stale too, so a refresh only ever walks up as far as the first ancestor that is not
+     * stale, and in a tree of Sprites that all moved, refreshing all of them costs one step per Sprite.
+     * <p>
+     * Staleness is checked before taking this Sprite's lock, so reading drawing coordinates that are not stale never
+     * waits on the lock. That lets child sprites updated on other threads (see {@link Sprite#updateAllInParallel(long,
+     * ForkJoinPool, int)}) read the drawing coordinates of their ancestors without locking them.
+     */
+    private void refreshCachedDrawingCoordinatesIfStale() {
+        if (cachedDrawingCoordinatesStale) {
+            synchronized (this) {
+                if (cachedDrawingCoordinatesStale) {
+                    xDrawingCoordinateTopLeft =
+                            getParentXDrawingCoordinateTopLeftInternalImpl() + getRoundedXCoordinateTopLeft();
+                    yDrawingCoordinateTopLeft =
+                            getParentYDrawingCoordinateTopLeftInternalImpl() + getRoundedYCoordinateTopLeft();
+                    oldXDrawingCoordinateTopLeft =
+                            getParentOldXDrawingCoordinateTopLeftInternalImpl() + getRoundedOldXCoordinateTopLeft();
+                    oldYDrawingCoordinateTopLeft =
+                            getParentOldYDrawingCoordinateTopLeftInternalImpl() + getRoundedOldYCoordinateTopLeft();
+                    xDrawingCoordinateTopLeftAtStartOfLastUpdate =
+                            getParentXDrawingCoordinateTopLeftAtStartOfLastUpdateInternalImpl() +
+                                    Math.round(xCoordinateTopLeftAtStartOfLastUpdate);
+                    yDrawingCoordinateTopLeftAtStartOfLastUpdate =
+                            getParentYDrawingCoordinateTopLeftAtStartOfLastUpdateInternalImpl() +
+                                    Math.round(yCoordinateTopLeftAtStartOfLastUpdate);
+                    // Written last, so anyone seeing the drawing coordinates as not stale also sees the new values
+                    cachedDrawingCoordinatesStale = false;
+                }
+            }
+        }
+    }
+
+    /**
+     * Marks the cached drawing coordinates of this Sprite and all of it's child sprites as stale. Stops early if this
+     * Sprite is already stale, as all of the child sprites are then already stale too.
+     */
+    private synchronized void invalidateCachedDrawingCoordinates() {
+        if (cachedDrawingCoordinatesStale) {
+            return;
+        }
+        cachedDrawingCoordinatesStale = true;
+        sceneEntryStale = true;
+        for (Sprite childSprite : childSprites) {
+            childSprite.invalidateCachedDrawingCoordinates();
+        }
+    }
+
+    /**
+     * Position between where the last update moved this Sprite from and where it is now, used to render smoothly when
+     * rendering more often than updating (see {@link
+     * org.jamesgames.easysprite.updater.SpriteUpdater#useFixedTimestep(int, int)}).
+     *
+     * @param alpha
+     *         How far along from the start of the last update to now, 0 being the start of the last update and 1 being
+     *         now
+     * @return x coordinate location interpolated by alpha
+     */
+    public final synchronized float getInterpolatedXCoordinateTopLeft(float alpha) {
+        return xCoordinateTopLeftAtStartOfLastUpdate +
+                (xCoordinateTopLeft - xCoordinateTopLeftAtStartOfLastUpdate) * alpha;
+    }
+
+    /**
+     * @return y coordinate location interpolated by alpha
+     * @see Sprite#getInterpolatedXCoordinateTopLeft(float)
+     */
+    public final synchronized float getInterpolatedYCoordinateTopLeft(float alpha) {
+        return yCoordinateTopLeftAtStartOfLastUpdate +
+                (yCoordinateTopLeft - yCoordinateTopLeftAtStartOfLastUpdate) * alpha;
+    }
+
+    /**
+     * The offset the parent sprites add to this Sprite's coordinates is interpolated from the cached drawing
+     * coordinates, so the ancestors are neither walked nor locked, the same as {@link
+     * Sprite#getXDrawingCoordinateTopLeft()}.
+     *
+     * @return x drawing coordinate interpolated by alpha, with all parent sprites interpolated by the same alpha, which
+     * is the same as {@link Sprite#getXDrawingCoordinateTopLeft()} when alpha is 1
+     * @see Sprite#getInterpolatedXCoordinateTopLeft(float)
+     */
+    public final int getInterpolatedXDrawingCoordinateTopLeft(float alpha) {
+        refreshCachedDrawingCoordinatesIfStale();
+        synchronized (this) {
+            int parentOffset = xDrawingCoordinateTopLeft - Math.round(xCoordinateTopLeft);
+            int parentOffsetAtStartOfLastUpdate =
+                    xDrawingCoordinateTopLeftAtStartOfLastUpdate - Math.round(xCoordinateTopLeftAtStartOfLastUpdate);
+            return Math.round(parentOffsetAtStartOfLastUpdate +
+                    (parentOffset - parentOffsetAtStartOfLastUpdate) * alpha +
+                    getInterpolatedXCoordinateTopLeft(alpha));
+        }
+    }
+
+    synchronized int getParentXDrawingCoordinateTopLeftAtStartOfLastUpdateInternalImpl() {
+        return parentSprite.getXDrawingCoordinateTopLeftAtStartOfLastUpdate();
+    }
+
+    private int getXDrawingCoordinateTopLeftAtStartOfLastUpdate() {
+        refreshCachedDrawingCoordinatesIfStale();
+        return xDrawingCoordinateTopLeftAtStartOfLastUpdate;
+    }
+
+    /**
+     * @return y drawing coordinate interpolated by alpha
+     * @see Sprite#getInterpolatedXDrawingCoordinateTopLeft(float)
+     */
+    public final int getInterpolatedYDrawingCoordinateTopLeft(float alpha) {
+        refreshCachedDrawingCoordinatesIfStale();
+        synchronized (this) {
+            int parentOffset = yDrawingCoordinateTopLeft - Math.round(yCoordinateTopLeft);
+            int parentOffsetAtStartOfLastUpdate =
+                    yDrawingCoordinateTopLeftAtStartOfLastUpdate - Math.round(yCoordinateTopLeftAtStartOfLastUpdate);
+            return Math.round(parentOffsetAtStartOfLastUpdate +
+                    (parentOffset - parentOffsetAtStartOfLastUpdate) * alpha +
+                    getInterpolatedYCoordinateTopLeft(alpha));
+        }
+    }
+
+    synchronized int getParentYDrawingCoordinateTopLeftAtStartOfLastUpdateInternalImpl() {
+        return parentSprite.getYDrawingCoordinateTopLeftAtStartOfLastUpdate();
+    }
+
+    private int getYDrawingCoordinateTopLeftAtStartOfLastUpdate() {
+        refreshCachedDrawingCoordinatesIfStale();
+        return yDrawingCoordinateTopLeftAtStartOfLastUpdate;
+    }
+
     public final synchronized float getOldXVelocity() {
         return oldXVelocity;
     }
@@ -177,7 +433,10 @@ public class Sprite implements Iterable<Sprite> {
      * Set xVelocity in coordinate units per millisecond
      */
     public final synchronized void setXVelocity(float xVelocity) {
-        this.xVelocity = xVelocity;
+        if (this.xVelocity != xVelocity) {
+            this.xVelocity = xVelocity;
+            wakeUp();
+        }
     }
 
     public final synchronized float getOldYVelocity() {
@@ -195,7 +454,10 @@ public class Sprite implements Iterable<Sprite> {
      * Set yVelocity in coordinate units per millisecond
      */
     public final synchronized void setYVelocity(float yVelocity) {
-        this.yVelocity = yVelocity;
+        if (this.yVelocity != yVelocity) {
+            this.yVelocity = yVelocity;
+            wakeUp();
+        }
     }
 
     /**
@@ -209,7 +471,13 @@ public class Sprite implements Iterable<Sprite> {
      * Set the width of the sprite
      */
     public final synchronized void setWidth(int width) {
-        this.width = width;
+        if (this.width != width) {
+            this.width = width;
+            sizeChangedSinceLastUpdate = true;
+            sceneEntryStale = true;
+            invalidateSubtreeRenderCaches();
+            wakeUp();
+        }
     }
 
     /**
@@ -223,7 +491,13 @@ public class Sprite implements Iterable<Sprite> {
      * Set the height of the sprite
      */
     public final synchronized void setHeight(int height) {
-        this.height = height;
+        if (this.height != height) {
+            this.height = height;
+            sizeChangedSinceLastUpdate = true;
+            sceneEntryStale = true;
+            invalidateSubtreeRenderCaches();
+            wakeUp();
+        }
     }
 
     /**
@@ -247,13 +521,105 @@ public class Sprite implements Iterable<Sprite> {
     }
 
     /**
-     * Adds a child sprite to this sprite
+     * Resets the position, velocity, sleep state, debug drawing and random source of this Sprite, for a {@link
+     * SpritePool} to reuse it. Everything else about the Sprite is kept as it was set up, which is usually the same for
+     * every Sprite a pool creates: the size, child sprites, space partitioners, ticks at rest before sleeping, culling
+     * when outside the clip, subtree render cache (whose image is made stale), and how child collisions are handled.
+     */
+    final synchronized void resetForReuse() {
+        xCoordinateTopLeft = 0;
+        yCoordinateTopLeft = 0;
+        oldXCoordinateTopLeft = 0;
+        oldYCoordinateTopLeft = 0;
+        xCoordinateTopLeftAtStartOfLastUpdate = 0;
+        yCoordinateTopLeftAtStartOfLastUpdate = 0;
+        xVelocity = 0;
+        yVelocity = 0;
+        oldXVelocity = 0;
+        oldYVelocity = 0;
+        positionChangedDuringLastUpdate = false;
+        sizeChangedDuringLastUpdate = false;
+        setDrawingDebugGraphicsIncludingChildSprites(false);
+        ticksAtRest = 0;
+        sleeping = false;
+        random = null;
+        subtreeRenderCacheStale = true;
+        invalidateCachedDrawingCoordinates();
+        onRecycle();
+    }
+
+    /**
+     * Called when this Sprite is released to a {@link SpritePool}, after the state of Sprite itself was reset. The idea
+     * behind this method is that a subclass can implement this method to reset it's own state, so the Sprite can be
+     * reused as if it was new.
+     */
+    protected synchronized void onRecycle() {
+        // Do nothing default implementation
+    }
+
+    /**
+     * Adds a child sprite to this sprite. The Sprite must not already have a parent sprite, use {@link
+     * Sprite#moveChildSprite(Sprite, Sprite)} to move a Sprite from one parent sprite to another, and must not be
+     * released to a {@link SpritePool}.
+     * <p>
+     * If called while this Sprite's child sprites are being updated or are handling collisions, such as from {@link
+     * Sprite#handleCollision(Sprite, SimpleCollisionDirection)}, the child sprite is added once this Sprite's update is
+     * done.
      */
     public final synchronized void addChildSprite(Sprite sprite) {
-        if (childSprites.contains(sprite)) {
+        if (sprite.parentSprite == this) {
             throw new IllegalArgumentException("Child sprite already exists in this parent sprite");
         }
+        if (sprite.parentSprite != endRootSprite) {
+            throw new IllegalArgumentException("Sprite already has a parent sprite");
+        }
+        if (sprite.pooled) {
+            throw new IllegalArgumentException("Sprite was released to a SpritePool, obtain it from the pool first");
+        }
+        if (childSpritesInUse) {
+            deferChildSpriteChange(sprite, this);
+            return;
+        }
+        attachChildSprite(sprite);
+    }
+
+    /**
+     * Adds all of the passed sprites as child sprites of this sprite, in the order of the collection. Same as calling
+     * {@link Sprite#addChildSprite(Sprite)} for each Sprite, except that none are added if any of them can't be.
+     */
+    public final synchronized void addChildSprites(Collection<Sprite> sprites) {
+        Set<Sprite> spritesToAdd = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Sprite sprite : sprites) {
+            if (sprite.parentSprite == this || !spritesToAdd.add(sprite)) {
+                throw new IllegalArgumentException("Child sprite already exists in this parent sprite");
+            }
+            if (sprite.parentSprite != endRootSprite) {
+                throw new IllegalArgumentException("Sprite already has a parent sprite");
+            }
+            if (sprite.pooled) {
+                throw new IllegalArgumentException("Sprite was released to a SpritePool, obtain it from the pool first");
+            }
+        }
+        if (childSpritesInUse) {
+            sprites.forEach(sprite -> deferChildSpriteChange(sprite, this));
+            return;
+        }
+        childSprites.ensureCapacity(childSprites.size() + sprites.size());
+        sprites.forEach(this::attachChildSprite);
+    }
+
+    private void attachChildSprite(Sprite sprite) {
+        sprite.indexInParentSprite = childSprites.size();
         childSprites.add(sprite);
+        if (sprite.usingDefaultPotentialCollision) {
+            childSpritesUsingDefaultPotentialCollision++;
+        }
+        // The new child sprite may be awake, and a sleeping Sprite can only have sleeping child sprites
+        wakeUp();
+        // Where the new child sprite is drawn needs painting
+        descendantDrawingChanged = true;
+        invalidateDrawingOfAncestors();
+        invalidateSubtreeRenderCaches();
         // Set draw debug flag that this parent sprite has active
         sprite.setDrawingDebugGraphicsIncludingChildSprites(drawingDebugGraphics);
         // Also add to the partitioner
@@ -261,46 +627,255 @@ public class Sprite implements Iterable<Sprite> {
         sprite.setParentSprite(this);
     }
 
+    boolean hasParentSprite() {
+        return parentSprite != endRootSprite;
+    }
+
     private void setParentSprite(Sprite newParentSprite) {
         parentSprite = newParentSprite;
+        // Not moved by any update in the new parent sprite yet, so it shouldn't look like it moved from anywhere
+        xCoordinateTopLeftAtStartOfLastUpdate = xCoordinateTopLeft;
+        yCoordinateTopLeftAtStartOfLastUpdate = yCoordinateTopLeft;
+        invalidateCachedDrawingCoordinates();
+        if (newParentSprite == endRootSprite) {
+            changeSceneRoot(null);
+        } else {
+            changeSceneRoot(newParentSprite.sceneSpacePartitioner != null ? newParentSprite :
+                    newParentSprite.sceneRoot);
+        }
     }
 
     /**
-     * Removes a child sprite from this sprite.
+     * Moves this Sprite to the scene of the passed scene root, and it's descendants too unless this Sprite has a scene
+     * of it's own
      */
-    public final synchronized void removeChildSprite(Sprite sprite) {
-        boolean spriteExistedInCollection = childSprites.remove(sprite);
+    private synchronized void changeSceneRoot(Sprite newSceneRoot) {
+        if (sceneRoot == newSceneRoot) {
+            return;
+        }
+        Sprite oldSceneRoot = sceneRoot;
+        sceneRoot = newSceneRoot;
+        if (oldSceneRoot != null) {
+            oldSceneRoot.queueSceneMemberChange(this);
+        }
+        if (newSceneRoot != null) {
+            newSceneRoot.queueSceneMemberChange(this);
+        }
+        if (sceneSpacePartitioner == null) {
+            for (Sprite childSprite : childSprites) {
+                childSprite.changeSceneRoot(newSceneRoot);
+            }
+        }
+    }
 
-        if (!spriteExistedInCollection) {
+    /**
+     * Queues up the Sprite to join or leave this Sprite's scene, depending on which scene it's in by the time the queue
+     * is applied. Doesn't take this Sprite's lock, as it's called by whichever thread is attaching or detaching Sprites
+     * further down the tree.
+     */
+    private void queueSceneMemberChange(Sprite sprite) {
+        List<Sprite> queue = queuedSceneMemberChanges;
+        if (queue == null) {
+            return;
+        }
+        synchronized (queue) {
+            queue.add(sprite);
+        }
+    }
+    /**
+     * Removes a child sprite from this sprite. If called while this Sprite's child sprites are being updated or are
+     * handling collisions, the child sprite is removed once this Sprite's update is done.
+     */
+    public final synchronized void removeChildSprite(Sprite sprite) {
+        if (sprite.parentSprite != this) {
             throw new IllegalArgumentException("Child sprite did not already exist in this parent sprite");
         }
+        if (childSpritesInUse) {
+            deferChildSpriteChange(sprite, endRootSprite);
+            return;
+        }
+        int index = sprite.indexInParentSprite;
+        detachChildSprite(sprite);
+        removeDetachedChildSprites(index);
+    }
 
-        // Also remove from the partitioner
-        spacePartitioner.removeSprite(sprite);
-
-        // Do this after we throw the exception, so we don't ruin state on a Sprite accidentally.
-        sprite.setParentSprite(endRootSprite);
+    /**
+     * Removes a child sprite from this sprite, and then releases it to the passed pool, see {@link
+     * SpritePool#release(Sprite)}. If called while this Sprite's child sprites are being updated or are handling
+     * collisions, the child sprite is removed and released once this Sprite's update is done.
+     */
+    public final synchronized <T extends Sprite> void recycleChildSprite(T sprite, SpritePool<T> pool) {
+        Sprite childSprite = sprite;
+        if (childSprite.parentSprite != this) {
+            throw new IllegalArgumentException("Child sprite did not already exist in this parent sprite");
+        }
+        if (childSpritesInUse) {
+            deferChildSpriteChange(childSprite, endRootSprite, pool);
+            return;
+        }
+        int index = childSprite.indexInParentSprite;
+        detachChildSprite(childSprite);
+        removeDetachedChildSprites(index);
+        pool.releaseRemovedSprite(childSprite);
     }
 
     /**
      * Removes child sprites in the passed collection from this sprite, at least one Sprite passed should exist in this
-     * Sprite. If no sprites are passed, the method does nothing.
+     * Sprite. If no sprites are passed, the method does nothing. If called while this Sprite's child sprites are being
+     * updated or are handling collisions, the child sprites are removed once this Sprite's update is done.
      */
     public final synchronized void removeChildSprites(Collection<Sprite> sprites) {
-        boolean atLeastOneOfTheSpritesExistedInCollection = childSprites.removeAll(sprites);
+        // Only sprites who's parent is this sprite are removed, otherwise we'd be corrupting sprites who may still have
+        // some true parent elsewhere (the maintaining of a valid and correct parent sprite is a class invariant here
+        // that we can assume to always be up to date when needed)
+        boolean atLeastOneOfTheSpritesExistedInCollection = false;
+        int lowestIndexRemoved = Integer.MAX_VALUE;
+        for (Sprite sprite : sprites) {
+            if (sprite.parentSprite != this) {
+                continue;
+            }
+            atLeastOneOfTheSpritesExistedInCollection = true;
+            if (childSpritesInUse) {
+                deferChildSpriteChange(sprite, endRootSprite);
+            } else {
+                lowestIndexRemoved = Math.min(lowestIndexRemoved, sprite.indexInParentSprite);
+                detachChildSprite(sprite);
+            }
+        }
 
         if (!sprites.isEmpty() && !atLeastOneOfTheSpritesExistedInCollection) {
             throw new IllegalArgumentException("None of the child sprites exist in this parent sprite");
         }
+        if (lowestIndexRemoved != Integer.MAX_VALUE) {
+            removeDetachedChildSprites(lowestIndexRemoved);
+        }
+    }
+
+    /**
+     * Moves a child sprite of this sprite to another parent sprite, keeping it's coordinates. If called while this
+     * Sprite's child sprites are being updated or are handling collisions, the child sprite is moved once this
+     * Sprite's update is done, and likewise it's only added to the new parent sprite once the new parent sprite's
+     * update is done if it's being updated at that time.
+     */
+    public final synchronized void moveChildSprite(Sprite sprite, Sprite newParentSprite) {
+        if (sprite.parentSprite != this) {
+            throw new IllegalArgumentException("Child sprite did not already exist in this parent sprite");
+        }
+        if (newParentSprite == this || newParentSprite == sprite || sprite.isAncestorOf(newParentSprite)) {
+            throw new IllegalArgumentException("Sprite can't be moved to that parent sprite");
+        }
+        if (childSpritesInUse) {
+            deferChildSpriteChange(sprite, newParentSprite);
+            return;
+        }
+        int index = sprite.indexInParentSprite;
+        detachChildSprite(sprite);
+        removeDetachedChildSprites(index);
+        newParentSprite.addChildSprite(sprite);
+    }
+
+    /**
+     * Takes a child sprite out of this Sprite, leaving it's slot in the child sprites to be removed by {@link
+     * Sprite#removeDetachedChildSprites(int)}
+     */
+    private void detachChildSprite(Sprite sprite) {
+        // Where the child sprite was drawn needs repainting, now that it's gone
+        if (sprite.addCollectedDrawingRegionsOfSubtree(this)) {
+            descendantDrawingChanged = true;
+            invalidateDrawingOfAncestors();
+        }
+        invalidateSubtreeRenderCaches();
+        // Also remove from the partitioner
+        spacePartitioner.removeSprite(sprite);
+        if (sprite.usingDefaultPotentialCollision) {
+            childSpritesUsingDefaultPotentialCollision--;
+        }
+        sprite.indexInParentSprite = -1;
+        sprite.setParentSprite(endRootSprite);
+    }
+
+    /**
+     * Removes the slots of detached child sprites in one pass, keeping the order of the remaining child sprites, as
+     * it's the order they're drawn, updated, and have their collisions handled in
+     *
+     * @param fromIndex
+     *         Lowest index of a detached child sprite
+     */
+    private void removeDetachedChildSprites(int fromIndex) {
+        int size = childSprites.size();
+        int keptCount = fromIndex;
+        for (int i = fromIndex; i < size; i++) {
+            Sprite childSprite = childSprites.get(i);
+            // A child sprite detached and added again in the same batch has a slot further along too
+            if (childSprite.parentSprite == this && childSprite.indexInParentSprite == i) {
+                childSprite.indexInParentSprite = keptCount;
+                childSprites.set(keptCount++, childSprite);
+            }
+        }
+        if (keptCount < size) {
+            childSprites.subList(keptCount, size).clear();
+        }
+    }
+
+    private void deferChildSpriteChange(Sprite sprite, Sprite newParentSprite) {
+        deferChildSpriteChange(sprite, newParentSprite, null);
+    }
+
+    private void deferChildSpriteChange(Sprite sprite, Sprite newParentSprite, SpritePool<?> pool) {
+        if (deferredChildSpriteChanges == null) {
+            deferredChildSpriteChanges = new ArrayList<>();
+        }
+        deferredChildSpriteChanges.add(new DeferredChildSpriteChange(sprite, newParentSprite, pool));
+    }
+
+    /**
+     * Applies the changes to the child sprites requested while they were in use, in the order they were requested.
+     * Changes that no longer apply by now, such as removing a Sprite that was added to another parent sprite in the
+     * meantime, are dropped.
+     */
+    private void applyDeferredChildSpriteChanges() {
+        if (deferredChildSpriteChanges == null || deferredChildSpriteChanges.isEmpty()) {
+            return;
+        }
+        List<DeferredChildSpriteChange> changes = deferredChildSpriteChanges;
+        deferredChildSpriteChanges = null;
+        int lowestIndexRemoved = Integer.MAX_VALUE;
+        for (DeferredChildSpriteChange change : changes) {
+            Sprite sprite = change.sprite;
+            if (change.newParentSprite == this) {
+                if (sprite.parentSprite == endRootSprite) {
+                    attachChildSprite(sprite);
+                }
+            } else if (sprite.parentSprite == this) {
+                lowestIndexRemoved = Math.min(lowestIndexRemoved, sprite.indexInParentSprite);
+                detachChildSprite(sprite);
+                if (change.newParentSprite != endRootSprite) {
+                    change.newParentSprite.addChildSprite(sprite);
+                } else if (change.pool != null) {
+                    change.pool.releaseRemovedSprite(sprite);
+                }
+            }
+        }
+        if (lowestIndexRemoved != Integer.MAX_VALUE) {
+            removeDetachedChildSprites(lowestIndexRemoved);
+        }
+    }
 
-        // Only change the parent sprite if we know that the sprite was removed
-        // (otherwise we are corrupting sprites who may still have some true parent elsewhere)
-        // We can determine that by seeing if the sprite's parent was this sprite.
-        // (the maintaining of a valid and correct parent sprite is a class invariant here that we can assume
-        // to always be up to date when needed)
-        sprites.stream().filter(s -> s.parentSprite == this).forEach(s ->
-                // Sprite no longer has parent, so set the parent to endRootSprite
-                s.setParentSprite(endRootSprite));
+    /**
+     * A change to the child sprites of a Sprite, requested while they were in use by an update
+     */
+    private static final class DeferredChildSpriteChange {
+        private final Sprite sprite;
+        // The Sprite the change was requested on when adding, endRootSprite when removing
+        private final Sprite newParentSprite;
+        // Pool to release the Sprite to once removed, or null to not release it
+        private final SpritePool<?> pool;
+
+        private DeferredChildSpriteChange(Sprite sprite, Sprite newParentSprite, SpritePool<?> pool) {
+            this.sprite = sprite;
+            this.newParentSprite = newParentSprite;
+            this.pool = pool;
+        }
     }
 
 
@@ -308,31 +883,308 @@ public class Sprite implements Iterable<Sprite> {
      * Updates the Sprite based on how much time has elapsed, and then updates all of it's child sprites. This method is
      * designed to be overridden, so that subclasses can updateBeforeChildren other states it may have based on how much
      * time has elapsed.
+     * <p>
+     * Child sprites added, removed, or moved on this Sprite during the update, such as while handling collisions, are
+     * held back and changed in one batch once the update is done, in the order the changes were requested.
      *
      * @param elapsedTimeInMilliseconds
      *         Time elapsed since last updateBeforeChildren
      */
     public final synchronized void updateAll(long elapsedTimeInMilliseconds) {
+        if (sleeping) {
+            return;
+        }
+        childSpritesInUse = true;
+        try {
+            updateBeforeChildSprites(elapsedTimeInMilliseconds);
+
+            // update all the child sprites too
+            for (Sprite childSprite : childSprites) {
+                // Sleeping child sprites have nothing to update, and haven't moved in the partitioner either
+                if (!childSprite.sleeping) {
+                    childSprite.updateAll(elapsedTimeInMilliseconds);
+                    updateChildSpritePartitionerPosition(childSprite);
+                }
+            }
+
+            updateAfterChildSprites(elapsedTimeInMilliseconds);
+        } finally {
+            childSpritesInUse = false;
+        }
+        applyDeferredChildSpriteChanges();
+    }
+
+    /**
+     * Same as {@link Sprite#updateAll(long)}, except that the subtrees of child sprites are updated in parallel on the
+     * passed pool. Any list of child sprites longer than childSpritesPerTask, at any depth, is split into tasks of at
+     * most that many child sprites. Collisions between child sprites are only handled once all of them finished
+     * updating, and in the same order as {@link Sprite#updateAll(long)} would. The outcome of an update is the same
+     * either way as long as no Sprite reads the state of it's sibling sprites (or their descendants) while being
+     * updated. When updating sequentially, a child sprite sees the new position of the siblings updated before it, in
+     * parallel it may or may not, as sibling sprites are read as they are rather than from a copy taken before the
+     * update. The same goes for random sources: one shared by Sprites updated in different tasks, such as one set on
+     * the root Sprite, hands out it's values in whatever order the tasks draw them. For a parallel update to be
+     * reproducible, have each Sprite that draws random values while being updated use a random source of it's own (see
+     * {@link Sprite#setRandom(Random)}), such as one seeded from the random source of the world when the Sprite is
+     * created.
+     * <p>
+     * Child sprites may add, remove, and move their sibling sprites while being updated, as those changes are held
+     * back until their parent sprite's update is done, same as {@link Sprite#updateAll(long)}. Unlike {@link
+     * Sprite#updateAll(long)}, a Sprite's lock is not held while it's child sprites are updated, so that the child
+     * sprites can still read the state of their ancestors from other threads. That means a parallel update doesn't
+     * keep other threads from seeing the tree half updated: nothing may draw the tree directly ({@link
+     * Sprite#drawAll(Graphics2D)}, {@link Sprite#collectChangedDrawingRegions(Consumer)}) while it's being updated in
+     * parallel. Draw from {@link RenderSnapshot}s taken once each update is done instead, such as the ones published by
+     * a {@link org.jamesgames.easysprite.updater.RenderSnapshotPublisher}.
+     *
+     * @param elapsedTimeInMilliseconds
+     *         Time elapsed since last update
+     * @param pool
+     *         Pool to run the update on
+     * @param childSpritesPerTask
+     *         Most child sprites updated one after another by one task
+     */
+    public final void updateAllInParallel(long elapsedTimeInMilliseconds, ForkJoinPool pool,
+            int childSpritesPerTask) {
+        if (childSpritesPerTask <= 0) {
+            throw new IllegalArgumentException("Child sprites per task must be greater than 0");
+        }
+        ParallelUpdate update = getParallelUpdate();
+        update.prepareToUpdateThisSprite(elapsedTimeInMilliseconds, childSpritesPerTask);
+        pool.invoke(update.thisSpriteUpdateTask);
+    }
+
+    private synchronized ParallelUpdate getParallelUpdate() {
+        if (parallelUpdate == null) {
+            parallelUpdate = new ParallelUpdate();
+        }
+        return parallelUpdate;
+    }
+
+    private void updateAllForkingChildSprites(long elapsedTimeInMilliseconds, int childSpritesPerTask) {
+        if (sleeping) {
+            return;
+        }
+        ParallelUpdate update;
+        synchronized (this) {
+            childSpritesInUse = true;
+            try {
+                updateBeforeChildSprites(elapsedTimeInMilliseconds);
+                // Drawing coordinates are read by child sprites from other threads, have them ready before that happens
+                refreshCachedDrawingCoordinatesIfStale();
+                update = getParallelUpdate();
+                update.prepareToUpdateChildSprites(elapsedTimeInMilliseconds, childSpritesPerTask);
+            } catch (RuntimeException | Error e) {
+                childSpritesInUse = false;
+                throw e;
+            }
+        }
+
+        try {
+            update.updateChildSprites();
+
+            synchronized (this) {
+                // Partitioner positions are updated in child sprite order, same as a sequential update
+                for (int i = 0; i < update.childSpriteCount; i++) {
+                    Sprite childSprite = update.childSpritesToUpdate[i];
+                    if (childSprite.parentSprite == this) {
+                        updateChildSpritePartitionerPosition(childSprite);
+                    }
+                }
+                updateAfterChildSprites(elapsedTimeInMilliseconds);
+            }
+        } finally {
+            synchronized (this) {
+                childSpritesInUse = false;
+            }
+        }
+        synchronized (this) {
+            applyDeferredChildSpriteChanges();
+        }
+    }
+
+    /**
+     * The tasks and the copy of the child sprites a parallel update of a Sprite works with, kept from one update to
+     * the next so that an update allocates nothing once the number of child sprites settles. Only touched by the thread
+     * updating the Sprite and the tasks it forks, which see what it prepared as the tasks are forked after.
+     */
+    private final class ParallelUpdate {
+        private final RecursiveAction thisSpriteUpdateTask = new RecursiveAction() {
+            @Override
+            protected void compute() {
+                updateAllForkingChildSprites(elapsedTimeInMilliseconds, childSpritesPerTask);
+            }
+        };
+        private Sprite[] childSpritesToUpdate = noSprites;
+        private int childSpriteCount = 0;
+        private long elapsedTimeInMilliseconds;
+        private int childSpritesPerTask;
+        // Covers all the child sprites, null until the first update with more than childSpritesPerTask of them
+        private ChildSpritesUpdateTask childSpritesUpdateTask;
+
+        private void prepareToUpdateThisSprite(long elapsedTimeInMilliseconds, int childSpritesPerTask) {
+            this.elapsedTimeInMilliseconds = elapsedTimeInMilliseconds;
+            this.childSpritesPerTask = childSpritesPerTask;
+            thisSpriteUpdateTask.reinitialize();
+        }
+
+        /**
+         * Must be called holding the lock of the Sprite
+         */
+        private void prepareToUpdateChildSprites(long elapsedTimeInMilliseconds, int childSpritesPerTask) {
+            int newChildSpriteCount = childSprites.size();
+            if (newChildSpriteCount > childSpritesToUpdate.length) {
+                childSpritesToUpdate = new Sprite[newChildSpriteCount];
+            }
+            for (int i = 0; i < newChildSpriteCount; i++) {
+                childSpritesToUpdate[i] = childSprites.get(i);
+            }
+            if (newChildSpriteCount != childSpriteCount) {
+                // Don't hold on to child sprites that have since been removed
+                for (int i = newChildSpriteCount; i < childSpriteCount; i++) {
+                    childSpritesToUpdate[i] = null;
+                }
+                // The ranges of the tasks no longer fit, the tasks only depend on the number of child sprites as a
+                // range is always split in the middle
+                childSpritesUpdateTask = null;
+            }
+            childSpriteCount = newChildSpriteCount;
+            this.elapsedTimeInMilliseconds = elapsedTimeInMilliseconds;
+            this.childSpritesPerTask = childSpritesPerTask;
+        }
+
+        private void updateChildSprites() {
+            if (childSpriteCount <= childSpritesPerTask) {
+                updateChildSprites(0, childSpriteCount);
+                return;
+            }
+            if (childSpritesUpdateTask == null) {
+                childSpritesUpdateTask = new ChildSpritesUpdateTask(this, 0, childSpriteCount);
+            } else {
+                childSpritesUpdateTask.reinitialize();
+            }
+            childSpritesUpdateTask.invoke();
+        }
+
+        private void updateChildSprites(int start, int end) {
+            for (int i = start; i < end; i++) {
+                childSpritesToUpdate[i].updateAllForkingChildSprites(elapsedTimeInMilliseconds, childSpritesPerTask);
+            }
+        }
+    }
+
+    /**
+     * Updates a range of child sprites, splitting the range in half into two tasks until the range is small enough to
+     * update one after another. The tasks splitting creates are kept and reused by later updates of the same range.
+     */
+    @SuppressWarnings("serial")
+    private static final class ChildSpritesUpdateTask extends RecursiveAction {
+        private final ParallelUpdate update;
+        private final int start;
+        private final int end;
+        private ChildSpritesUpdateTask firstHalf;
+        private ChildSpritesUpdateTask secondHalf;
+
+        private ChildSpritesUpdateTask(ParallelUpdate update, int start, int end) {
+            this.update = update;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected void compute() {
+            if (end - start <= update.childSpritesPerTask) {
+                update.updateChildSprites(start, end);
+                return;
+            }
+            if (firstHalf == null) {
+                int middle = (start + end) >>> 1;
+                firstHalf = new ChildSpritesUpdateTask(update, start, middle);
+                secondHalf = new ChildSpritesUpdateTask(update, middle, end);
+            } else {
+                firstHalf.reinitialize();
+                secondHalf.reinitialize();
+            }
+            ForkJoinTask.invokeAll(firstHalf, secondHalf);
+        }
+    }
+
+    /**
+     * Everything an update does to this Sprite before it's child sprites are updated
+     */
+    private void updateBeforeChildSprites(long elapsedTimeInMilliseconds) {
+        if (xCoordinateTopLeftAtStartOfLastUpdate != xCoordinateTopLeft ||
+                yCoordinateTopLeftAtStartOfLastUpdate != yCoordinateTopLeft) {
+            xCoordinateTopLeftAtStartOfLastUpdate = xCoordinateTopLeft;
+            yCoordinateTopLeftAtStartOfLastUpdate = yCoordinateTopLeft;
+            // The cached drawing coordinates of this Sprite and it's child sprites include where it moved from
+            invalidateCachedDrawingCoordinates();
+        }
+
         // Update the position first, so that the extensions to this updateBeforeChildren may work on the latest possible Sprite
         // position
         setXCoordinateTopLeft(getXCoordinateTopLeft() + (getXVelocity() * elapsedTimeInMilliseconds));
         setYCoordinateTopLeft(getYCoordinateTopLeft() + (getYVelocity() * elapsedTimeInMilliseconds));
 
         updateBeforeChildren(elapsedTimeInMilliseconds);
+    }
 
-        // update all the child sprites too
-        for (Sprite childSprite : childSprites) {
-            childSprite.updateAll(elapsedTimeInMilliseconds);
-            updateChildSpritePartitionerPosition(childSprite);
-        }
-
+    /**
+     * Everything an update does to this Sprite after it's child sprites are updated
+     */
+    private void updateAfterChildSprites(long elapsedTimeInMilliseconds) {
         updateAfterChildren(elapsedTimeInMilliseconds);
 
         // Updating of old values must occur after they were updated in this update, and before handling collisions
+        positionChangedDuringLastUpdate = positionChangedDuringUpdate();
+        sizeChangedDuringLastUpdate = sizeChangedSinceLastUpdate;
+        sizeChangedSinceLastUpdate = false;
         updateOldCoordinatePositions();
         updateOldVelocityPositions();
 
         handlePotentialChildSpriteCollisions();
+        updateTicksAtRest();
+    }
+
+    /**
+     * Counts another tick at rest if this Sprite neither moved, has any velocity, or has any awake child sprites, and
+     * puts the Sprite to sleep once it has been at rest for long enough
+     */
+    private void updateTicksAtRest() {
+        if (ticksAtRestBeforeSleeping == 0) {
+            return;
+        }
+        if (xVelocity != 0 || yVelocity != 0 || positionChangedDuringLastUpdate || !isResting() ||
+                !areAllChildSpritesSleeping()) {
+            ticksAtRest = 0;
+            return;
+        }
+        if (++ticksAtRest >= ticksAtRestBeforeSleeping) {
+            sleeping = true;
+            // A child sprite woken by another thread after being checked above can't be missed, as it wakes it's
+            // ancestors after waking itself, so either it sees this Sprite asleep and wakes it, or it's seen awake here
+            if (!areAllChildSpritesSleeping()) {
+                sleeping = false;
+            }
+        }
+    }
+
+    private boolean areAllChildSpritesSleeping() {
+        for (int i = 0; i < childSprites.size(); i++) {
+            if (!childSprites.get(i).sleeping) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Whether the Sprite has no state changing over time other than what Sprite itself keeps track of, used to decide
+     * if the Sprite can go to sleep (see {@link Sprite#setTicksAtRestBeforeSleeping(int)}). Designed to be overridden
+     * by subclasses that have state of their own changing over time, such as an animation that is still playing.
+     */
+    protected synchronized boolean isResting() {
+        return true;
     }
 
     /**
@@ -350,7 +1202,8 @@ public class Sprite implements Iterable<Sprite> {
     }
 
     private void updateChildSpritePartitionerPosition(Sprite childSprite) {
-        if (childSprite.positionChangedDuringUpdate()) {
+        // The child has already updated it's old values by now, so check what it recorded before doing so
+        if (childSprite.positionChangedDuringLastUpdate || childSprite.sizeChangedDuringLastUpdate) {
             spacePartitioner.updatePosition(childSprite);
         }
     }
@@ -361,8 +1214,11 @@ public class Sprite implements Iterable<Sprite> {
     }
 
     private void updateOldCoordinatePositions() {
-        oldXCoordinateTopLeft = xCoordinateTopLeft;
-        oldYCoordinateTopLeft = yCoordinateTopLeft;
+        if (positionChangedDuringUpdate()) {
+            oldXCoordinateTopLeft = xCoordinateTopLeft;
+            oldYCoordinateTopLeft = yCoordinateTopLeft;
+            invalidateCachedDrawingCoordinates();
+        }
     }
 
     private void updateOldVelocityPositions() {
@@ -371,19 +1227,383 @@ public class Sprite implements Iterable<Sprite> {
     }
 
     private void handlePotentialChildSpriteCollisions() {
+        if (sceneSpacePartitioner != null) {
+            handlePotentialSceneCollisions();
+            return;
+        }
+        // A scene root further up handles the collisions of child sprites within it's scene
+        if (childSprites.size() < 2 || sceneRoot != null || !spacePartitioner.canFindPotentialCollisions()) {
+            return;
+        }
+        if (detectingChildCollisionsContinuously) {
+            handlePotentialChildSpriteCollisionsContinuously();
+            return;
+        }
+        if (childCollisionBatch == null) {
+            childCollisionBatch = new ChildCollisionBatch();
+        }
+        childCollisionBatch.load();
+        if (handlingChildCollisionsSymmetrically) {
+            childCollisionBatch.handleAllPairs();
+            return;
+        }
         for (Sprite childSprite : childSprites) {
-            spacePartitioner.applyActionWithAllPotentialCollidingSprites(childSprite,
-                    spriteCollidingWithChild -> {
-                        if (childSprite != spriteCollidingWithChild)
-                            childSprite.determineIfCollisionOccurredAndHandle(spriteCollidingWithChild);
-                    });
+            // Sleeping child sprites are static, they don't look for collisions but can still be found by others
+            if (childSprite.sleeping) {
+                continue;
+            }
+            childCollisionBatch.handlePairsOf(childSprite);
         }
     }
 
-    private void determineIfCollisionOccurredAndHandle(Sprite potentialCollidingSprite) {
-        SimpleCollisionDirection collision = potentialCollision(potentialCollidingSprite);
+    /**
+     * Collects the potential colliding pairs of child sprites handed out by the partitioner, tests all of them in one
+     * pass with a {@link SimpleShapeCollisionKernel}, and only then handles the collisions, in the order the pairs were
+     * handed out. The kernel holds the rectangles of the child sprites as of the last update, so testing the pairs
+     * before handling any collision gives the same results as testing each pair right before handling it. Pairs whose
+     * first child sprite defines it's own {@link Sprite#potentialCollision(Sprite)} are tested with that instead, at
+     * the time they are handled, and the kernel isn't loaded at all while no child sprite needs it.
+     */
+    private final class ChildCollisionBatch implements Consumer<Sprite>, BiConsumer<Sprite, Sprite> {
+        private final SimpleShapeCollisionKernel kernel = new SimpleShapeCollisionKernel();
+        private boolean kernelLoaded = false;
+        private int[] firstIndexes = new int[16];
+        private int[] secondIndexes = new int[16];
+        private SimpleCollisionDirection[] collisions = new SimpleCollisionDirection[16];
+        private int pairCount = 0;
+        private Sprite childSprite;
+
+        /**
+         * Copies the rectangles of all child sprites as of the last update into the kernel, if any child sprite is
+         * tested with it. The rectangles are in this Sprite's coordinate plane rather than drawing coordinates, which
+         * doesn't change the outcome of any collision test between two child sprites as they are both offset by the
+         * same amount. A child sprite's rectangle is at the index of the child sprite.
+         */
+        private void load() {
+            kernelLoaded = childSpritesUsingDefaultPotentialCollision > 0;
+            if (!kernelLoaded) {
+                return;
+            }
+            kernel.reset(childSprites.size());
+            for (int i = 0; i < childSprites.size(); i++) {
+                Sprite sprite = childSprites.get(i);
+                kernel.setRectangle(i, Math.round(sprite.oldXCoordinateTopLeft),
+                        Math.round(sprite.oldYCoordinateTopLeft), sprite.width, sprite.height);
+            }
+        }
+
+        private void handleAllPairs() {
+            pairCount = 0;
+            spacePartitioner.applyActionWithAllPotentialCollidingPairs(childSprites, this);
+            detectCollisionsOfPairs();
+            for (int pair = 0; pair < pairCount; pair++) {
+                Sprite first = childSprites.get(firstIndexes[pair]);
+                Sprite second = childSprites.get(secondIndexes[pair]);
+                if (!first.sleeping || !second.sleeping) {
+                    handleChildCollisionForBoth(first, second, collisionOfPair(pair, first, second));
+                }
+            }
+        }
+
+        private void handlePairsOf(Sprite childSprite) {
+            pairCount = 0;
+            this.childSprite = childSprite;
+            spacePartitioner.applyActionWithAllPotentialCollidingSprites(childSprite, this);
+            this.childSprite = null;
+            detectCollisionsOfPairs();
+            for (int pair = 0; pair < pairCount; pair++) {
+                Sprite potentialCollidingSprite = childSprites.get(secondIndexes[pair]);
+                handleChildCollision(childSprite, potentialCollidingSprite,
+                        collisionOfPair(pair, childSprite, potentialCollidingSprite));
+            }
+        }
+
+        @Override
+        public void accept(Sprite spriteCollidingWithChild) {
+            if (spriteCollidingWithChild != childSprite) {
+                addPair(childSprite, spriteCollidingWithChild);
+            }
+        }
+
+        @Override
+        public void accept(Sprite first, Sprite second) {
+            addPair(first, second);
+        }
+
+        private void addPair(Sprite first, Sprite second) {
+            if (pairCount == firstIndexes.length) {
+                int newCapacity = pairCount * 2;
+                firstIndexes = Arrays.copyOf(firstIndexes, newCapacity);
+                secondIndexes = Arrays.copyOf(secondIndexes, newCapacity);
+                collisions = Arrays.copyOf(collisions, newCapacity);
+            }
+            firstIndexes[pairCount] = first.indexInParentSprite;
+            secondIndexes[pairCount] = second.indexInParentSprite;
+            pairCount++;
+        }
+
+        private void detectCollisionsOfPairs() {
+            if (kernelLoaded) {
+                kernel.detectCollisions(firstIndexes, secondIndexes, pairCount, collisions);
+            }
+        }
+
+        private SimpleCollisionDirection collisionOfPair(int pair, Sprite first, Sprite second) {
+            return kernelLoaded && first.usingDefaultPotentialCollision ? collisions[pair] :
+                    first.potentialCollision(second);
+        }
+    }
+
+    private boolean isAncestorOf(Sprite sprite) {
+        for (Sprite ancestor = sprite.parentSprite; ancestor != endRootSprite; ancestor = ancestor.parentSprite) {
+            if (ancestor == this) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void handlePotentialSceneCollisions() {
+        applySceneMemberChanges();
+        updateStaleSceneMembers();
+        sceneSpacePartitioner.applyActionWithAllPotentialCollidingPairs(sceneMemberList,
+                this::determineIfSceneCollisionOccurredAndHandle);
+    }
+
+    /**
+     * Adds the queued up Sprites that joined the scene since the last time, and removes the ones that left it
+     */
+    private void applySceneMemberChanges() {
+        // Taken out of the queue first, so the scene's partitioner isn't used while holding the queue's lock
+        synchronized (queuedSceneMemberChanges) {
+            if (queuedSceneMemberChanges.isEmpty()) {
+                return;
+            }
+            for (int i = 0; i < queuedSceneMemberChanges.size(); i++) {
+                sceneMemberChangesToApply.add(queuedSceneMemberChanges.get(i));
+            }
+            queuedSceneMemberChanges.clear();
+        }
+        for (int i = 0; i < sceneMemberChangesToApply.size(); i++) {
+            Sprite sprite = sceneMemberChangesToApply.get(i);
+            Integer index = sceneMemberIndexes.get(sprite);
+            if (sprite.sceneRoot == this && index == null) {
+                sceneMemberIndexes.put(sprite, sceneMemberList.size());
+                sceneMemberList.add(sprite);
+                sprite.sceneEntryStale = false;
+                sprite.refreshCachedDrawingCoordinatesIfStale();
+                sceneSpacePartitioner.addSprite(sprite);
+            } else if (sprite.sceneRoot != this && index != null) {
+                sceneSpacePartitioner.removeSprite(sprite);
+                sceneMemberIndexes.remove(sprite);
+                // The last member takes the place of the removed one
+                Sprite lastMember = sceneMemberList.remove(sceneMemberList.size() - 1);
+                if (lastMember != sprite) {
+                    sceneMemberList.set(index, lastMember);
+                    sceneMemberIndexes.put(lastMember, index);
+                }
+            }
+        }
+        sceneMemberChangesToApply.clear();
+    }
+
+    /**
+     * Updates the position in the scene's partitioner of only the members whose drawing coordinates or size changed
+     * since they were last updated in it, which is after they or one of their ancestors moved or was resized
+     */
+    private void updateStaleSceneMembers() {
+        for (int i = 0; i < sceneMemberList.size(); i++) {
+            Sprite member = sceneMemberList.get(i);
+            if (member.sceneEntryStale) {
+                // Cleared first, so a change made while updating is seen next time
+                member.sceneEntryStale = false;
+                member.refreshCachedDrawingCoordinatesIfStale();
+                sceneSpacePartitioner.updatePosition(member);
+            }
+        }
+    }
+
+    private void determineIfSceneCollisionOccurredAndHandle(Sprite first, Sprite second) {
+        boolean inScope = sceneCollisionScope == SceneCollisionScope.siblings ?
+                first.parentSprite == second.parentSprite : !first.isAncestorOf(second) && !second.isAncestorOf(first);
+        if (!inScope || (first.sleeping && second.sleeping)) {
+            return;
+        }
+        if (handlingChildCollisionsSymmetrically) {
+            SimpleCollisionDirection collision = first.potentialCollision(second);
+            if (collision != SimpleCollisionDirection.no_collision) {
+                first.handleCollision(second, collision);
+                second.handleCollision(first, collision.oppositeDirection());
+                wakeUpAfterCollision(first, second);
+            }
+        } else {
+            // Sleeping Sprites don't look for collisions themselves
+            if (!first.sleeping) {
+                SimpleCollisionDirection collision = first.potentialCollision(second);
+                if (collision != SimpleCollisionDirection.no_collision) {
+                    first.handleCollision(second, collision);
+                    wakeUpAfterCollision(first, second);
+                }
+            }
+            if (!second.sleeping) {
+                SimpleCollisionDirection collisionOfSecond = second.potentialCollision(first);
+                if (collisionOfSecond != SimpleCollisionDirection.no_collision) {
+                    second.handleCollision(first, collisionOfSecond);
+                    wakeUpAfterCollision(first, second);
+                }
+            }
+        }
+    }
+
+    /**
+     * Looks up potential colliding child sprites by the whole area each child sprite swept through during the last
+     * update, grown by how far that child sprite moved. If two child sprites collided along their paths, the one that
+     * moved the furthest of the two always finds the other this way, as the other can't have been further away from
+     * it's swept area than the other moved. So each pair is only handled when found from the child sprite that moved
+     * the furthest (ties going to the one first in child order), which handles the collision for both of them.
+     */
+    private void handlePotentialChildSpriteCollisionsContinuously() {
+        if (sweptAreaQuery == null) {
+            sweptAreaQuery = new SweptAreaQuery();
+        }
+        for (Sprite childSprite : childSprites) {
+            if (childSprite.sleeping) {
+                continue;
+            }
+            sweptAreaQuery.queryFor(childSprite);
+        }
+    }
+
+    /**
+     * Looks up and handles the potential colliding child sprites of one child sprite at a time, reused for every child
+     * sprite so that the lookups don't allocate
+     */
+    private final class SweptAreaQuery implements Consumer<Sprite> {
+        private final Rectangle area = new Rectangle();
+        private Sprite childSprite;
+        private int margin;
+
+        private void queryFor(Sprite childSprite) {
+            this.childSprite = childSprite;
+            margin = childSprite.getSweepMargin();
+            childSprite.setToAreaSweptDuringLastUpdate(area);
+            area.grow(margin, margin);
+            spacePartitioner.forEachInRegion(area, this);
+            this.childSprite = null;
+        }
+
+        @Override
+        public void accept(Sprite spriteCollidingWithChild) {
+            if (childSprite == spriteCollidingWithChild || !isHandledFromChildSprite(spriteCollidingWithChild)) {
+                return;
+            }
+            if (handlingChildCollisionsSymmetrically) {
+                determineIfChildSweptCollisionOccurredAndHandleForBoth(childSprite, spriteCollidingWithChild);
+                return;
+            }
+            // Sleeping Sprites don't look for collisions themselves, even once woken up by this collision
+            boolean otherWasSleeping = spriteCollidingWithChild.sleeping;
+            determineIfChildSweptCollisionOccurredAndHandle(childSprite, spriteCollidingWithChild);
+            if (!otherWasSleeping) {
+                determineIfChildSweptCollisionOccurredAndHandle(spriteCollidingWithChild, childSprite);
+            }
+        }
+
+        private boolean isHandledFromChildSprite(Sprite other) {
+            if (other.sleeping) {
+                return true;
+            }
+            int otherMargin = other.getSweepMargin();
+            return otherMargin < margin ||
+                    (otherMargin == margin && other.indexInParentSprite > childSprite.indexInParentSprite);
+        }
+    }
+
+    /**
+     * @return How far the query for potential colliding Sprites of this Sprite's swept area is grown on each side,
+     * which is the furthest this Sprite moved along either axis during the last update
+     */
+    private int getSweepMargin() {
+        return (int) Math.ceil(Math.max(Math.abs(oldXCoordinateTopLeft - xCoordinateTopLeftAtStartOfLastUpdate),
+                Math.abs(oldYCoordinateTopLeft - yCoordinateTopLeftAtStartOfLastUpdate))) + 1;
+    }
+
+    /**
+     * Sets the area to the rectangle enclosing this Sprite's rectangle at the start and at the end of the last update,
+     * in the parent sprite's coordinate plane
+     */
+    private void setToAreaSweptDuringLastUpdate(Rectangle area) {
+        int xAtStart = Math.round(xCoordinateTopLeftAtStartOfLastUpdate);
+        int yAtStart = Math.round(yCoordinateTopLeftAtStartOfLastUpdate);
+        int xAtEnd = Math.round(oldXCoordinateTopLeft);
+        int yAtEnd = Math.round(oldYCoordinateTopLeft);
+        int x = Math.min(xAtStart, xAtEnd);
+        int y = Math.min(yAtStart, yAtEnd);
+        area.setBounds(x, y, Math.max(xAtStart, xAtEnd) + width - x, Math.max(yAtStart, yAtEnd) + height - y);
+    }
+
+    /**
+     * Child sprites that define their own {@link Sprite#potentialCollision(Sprite)} keep using it, the rest are tested
+     * with {@link Sprite#collidesWithPositionsDuringLastUpdate(Sprite)}
+     */
+    private void determineIfChildSweptCollisionOccurredAndHandle(Sprite childSprite,
+            Sprite potentialCollidingSprite) {
+        if (!childSprite.usingDefaultPotentialCollision) {
+            handleChildCollision(childSprite, potentialCollidingSprite,
+                    childSprite.potentialCollision(potentialCollidingSprite));
+            return;
+        }
+        SimpleSweptCollision collision = childSprite.collidesWithPositionsDuringLastUpdate(potentialCollidingSprite);
+        if (collision.isCollision()) {
+            childSprite.handleContinuousCollision(potentialCollidingSprite, collision);
+            wakeUpAfterCollision(childSprite, potentialCollidingSprite);
+        }
+    }
+
+    private void determineIfChildSweptCollisionOccurredAndHandleForBoth(Sprite first, Sprite second) {
+        if (!first.usingDefaultPotentialCollision) {
+            handleChildCollisionForBoth(first, second, first.potentialCollision(second));
+            return;
+        }
+        SimpleSweptCollision collision = first.collidesWithPositionsDuringLastUpdate(second);
+        if (collision.isCollision()) {
+            first.handleContinuousCollision(second, collision);
+            second.handleContinuousCollision(first, collision.oppositeCollision());
+            wakeUpAfterCollision(first, second);
+        }
+    }
+
+    private void handleChildCollision(Sprite childSprite, Sprite potentialCollidingSprite,
+            SimpleCollisionDirection collision) {
+        if (collision != SimpleCollisionDirection.no_collision) {
+            childSprite.handleCollision(potentialCollidingSprite, collision);
+            wakeUpAfterCollision(childSprite, potentialCollidingSprite);
+        }
+    }
+
+    /**
+     * If the pair collided, both Sprites handle the collision, the second Sprite with the opposite direction of what
+     * was found for the first Sprite
+     */
+    private void handleChildCollisionForBoth(Sprite first, Sprite second, SimpleCollisionDirection collision) {
         if (collision != SimpleCollisionDirection.no_collision) {
-            handleCollision(potentialCollidingSprite, collision);
+            first.handleCollision(second, collision);
+            second.handleCollision(first, collision.oppositeDirection());
+            wakeUpAfterCollision(first, second);
+        }
+    }
+
+    /**
+     * Being hit wakes a sleeping Sprite, so it can react to the collision from the next update on. Sprites that are
+     * awake are left alone, so resting against another Sprite doesn't keep restarting their count of ticks at rest,
+     * which would keep them from ever falling asleep.
+     */
+    private static void wakeUpAfterCollision(Sprite first, Sprite second) {
+        if (first.sleeping) {
+            first.wakeUp();
+        }
+        if (second.sleeping) {
+            second.wakeUp();
         }
     }
 
@@ -406,30 +1626,339 @@ public class Sprite implements Iterable<Sprite> {
     protected synchronized void handleCollision(Sprite collidingSprite, SimpleCollisionDirection direction) {
     }
 
+    /**
+     * Handles a collision found while the parent sprite is detecting child collisions continuously (see {@link
+     * Sprite#setDetectingChildCollisionsContinuously(boolean)}). The collision also says how far through the last update
+     * the collision happened, which can be used to place the Sprite where the collision happened rather than where it
+     * ended up. Designed to be overridden, by default it calls {@link Sprite#handleCollision(Sprite,
+     * SimpleCollisionDirection)} with the direction of the collision.
+     */
+    protected synchronized void handleContinuousCollision(Sprite collidingSprite, SimpleSweptCollision collision) {
+        handleCollision(collidingSprite, collision.getDirection());
+    }
+
 
     /**
      * Draws the Sprite, and then draws all of it's child sprites. The idea is that this is the method that gets called
      * whenever the Sprite needs to be rendered to a graphics object.
+     * <p>
+     * If the graphics object has a clip, a Sprite (along with all of it's child sprites) whose subtree drawing bounds
+     * (see {@link Sprite#getSubtreeDrawingBounds()}) are entirely outside the clip is skipped, so content that is off
+     * screen costs next to nothing to draw.
      */
     public final synchronized void drawAll(Graphics2D g) {
+        drawAll(g, g.getClipBounds());
+    }
+
+    /**
+     * @param clip
+     *         Clip of the graphics object in drawing coordinates, or null if it has none
+     */
+    private synchronized void drawAll(Graphics2D g, Rectangle clip) {
+        if (clip != null && culledWhenOutsideClip && !doSubtreeDrawingBoundsIntersect(clip)) {
+            return;
+        }
+        SubtreeRenderCache cache = subtreeRenderCache;
+        if (cache != null && drawAllFromSubtreeRenderCache(g, cache)) {
+            return;
+        }
+        drawAllUncached(g, clip);
+    }
+
+    private void drawAllUncached(Graphics2D g, Rectangle clip) {
         // draw the graphics that need to appear under the child sprite graphics
         drawUnderChildren(g);
         // draw the debug graphics too if needed
         if (drawingDebugGraphics) {
             debugDraw(g);
+            drawSpacePartitionerDebugGraphics(g);
+            if (sceneSpacePartitioner != null) {
+                // Already in drawing coordinates, no translation needed
+                sceneSpacePartitioner.draw(g);
+            }
         }
 
         // Draw all the child sprites too
         // Using a for loop here because in the future I may rework the thread safety of the class and allow updating
         // and drawing to happen at the same time, or make it an option.
-        for (int i = childSprites.size() - 1; i >= 0; i--) {
-            childSprites.get(i).drawAll(g);
+        if (clip != null && findingChildSpritesToDrawWithPartitioner &&
+                !(spacePartitioner instanceof NullSpacePartitioner)) {
+            drawChildSpritesInClip(g, clip);
+        } else {
+            for (int i = childSprites.size() - 1; i >= 0; i--) {
+                childSprites.get(i).drawAll(g, clip);
+            }
         }
 
         // now draw all the graphics that need to appear over the child sprite graphics
         drawOverChildren(g);
     }
 
+    /**
+     * Draws the cached image of this Sprite's subtree, drawing the subtree into a new image first if the cached image
+     * is stale or was dropped
+     *
+     * @return False if the subtree can't be cached, in which case nothing was drawn
+     */
+    private boolean drawAllFromSubtreeRenderCache(Graphics2D g, SubtreeRenderCache cache) {
+        Rectangle subtreeDrawingBounds = getSubtreeDrawingBounds();
+        if (subtreeDrawingBounds == null) {
+            subtreeDrawingBounds = new Rectangle(getXDrawingCoordinateTopLeft(), getYDrawingCoordinateTopLeft(),
+                    width, height);
+        }
+        if (subtreeDrawingBounds.isEmpty() ||
+                !cache.fits(subtreeDrawingBounds.width, subtreeDrawingBounds.height)) {
+            return false;
+        }
+        if (subtreeRenderCacheStale) {
+            cache.removeImage(this);
+        }
+        BufferedImage image = cache.getImage(this);
+        if (image == null || image.getWidth() != subtreeDrawingBounds.width ||
+                image.getHeight() != subtreeDrawingBounds.height) {
+            image = g.getDeviceConfiguration().createCompatibleImage(subtreeDrawingBounds.width,
+                    subtreeDrawingBounds.height, Transparency.TRANSLUCENT);
+            // Cleared before drawing, so that a change made while drawing leaves the new image stale
+            subtreeRenderCacheStale = false;
+            Graphics2D imageGraphics = image.createGraphics();
+            imageGraphics.setRenderingHints(g.getRenderingHints());
+            imageGraphics.translate(-subtreeDrawingBounds.x, -subtreeDrawingBounds.y);
+            drawAllUncached(imageGraphics, subtreeDrawingBounds);
+            imageGraphics.dispose();
+            cache.putImage(this, image);
+        }
+        // Drawn wherever the subtree is now, moving the Sprite itself doesn't change what it's subtree looks like
+        g.drawImage(image, subtreeDrawingBounds.x, subtreeDrawingBounds.y, null);
+        return true;
+    }
+
+    /**
+     * Has this Sprite draw itself and all of it's descendants into an image held by the passed cache, and draw that
+     * image rather than it's subtree for as long as nothing in the subtree changes. Changes to the position, size, or
+     * debug drawing of any descendant, to the size or debug drawing of this Sprite, adding or removing a descendant,
+     * and {@link Sprite#invalidateDrawing()} (which StatefulSprites call when their animation moves to another frame)
+     * all have the subtree drawn into a new image. Anything else that changes what a descendant draws must be followed
+     * by a call to {@link Sprite#invalidateDrawing()} on the descendant.
+     * <p>
+     * Meant for subtrees that look the same for many frames, a subtree that changes every frame is only slower to
+     * draw through a cache.
+     *
+     * @param subtreeRenderCache
+     *         Cache to hold the image, or null to stop caching the subtree, which is the default
+     */
+    public final synchronized void setSubtreeRenderCache(SubtreeRenderCache subtreeRenderCache) {
+        SubtreeRenderCache oldSubtreeRenderCache = this.subtreeRenderCache;
+        if (oldSubtreeRenderCache == subtreeRenderCache) {
+            return;
+        }
+        if (oldSubtreeRenderCache != null) {
+            oldSubtreeRenderCache.removeImage(this);
+            subtreeRenderCachingSpriteCount.decrementAndGet();
+        }
+        if (subtreeRenderCache != null) {
+            subtreeRenderCachingSpriteCount.incrementAndGet();
+        }
+        subtreeRenderCacheStale = true;
+        this.subtreeRenderCache = subtreeRenderCache;
+    }
+
+    public final SubtreeRenderCache getSubtreeRenderCache() {
+        return subtreeRenderCache;
+    }
+
+    /**
+     * Flags the cached images of this Sprite's subtree and of every ancestor's subtree as stale
+     */
+    private void invalidateSubtreeRenderCaches() {
+        if (subtreeRenderCachingSpriteCount.get() == 0) {
+            return;
+        }
+        // Done without locking the ancestors, same as waking them up. Every ancestor is looked at even past a stale
+        // one, as a stale cached image isn't always drawn again along with the cached image of an ancestor.
+        for (Sprite sprite = this; sprite != null && sprite != endRootSprite; sprite = sprite.parentSprite) {
+            if (sprite.subtreeRenderCache != null) {
+                sprite.subtreeRenderCacheStale = true;
+            }
+        }
+    }
+
+    private boolean doSubtreeDrawingBoundsIntersect(Rectangle clip) {
+        Rectangle subtreeDrawingBounds = getSubtreeDrawingBounds();
+        if (subtreeDrawingBounds != null) {
+            return subtreeDrawingBounds.intersects(clip);
+        }
+        // A Sprite without any area, such as one only used to group other Sprites, can't say where it's subtree is
+        return width <= 0 || height <= 0 || SimpleShapeCollisionDetection.doRectanglesIntersect(clip.x, clip.y,
+                clip.width, clip.height, getXDrawingCoordinateTopLeft(), getYDrawingCoordinateTopLeft(), width,
+                height);
+    }
+
+    /**
+     * Draws only the child sprites the partitioner finds within the clip, in the same order as drawing every child
+     * sprite would
+     */
+    private void drawChildSpritesInClip(Graphics2D g, Rectangle clip) {
+        if (childSpritesInClip == null) {
+            childSpritesInClip = new ArrayList<>();
+        }
+        // Partitioners work in this Sprite's coordinate plane (where the child sprites are positioned)
+        Rectangle region = new Rectangle(clip.x - getXDrawingCoordinateTopLeft(),
+                clip.y - getYDrawingCoordinateTopLeft(), clip.width, clip.height);
+        spacePartitioner.forEachInRegion(region, childSpritesInClip::add);
+        childSpritesInClip.sort(drawingOrder);
+        for (int i = 0; i < childSpritesInClip.size(); i++) {
+            childSpritesInClip.get(i).drawAll(g, clip);
+        }
+        childSpritesInClip.clear();
+    }
+
+    /**
+     * Bounds in drawing coordinates of everything this Sprite and all of it's descendants draw, used to skip drawing
+     * them all when the bounds are outside the clip of the graphics object being drawn to. Designed to be overridden
+     * by Sprites that draw outside of their own rectangle, or that have child sprites outside of it. Return null to use
+     * the Sprite's own rectangle, which is the default, see also {@link Sprite#setCulledWhenOutsideClip(boolean)}.
+     */
+    protected synchronized Rectangle getSubtreeDrawingBounds() {
+        return null;
+    }
+
+    /**
+     * Sets whether or not drawing this Sprite and it's child sprites is skipped when it's subtree drawing bounds are
+     * outside the clip of the graphics object being drawn to, true by default
+     */
+    public final synchronized void setCulledWhenOutsideClip(boolean culledWhenOutsideClip) {
+        this.culledWhenOutsideClip = culledWhenOutsideClip;
+    }
+
+    public final synchronized boolean isCulledWhenOutsideClip() {
+        return culledWhenOutsideClip;
+    }
+
+    /**
+     * Sets whether or not the child sprites drawn are looked up in this Sprite's space partitioner by the clip of the
+     * graphics object, rather than every child sprite testing it's own bounds against the clip. Much faster for a large
+     * number of child sprites of which few are on screen, but partitioners only know the rectangles of the child
+     * sprites as of the last update, so it's only for child sprites that draw within their own rectangle and aren't
+     * moved between updates. Has no effect while the Sprite has no space partitioner. False by default.
+     */
+    public final synchronized void setFindingChildSpritesToDrawWithPartitioner(
+            boolean findingChildSpritesToDrawWithPartitioner) {
+        this.findingChildSpritesToDrawWithPartitioner = findingChildSpritesToDrawWithPartitioner;
+    }
+
+    public final synchronized boolean isFindingChildSpritesToDrawWithPartitioner() {
+        return findingChildSpritesToDrawWithPartitioner;
+    }
+
+    /**
+     * Flags the drawing of this Sprite as changed even though the Sprite didn't move or resize, such as when it's
+     * animation moved on to another frame, so that the Sprite's region is handed out by the next call to {@link
+     * Sprite#collectChangedDrawingRegions(Consumer)}, and any cached image of a subtree including this Sprite is drawn
+     * again (see {@link Sprite#setSubtreeRenderCache(SubtreeRenderCache)}). Safe to call from any thread, no lock is
+     * taken.
+     */
+    public final void invalidateDrawing() {
+        drawingChanged = true;
+        invalidateDrawingOfAncestors();
+        invalidateSubtreeRenderCaches();
+    }
+
+    private void invalidateDrawingOfAncestors() {
+        // Done without locking the ancestors, same as waking them up
+        for (Sprite ancestor = parentSprite; ancestor != endRootSprite && !ancestor.descendantDrawingChanged;
+                ancestor = ancestor.parentSprite) {
+            ancestor.descendantDrawingChanged = true;
+        }
+    }
+
+    /**
+     * Hands out the regions, in drawing coordinates, where the drawing of this Sprite or any of it's descendants
+     * changed since the regions were last collected. For each Sprite that moved or resized since then, or that had
+     * {@link Sprite#invalidateDrawing()} called on it, both where it was drawn before and where it's drawn now are
+     * handed out, along with where removed child sprites were drawn. Sprites added since then have where they're drawn
+     * now handed out. Sleeping subtrees are skipped unless something in them was invalidated, or an ancestor moved.
+     * <p>
+     * The region of a Sprite is it's subtree drawing bounds if it has any (see {@link
+     * Sprite#getSubtreeDrawingBounds()}), otherwise it's own rectangle. The first call hands out every Sprite's region.
+     *
+     * @param regionConsumer
+     *         Takes each changed region, which it's free to keep
+     */
+    public final synchronized void collectChangedDrawingRegions(Consumer<Rectangle> regionConsumer) {
+        collectChangedDrawingRegions(regionConsumer, false);
+    }
+
+    private synchronized void collectChangedDrawingRegions(Consumer<Rectangle> regionConsumer,
+            boolean ancestorMoved) {
+        Rectangle subtreeDrawingBounds = getSubtreeDrawingBounds();
+        int x = subtreeDrawingBounds != null ? subtreeDrawingBounds.x : getXDrawingCoordinateTopLeft();
+        int y = subtreeDrawingBounds != null ? subtreeDrawingBounds.y : getYDrawingCoordinateTopLeft();
+        int regionWidth = subtreeDrawingBounds != null ? subtreeDrawingBounds.width : width;
+        int regionHeight = subtreeDrawingBounds != null ? subtreeDrawingBounds.height : height;
+        boolean moved = drawingRegionCollected &&
+                (x != collectedDrawingRegion.x || y != collectedDrawingRegion.y);
+        boolean regionChanged = !drawingRegionCollected || moved || regionWidth != collectedDrawingRegion.width ||
+                regionHeight != collectedDrawingRegion.height;
+        if (regionChanged || drawingChanged) {
+            drawingChanged = false;
+            if (drawingRegionCollected && !collectedDrawingRegion.isEmpty()) {
+                regionConsumer.accept(new Rectangle(collectedDrawingRegion));
+            }
+            collectedDrawingRegion.setBounds(x, y, regionWidth, regionHeight);
+            drawingRegionCollected = true;
+            if (!collectedDrawingRegion.isEmpty()) {
+                regionConsumer.accept(new Rectangle(collectedDrawingRegion));
+            }
+        }
+        if (removedChildSpritesDrawingRegions != null) {
+            removedChildSpritesDrawingRegions.forEach(regionConsumer);
+            removedChildSpritesDrawingRegions = null;
+        }
+
+        // Cleared before looking at the child sprites, so a child sprite invalidated meanwhile is seen next time
+        descendantDrawingChanged = false;
+        boolean descendantsMoved = ancestorMoved || moved;
+        for (int i = 0; i < childSprites.size(); i++) {
+            Sprite childSprite = childSprites.get(i);
+            if (descendantsMoved || !childSprite.sleeping || childSprite.drawingChanged ||
+                    childSprite.descendantDrawingChanged || !childSprite.drawingRegionCollected) {
+                childSprite.collectChangedDrawingRegions(regionConsumer, descendantsMoved);
+            }
+        }
+    }
+
+    /**
+     * Adds where this Sprite and all of it's descendants were drawn when last collected to the removed child sprites
+     * regions of the passed parent sprite, and forgets them, as the Sprite is being removed from the parent sprite
+     *
+     * @return True if anything was added
+     */
+    private synchronized boolean addCollectedDrawingRegionsOfSubtree(Sprite parentSpriteRemovingThis) {
+        boolean added = false;
+        if (drawingRegionCollected) {
+            drawingRegionCollected = false;
+            if (!collectedDrawingRegion.isEmpty()) {
+                if (parentSpriteRemovingThis.removedChildSpritesDrawingRegions == null) {
+                    parentSpriteRemovingThis.removedChildSpritesDrawingRegions = new ArrayList<>();
+                }
+                parentSpriteRemovingThis.removedChildSpritesDrawingRegions.add(new Rectangle(collectedDrawingRegion));
+                added = true;
+            }
+        }
+        for (int i = 0; i < childSprites.size(); i++) {
+            added |= childSprites.get(i).addCollectedDrawingRegionsOfSubtree(parentSpriteRemovingThis);
+        }
+        return added;
+    }
+
+    private void drawSpacePartitionerDebugGraphics(Graphics2D g) {
+        // Partitioners work in this Sprite's coordinate plane (where the child sprites are positioned), so translate
+        Graphics2D partitionerGraphics = (Graphics2D) g.create();
+        partitionerGraphics.translate(getOldXDrawingCoordinateTopLeft(), getOldYDrawingCoordinateTopLeft());
+        spacePartitioner.draw(partitionerGraphics);
+        partitionerGraphics.dispose();
+    }
+
     /**
      * Draws the graphics representing the Sprite before the child Sprites are drawn. The idea is that this is a method
      * that is overridden by Sprite subclasses, while the drawAll method is not, in order to recursively draw all child
@@ -453,11 +1982,65 @@ public class Sprite implements Iterable<Sprite> {
     protected synchronized void debugDraw(Graphics2D g) {
     }
 
+    /**
+     * Takes a snapshot of the graphics of this Sprite and all of it's child sprites as they are right now. The snapshot
+     * can then be drawn by any thread without taking any Sprite locks, so painting and updating no longer wait on each
+     * other. Sprites only show up in the snapshot if they supply a SpriteDrawing from {@link
+     * Sprite#getSnapshotDrawingUnderChildren()} or {@link Sprite#getSnapshotDrawingOverChildren()}, and debug graphics
+     * are never part of a snapshot.
+     */
+    public final synchronized RenderSnapshot createRenderSnapshot() {
+        RenderSnapshot.Builder builder = new RenderSnapshot.Builder();
+        addToRenderSnapshot(builder);
+        return builder.build();
+    }
+
+    private synchronized void addToRenderSnapshot(RenderSnapshot.Builder builder) {
+        // Same order as drawAll
+        SpriteDrawing drawingUnderChildren = getSnapshotDrawingUnderChildren();
+        if (drawingUnderChildren != null) {
+            builder.addDrawing(drawingUnderChildren, getXDrawingCoordinateTopLeft(), getYDrawingCoordinateTopLeft(),
+                    width, height);
+        }
+        for (int i = childSprites.size() - 1; i >= 0; i--) {
+            childSprites.get(i).addToRenderSnapshot(builder);
+        }
+        SpriteDrawing drawingOverChildren = getSnapshotDrawingOverChildren();
+        if (drawingOverChildren != null) {
+            builder.addDrawing(drawingOverChildren, getXDrawingCoordinateTopLeft(), getYDrawingCoordinateTopLeft(),
+                    width, height);
+        }
+    }
+
+    /**
+     * Snapshot equivalent of {@link Sprite#drawUnderChildren(Graphics2D)}, designed to be overridden by Sprite
+     * subclasses that want to be drawn from a {@link RenderSnapshot}. The returned SpriteDrawing is drawn later and on
+     * another thread, so it must capture whatever it needs now rather than read this Sprite's state when drawn.
+     *
+     * @return What to draw under the child sprites, or null if nothing
+     */
+    protected synchronized SpriteDrawing getSnapshotDrawingUnderChildren() {
+        return null;
+    }
+
+    /**
+     * Snapshot equivalent of {@link Sprite#drawOverChildren(Graphics2D)}
+     *
+     * @return What to draw over the child sprites, or null if nothing
+     * @see Sprite#getSnapshotDrawingUnderChildren()
+     */
+    protected synchronized SpriteDrawing getSnapshotDrawingOverChildren() {
+        return null;
+    }
+
     /**
      * Sets whether or not the Sprite should draw debug graphics and information
      */
     public final synchronized void setDrawingDebugGraphics(boolean drawingDebugGraphics) {
-        this.drawingDebugGraphics = drawingDebugGraphics;
+        if (this.drawingDebugGraphics != drawingDebugGraphics) {
+            this.drawingDebugGraphics = drawingDebugGraphics;
+            invalidateSubtreeRenderCaches();
+        }
     }
 
     /**
@@ -501,6 +2084,39 @@ public class Sprite implements Iterable<Sprite> {
     }
 
 
+    /**
+     * Determines if this sprite collided with another Sprite at any point while both moved from where they were at the
+     * start of the last update to where they were at the end of it, assumes sprites are rectangle shaped and moved in
+     * a straight line. Only the Sprites' own movement is taken into account, not the movement of their parent sprites,
+     * which is the same for both when they share a parent sprite.
+     *
+     * @see SimpleShapeCollisionDetection#detectSweptCollisionOfTwoRectangles(float, float, float, float, int, int,
+     * float, float, float, float, int, int)
+     */
+    public final synchronized SimpleSweptCollision collidesWithPositionsDuringLastUpdate(Sprite otherShape) {
+        // End positions are the same as collidesWithPositionsAsOfLastUpdate, so anything it finds is found here too
+        int xEnd = getOldXDrawingCoordinateTopLeft();
+        int yEnd = getOldYDrawingCoordinateTopLeft();
+        int otherXEnd = otherShape.getOldXDrawingCoordinateTopLeft();
+        int otherYEnd = otherShape.getOldYDrawingCoordinateTopLeft();
+        return SimpleShapeCollisionDetection.detectSweptCollisionOfTwoRectangles(
+                // This rect
+                xEnd - getDistanceMovedAlongXDuringLastUpdate(), yEnd - getDistanceMovedAlongYDuringLastUpdate(), xEnd,
+                yEnd, getWidth(), getHeight(),
+                // Other shape rect
+                otherXEnd - otherShape.getDistanceMovedAlongXDuringLastUpdate(),
+                otherYEnd - otherShape.getDistanceMovedAlongYDuringLastUpdate(), otherXEnd, otherYEnd,
+                otherShape.getWidth(), otherShape.getHeight());
+    }
+
+    private synchronized float getDistanceMovedAlongXDuringLastUpdate() {
+        return oldXCoordinateTopLeft - xCoordinateTopLeftAtStartOfLastUpdate;
+    }
+
+    private synchronized float getDistanceMovedAlongYDuringLastUpdate() {
+        return oldYCoordinateTopLeft - yCoordinateTopLeftAtStartOfLastUpdate;
+    }
+
     /**
      * @return The number of child sprites in this parent sprite
      */
@@ -522,20 +2138,24 @@ public class Sprite implements Iterable<Sprite> {
      * velocities if found on left/right or top/bottom borders.
      */
     public final synchronized void repositionAndReverseVelocitiesIfVeeringOffParent() {
+        // Parent size is read without locking the parent sprite, as this is usually called while updating, when the
+        // parent sprite may not be locked by the thread updating this Sprite (see updateAllInParallel)
+        int parentWidth = parentSprite.width;
+        int parentHeight = parentSprite.height;
         if (oldXCoordinateTopLeft < 0) {
             setXVelocity(-getOldXVelocity());
             setXCoordinateTopLeft(0);
-        } else if (oldXCoordinateTopLeft + width > parentSprite.getWidth()) {
+        } else if (oldXCoordinateTopLeft + width > parentWidth) {
             setXVelocity(-getOldXVelocity());
-            setXCoordinateTopLeft(parentSprite.getWidth() - width);
+            setXCoordinateTopLeft(parentWidth - width);
         }
 
         if (oldYCoordinateTopLeft < 0) {
             setYVelocity(-getOldYVelocity());
             setYCoordinateTopLeft(0);
-        } else if (oldYCoordinateTopLeft + height > parentSprite.getHeight()) {
+        } else if (oldYCoordinateTopLeft + height > parentHeight) {
             setYVelocity(-getOldYVelocity());
-            setYCoordinateTopLeft(parentSprite.getHeight() - height);
+            setYCoordinateTopLeft(parentHeight - height);
         }
     }
 
@@ -552,20 +2172,59 @@ public class Sprite implements Iterable<Sprite> {
      */
     public final synchronized void setVelocitiesToRandomAmount(float maxVelocity,
             float percentFromZeroToExtremeToNotSetTo) {
-        setXVelocity(maxVelocity - randomGen.nextFloat() * (maxVelocity * 2));
+        setVelocitiesToRandomAmount(maxVelocity, percentFromZeroToExtremeToNotSetTo, getRandom());
+    }
+
+    /**
+     * Same as {@link Sprite#setVelocitiesToRandomAmount(float, float)}, with the random values taken from the passed
+     * random source, useful for Sprites that pick their velocities before being added to their world.
+     */
+    public final synchronized void setVelocitiesToRandomAmount(float maxVelocity,
+            float percentFromZeroToExtremeToNotSetTo, Random random) {
+        setXVelocity(maxVelocity - random.nextFloat() * (maxVelocity * 2));
         if (getXVelocity() > -(maxVelocity * percentFromZeroToExtremeToNotSetTo) &&
                 getXVelocity() < (maxVelocity * percentFromZeroToExtremeToNotSetTo)) {
             // Always ensure the random value is on either extreme of the random range
             // based on percentFromZeroToExtremeToNotSetTo
             setXVelocity(getXVelocity() * 2);
         }
-        setYVelocity(maxVelocity - randomGen.nextFloat() * (maxVelocity * 2));
+        setYVelocity(maxVelocity - random.nextFloat() * (maxVelocity * 2));
         if (getYVelocity() > -(maxVelocity * percentFromZeroToExtremeToNotSetTo) &&
                 getYVelocity() < (maxVelocity * percentFromZeroToExtremeToNotSetTo)) {
             setYVelocity(getYVelocity() * 2);
         }
     }
 
+    /**
+     * @return The random source of this Sprite, which is the one set on the closest of this Sprite and it's ancestors,
+     * or if none of them have one set, a random source local to the current thread
+     * @see Sprite#setRandom(Random)
+     */
+    public final Random getRandom() {
+        // Read without locking the ancestors, which would lock in the opposite order that updates do
+        for (Sprite sprite = this; sprite != endRootSprite; sprite = sprite.parentSprite) {
+            Random randomOfSprite = sprite.random;
+            if (randomOfSprite != null) {
+                return randomOfSprite;
+            }
+        }
+        return ThreadLocalRandom.current();
+    }
+
+    /**
+     * Sets the random source used by this Sprite and all of it's descendants that don't have one set themselves, such
+     * as by {@link Sprite#setVelocitiesToRandomAmount(float, float)}. Setting a seeded random source on the root Sprite
+     * of a world makes the randomness of the world reproducible, as long as the world is updated on one thread. When
+     * updating in parallel, Sprites drawing random values during updates need random sources of their own instead, see
+     * {@link Sprite#updateAllInParallel(long, ForkJoinPool, int)}.
+     *
+     * @param random
+     *         Random source to use, or null to go back to using the random source of the parent sprite
+     */
+    public final synchronized void setRandom(Random random) {
+        this.random = random;
+    }
+
     /**
      * @return The {@link SpacePartitioner} of this Sprite
      */
@@ -575,10 +2234,207 @@ public class Sprite implements Iterable<Sprite> {
 
     /**
      * Set a {@link SpacePartitioner} for the Sprite. A SpacePartitioner will allow child sprites to auto detect
-     * possible collisions via the {@link Sprite#potentialCollision(Sprite)} method.
+     * possible collisions via the {@link Sprite#potentialCollision(Sprite)} method. Any child sprites already added to
+     * this Sprite are added to the new SpacePartitioner.
      */
     public final synchronized void setSpacePartitioner(SpacePartitioner spacePartitioner) {
+        childSprites.forEach(this.spacePartitioner::removeSprite);
         this.spacePartitioner = spacePartitioner;
+        childSprites.forEach(this.spacePartitioner::addSprite);
+    }
+
+    /**
+     * @return True if collisions between child sprites are tested once per pair of child sprites
+     * @see Sprite#setHandlingChildCollisionsSymmetrically(boolean)
+     */
+    public final synchronized boolean isHandlingChildCollisionsSymmetrically() {
+        return handlingChildCollisionsSymmetrically;
+    }
+
+    /**
+     * Sets whether collisions between child sprites are tested once per pair of child sprites instead of once per child
+     * sprite per potential colliding child sprite. When set, the {@link SpacePartitioner} hands out each pair of
+     * potential colliding child sprites once, only the first Sprite of the pair determines if there is a collision with
+     * {@link Sprite#potentialCollision(Sprite)}, and if so both Sprites have {@link Sprite#handleCollision(Sprite,
+     * SimpleCollisionDirection)} called, the second one with the {@link SimpleCollisionDirection#oppositeDirection()}
+     * of the direction the first one found. This about halves the cost of testing for collisions, but should only be
+     * used when the child sprites agree with each other on what counts as a collision (such as child sprites that don't
+     * override {@link Sprite#potentialCollision(Sprite)}). Not set by default.
+     */
+    public final synchronized void setHandlingChildCollisionsSymmetrically(
+            boolean handlingChildCollisionsSymmetrically) {
+        this.handlingChildCollisionsSymmetrically = handlingChildCollisionsSymmetrically;
+    }
+
+    /**
+     * @return The scene wide {@link SpacePartitioner} of this Sprite, or null if it doesn't have one
+     * @see Sprite#setSceneSpacePartitioner(SpacePartitioner, SceneCollisionScope)
+     */
+    public final synchronized SpacePartitioner getSceneSpacePartitioner() {
+        return sceneSpacePartitioner;
+    }
+
+    public final synchronized SceneCollisionScope getSceneCollisionScope() {
+        return sceneCollisionScope;
+    }
+
+    /**
+     * Sets a scene wide {@link SpacePartitioner} for the Sprite, which holds every descendant of this Sprite (not only
+     * the child sprites) and is used to find collisions between them in one pass per update, instead of each parent
+     * sprite in the tree searching it's own SpacePartitioner. While set, the SpacePartitioners of this Sprite and its
+     * descendants are not used for collisions, so descendants don't need one of their own. A descendant with a scene
+     * wide SpacePartitioner of it's own handles the collisions of it's own descendants instead.
+     * <p>
+     * The SpacePartitioner must store Sprites by their drawing coordinates (see {@link
+     * Sprite#getOldXDrawingCoordinateTopLeft()}), as descendants at different depths don't share any other coordinate
+     * plane, such as a {@link org.jamesgames.easysprite.physics.partitioning.WorldSpaceUniformGridSpacePartitioner}.
+     * Collisions are tested with {@link Sprite#potentialCollision(Sprite)} and handled by {@link
+     * Sprite#handleCollision(Sprite, SimpleCollisionDirection)}, once per pair if this Sprite is handling child
+     * collisions symmetrically (see {@link Sprite#setHandlingChildCollisionsSymmetrically(boolean)}).
+     *
+     * @param sceneSpacePartitioner
+     *         SpacePartitioner to hold every descendant, or null to go back to each parent sprite using it's own
+     * @param scope
+     *         Which pairs of descendants can collide
+     */
+    public final synchronized void setSceneSpacePartitioner(SpacePartitioner sceneSpacePartitioner,
+            SceneCollisionScope scope) {
+        if (scope == null) {
+            throw new IllegalArgumentException("Scene collision scope cannot be null");
+        }
+        SpacePartitioner oldSceneSpacePartitioner = this.sceneSpacePartitioner;
+        this.sceneCollisionScope = scope;
+        if (oldSceneSpacePartitioner == sceneSpacePartitioner) {
+            return;
+        }
+        if (oldSceneSpacePartitioner != null && sceneSpacePartitioner != null) {
+            // Same scene, only the partitioner holding it's members changes
+            applySceneMemberChanges();
+            sceneMemberList.forEach(oldSceneSpacePartitioner::removeSprite);
+            this.sceneSpacePartitioner = sceneSpacePartitioner;
+            sceneMemberList.forEach(sceneSpacePartitioner::addSprite);
+        } else if (sceneSpacePartitioner != null) {
+            // Only Sprites with a scene pay for keeping track of it's members
+            sceneMemberIndexes = new HashMap<>();
+            sceneMemberList = new ArrayList<>();
+            queuedSceneMemberChanges = new ArrayList<>();
+            sceneMemberChangesToApply = new ArrayList<>();
+            this.sceneSpacePartitioner = sceneSpacePartitioner;
+            for (Sprite childSprite : childSprites) {
+                childSprite.changeSceneRoot(this);
+            }
+            applySceneMemberChanges();
+        } else {
+            applySceneMemberChanges();
+            sceneMemberList.forEach(oldSceneSpacePartitioner::removeSprite);
+            sceneMemberIndexes = null;
+            sceneMemberList = null;
+            queuedSceneMemberChanges = null;
+            sceneMemberChangesToApply = null;
+            this.sceneSpacePartitioner = null;
+            // The descendants go back to the scene this Sprite is in, if any
+            for (Sprite childSprite : childSprites) {
+                childSprite.changeSceneRoot(sceneRoot);
+            }
+        }
+    }
+
+    /**
+     * @return True if collisions between child sprites are found along the paths they moved during an update
+     * @see Sprite#setDetectingChildCollisionsContinuously(boolean)
+     */
+    public final synchronized boolean isDetectingChildCollisionsContinuously() {
+        return detectingChildCollisionsContinuously;
+    }
+
+    /**
+     * Sets whether collisions between child sprites are found along the whole path each child sprite moved during an
+     * update, rather than only where they ended up. When set, a child sprite that moves far enough in one update to
+     * pass clean through another child sprite still collides with it, which allows for larger elapsed times between
+     * updates without Sprites tunneling through each other. Child sprites that don't override {@link
+     * Sprite#potentialCollision(Sprite)} are tested with {@link Sprite#collidesWithPositionsDuringLastUpdate(Sprite)}
+     * and have {@link Sprite#handleContinuousCollision(Sprite, SimpleSweptCollision)} called, the rest are tested and
+     * handled the same as when not set. Costs more than testing end positions, as the {@link SpacePartitioner} is
+     * searched with the area each child sprite swept through. Not set by default.
+     */
+    public final synchronized void setDetectingChildCollisionsContinuously(
+            boolean detectingChildCollisionsContinuously) {
+        this.detectingChildCollisionsContinuously = detectingChildCollisionsContinuously;
+    }
+
+    /**
+     * Wakes the Sprite up if it's sleeping, along with all of it's ancestors, and starts counting ticks at rest over
+     * again. Sprites are also woken up whenever their position, velocity, or size is changed, when they collide with
+     * another Sprite, or when a child sprite is added to them.
+     */
+    public final synchronized void wakeUp() {
+        ticksAtRest = 0;
+        if (!sleeping) {
+            return;
+        }
+        sleeping = false;
+        // Done without locking the ancestors, which would lock in the opposite order that updates do
+        for (Sprite ancestor = parentSprite; ancestor != endRootSprite && ancestor.sleeping;
+                ancestor = ancestor.parentSprite) {
+            ancestor.sleeping = false;
+        }
+    }
+
+    /**
+     * @return True if the Sprite is sleeping, in which case it's skipped by updates and does not look for collisions
+     * with other Sprites (though other Sprites still collide with it)
+     * @see Sprite#setTicksAtRestBeforeSleeping(int)
+     */
+    public final boolean isSleeping() {
+        return sleeping;
+    }
+
+    /**
+     * @return The number of Sprites awake out of this Sprite and all of it's descendants
+     */
+    public final synchronized int getAwakeSpriteCount() {
+        if (sleeping) {
+            // All descendants of a sleeping Sprite are sleeping too
+            return 0;
+        }
+        int awakeSpriteCount = 1;
+        for (Sprite childSprite : childSprites) {
+            awakeSpriteCount += childSprite.getAwakeSpriteCount();
+        }
+        return awakeSpriteCount;
+    }
+
+    public final synchronized int getTicksAtRestBeforeSleeping() {
+        return ticksAtRestBeforeSleeping;
+    }
+
+    /**
+     * Sets how many updates in a row the Sprite must be at rest before it goes to sleep. A Sprite is at rest when it
+     * has no velocity, did not move, {@link Sprite#isResting()} is true, and all of it's child sprites are sleeping. A
+     * sleeping Sprite is skipped by updates, stays where it is in partitioners, and does not look for collisions
+     * itself, until it's woken up (see {@link Sprite#wakeUp()}).
+     *
+     * @param ticksAtRestBeforeSleeping
+     *         Updates in a row at rest before sleeping, or 0 to never sleep, which is the default
+     */
+    public final synchronized void setTicksAtRestBeforeSleeping(int ticksAtRestBeforeSleeping) {
+        if (ticksAtRestBeforeSleeping < 0) {
+            throw new IllegalArgumentException("Ticks at rest before sleeping cannot be negative");
+        }
+        this.ticksAtRestBeforeSleeping = ticksAtRestBeforeSleeping;
+        wakeUp();
+    }
+
+    /**
+     * Sets how many updates in a row the Sprite and all of it's child Sprites must be at rest before they go to sleep
+     *
+     * @see Sprite#setTicksAtRestBeforeSleeping(int)
+     */
+    public final synchronized void setTicksAtRestBeforeSleepingIncludingChildSprites(int ticksAtRestBeforeSleeping) {
+        setTicksAtRestBeforeSleeping(ticksAtRestBeforeSleeping);
+        for (Sprite s : this) {
+            s.setTicksAtRestBeforeSleepingIncludingChildSprites(ticksAtRestBeforeSleeping);
+        }
     }
 
     private static final class EndRootSprite extends Sprite {
@@ -602,5 +2458,15 @@ public class Sprite implements Iterable<Sprite> {
         synchronized int getParentOldXDrawingCoordinateTopLeftInternalImpl() {
             return 0;
         }
+
+        @Override
+        synchronized int getParentXDrawingCoordinateTopLeftAtStartOfLastUpdateInternalImpl() {
+            return 0;
+        }
+
+        @Override
+        synchronized int getParentYDrawingCoordinateTopLeftAtStartOfLastUpdateInternalImpl() {
+            return 0;
+        }
     }
 }
@@ -0,0 +1,19 @@
+package org.jamesgames.easysprite.sprite;
+
+import java.awt.*;
+
+/**
+ * SpriteDrawing is the graphics of a Sprite as of one moment, that can be drawn at a later time by a different thread
+ * than the one that updates the Sprite, see {@link RenderSnapshot}. Implementations must not refer back to any mutable
+ * state of the Sprite, everything needed to draw should be captured when the SpriteDrawing is created (an {@link
+ * org.jamesgames.easysprite.animation.AnimationFrame} or a Color for example).
+ *
+ * @author James Murphy
+ */
+@FunctionalInterface
+public interface SpriteDrawing {
+    /**
+     * Draws the graphics at the position and size the Sprite had when the snapshot was taken
+     */
+    void draw(Graphics2D g, int xDrawingCoordinateTopLeft, int yDrawingCoordinateTopLeft, int width, int height);
+}
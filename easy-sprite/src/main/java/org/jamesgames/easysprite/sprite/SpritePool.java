@@ -0,0 +1,143 @@
+package org.jamesgames.easysprite.sprite;
+
+import net.jcip.annotations.ThreadSafe;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.function.Supplier;
+
+/**
+ * SpritePool keeps Sprites that are no longer used so they can be used again, rather than creating a new Sprite each
+ * time, for scenes that go through many short lived Sprites such as projectiles. A Sprite obtained from the pool is
+ * either one released to the pool earlier (a hit), or a new one from the pool's factory when the pool is empty (a
+ * miss).
+ * <p>
+ * Sprites are reset when released, see {@link Sprite#onRecycle()}. They are usually released by removing them from
+ * their parent sprite with {@link Sprite#recycleChildSprite(Sprite, SpritePool)}, which can be called at any time,
+ * including while the parent sprite is being updated. Released Sprites beyond the most the pool holds are left to be
+ * garbage collected.
+ *
+ * @author James Murphy
+ */
+@ThreadSafe
+public final class SpritePool<T extends Sprite> {
+    private final Supplier<T> spriteFactory;
+    private final int maxPooledSprites;
+
+    // Guarded by this, along with writes to the pooled flag of every Sprite released to the pool
+    private final Deque<T> pooledSprites = new ArrayDeque<>();
+    private long hitCount = 0;
+    private long missCount = 0;
+
+    /**
+     * @param spriteFactory
+     *         Creates a new Sprite whenever the pool has none to reuse
+     * @param maxPooledSprites
+     *         Most released Sprites the pool holds on to
+     */
+    public SpritePool(Supplier<T> spriteFactory, int maxPooledSprites) {
+        if (spriteFactory == null) {
+            throw new IllegalArgumentException("Sprite factory cannot be null");
+        }
+        if (maxPooledSprites <= 0) {
+            throw new IllegalArgumentException("Max pooled sprites must be greater than 0");
+        }
+        this.spriteFactory = spriteFactory;
+        this.maxPooledSprites = maxPooledSprites;
+    }
+
+    /**
+     * @return A Sprite with no parent sprite, reused from the pool if there is one
+     */
+    public synchronized T obtain() {
+        T sprite = pooledSprites.pollFirst();
+        if (sprite == null) {
+            missCount++;
+            return spriteFactory.get();
+        }
+        hitCount++;
+        sprite.pooled = false;
+        return sprite;
+    }
+
+    /**
+     * Obtains a Sprite from the pool and adds it as a child sprite of the passed Sprite, see {@link
+     * Sprite#addChildSprite(Sprite)}
+     *
+     * @return The Sprite added
+     */
+    public T obtainAsChildSpriteOf(Sprite parentSprite) {
+        T sprite = obtain();
+        parentSprite.addChildSprite(sprite);
+        return sprite;
+    }
+
+    /**
+     * Resets the passed Sprite and keeps it to be obtained again, if the pool isn't full. The Sprite must not have a
+     * parent sprite, and must not be used after being released.
+     */
+    public void release(T sprite) {
+        if (sprite.hasParentSprite()) {
+            throw new IllegalArgumentException("Sprite must be removed from it's parent sprite before being released");
+        }
+        releaseRemovedSprite(sprite);
+    }
+
+    /**
+     * Releases a Sprite that was just removed from it's parent sprite by {@link Sprite#recycleChildSprite(Sprite,
+     * SpritePool)}, which already made sure it's of the pool's type
+     */
+    @SuppressWarnings("unchecked")
+    void releaseRemovedSprite(Sprite sprite) {
+        synchronized (this) {
+            if (sprite.pooled) {
+                throw new IllegalArgumentException("Sprite was already released");
+            }
+            sprite.pooled = true;
+        }
+        // Reset without holding the pool's lock, as the Sprite's lock is taken
+        sprite.resetForReuse();
+        synchronized (this) {
+            if (pooledSprites.size() < maxPooledSprites) {
+                pooledSprites.addFirst((T) sprite);
+            }
+        }
+    }
+
+    /**
+     * Creates new Sprites until the pool holds the passed number of Sprites, so that the first obtains don't miss
+     *
+     * @param spriteCount
+     *         Number of Sprites to hold, at most the most the pool holds
+     */
+    public synchronized void fill(int spriteCount) {
+        int target = Math.min(spriteCount, maxPooledSprites);
+        while (pooledSprites.size() < target) {
+            T sprite = spriteFactory.get();
+            sprite.pooled = true;
+            pooledSprites.addFirst(sprite);
+        }
+    }
+
+    /**
+     * @return Number of obtains that reused a pooled Sprite
+     */
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * @return Number of obtains that had to create a new Sprite
+     */
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    public synchronized int getPooledSpriteCount() {
+        return pooledSprites.size();
+    }
+
+    public int getMaxPooledSprites() {
+        return maxPooledSprites;
+    }
+}
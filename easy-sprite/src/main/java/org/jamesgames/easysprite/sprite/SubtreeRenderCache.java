@@ -0,0 +1,130 @@
+package org.jamesgames.easysprite.sprite;
+
+import net.jcip.annotations.ThreadSafe;
+
+import java.awt.image.BufferedImage;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * SubtreeRenderCache holds images of Sprites drawn along with all of their descendants, for Sprites that look the same
+ * for many frames, such as backgrounds or HUD panels. A Sprite using a cache (see {@link
+ * Sprite#setSubtreeRenderCache(SubtreeRenderCache)}) draws it's subtree into an image once, and then draws that image
+ * until anything in the subtree changes, at which point it draws it's subtree into a new image.
+ * <p>
+ * The images of a cache take up at most the memory it's given, when another image doesn't fit, the images least
+ * recently drawn are dropped to make room. A subtree whose image alone doesn't fit is drawn as usual without caching
+ * it. A cache can be shared by many Sprites, so that they share the memory.
+ *
+ * @author James Murphy
+ */
+@ThreadSafe
+public final class SubtreeRenderCache {
+    private static final int bytesPerPixel = 4;
+
+    private final long maxCachedBytes;
+
+    // Guarded by this, ordered from least to most recently drawn
+    private final Map<Sprite, BufferedImage> imagesBySprite = new LinkedHashMap<>(16, 0.75f, true);
+    private long cachedBytes = 0;
+    private long hitCount = 0;
+    private long missCount = 0;
+
+    /**
+     * @param maxCachedBytes
+     *         Most memory the images of the cache take up together
+     */
+    public SubtreeRenderCache(long maxCachedBytes) {
+        if (maxCachedBytes <= 0) {
+            throw new IllegalArgumentException("Max cached bytes must be greater than 0");
+        }
+        this.maxCachedBytes = maxCachedBytes;
+    }
+
+    /**
+     * @return The cached image of the Sprite, or null if it has none
+     */
+    synchronized BufferedImage getImage(Sprite sprite) {
+        BufferedImage image = imagesBySprite.get(sprite);
+        if (image == null) {
+            missCount++;
+        } else {
+            hitCount++;
+        }
+        return image;
+    }
+
+    /**
+     * Caches the image of the Sprite in place of any it had, if the image fits in the cache at all
+     */
+    synchronized void putImage(Sprite sprite, BufferedImage image) {
+        removeImage(sprite);
+        long imageBytes = bytesOf(image);
+        if (imageBytes > maxCachedBytes) {
+            return;
+        }
+        Iterator<BufferedImage> leastRecentlyDrawn = imagesBySprite.values().iterator();
+        while (cachedBytes + imageBytes > maxCachedBytes) {
+            cachedBytes -= bytesOf(leastRecentlyDrawn.next());
+            leastRecentlyDrawn.remove();
+        }
+        imagesBySprite.put(sprite, image);
+        cachedBytes += imageBytes;
+    }
+
+    synchronized void removeImage(Sprite sprite) {
+        BufferedImage image = imagesBySprite.remove(sprite);
+        if (image != null) {
+            cachedBytes -= bytesOf(image);
+        }
+    }
+
+    /**
+     * @return True if an image of the passed size could be cached
+     */
+    boolean fits(int width, int height) {
+        return (long) width * height * bytesPerPixel <= maxCachedBytes;
+    }
+
+    private static long bytesOf(BufferedImage image) {
+        return (long) image.getWidth() * image.getHeight() * bytesPerPixel;
+    }
+
+    /**
+     * Drops every cached image, they're drawn again the next time they're needed
+     */
+    public synchronized void clear() {
+        imagesBySprite.clear();
+        cachedBytes = 0;
+    }
+
+    public long getMaxCachedBytes() {
+        return maxCachedBytes;
+    }
+
+    /**
+     * @return Memory the cached images take up together, counting four bytes per pixel
+     */
+    public synchronized long getCachedBytes() {
+        return cachedBytes;
+    }
+
+    public synchronized int getCachedImageCount() {
+        return imagesBySprite.size();
+    }
+
+    /**
+     * @return Number of times a Sprite looked for it's image and found it
+     */
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * @return Number of times a Sprite looked for it's image and had to draw it's subtree again
+     */
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+}
@@ -2,7 +2,9 @@ package org.jamesgames.easysprite.sprite.stateful;
 
 import org.jamesgames.easysprite.animation.Animation;
 import org.jamesgames.easysprite.animation.AnimationDescription;
+import org.jamesgames.easysprite.animation.AnimationFrame;
 import org.jamesgames.easysprite.sprite.Sprite;
+import org.jamesgames.easysprite.sprite.SpriteDrawing;
 
 import java.awt.*;
 import java.util.function.Predicate;
@@ -46,10 +48,13 @@ public class StatefulSprite<E extends Enum<E>> extends Sprite {
 
     protected synchronized void setStateActive(E state) {
         activeStates.setStateActive(state);
+        // A change of states may change the animation, so the Sprite can't be asleep
+        wakeUp();
     }
 
     protected synchronized void setStateInactive(E state) {
         activeStates.setStateInactive(state);
+        wakeUp();
     }
 
     protected synchronized boolean isStateActive(E state) {
@@ -70,7 +75,19 @@ public class StatefulSprite<E extends Enum<E>> extends Sprite {
                 currentAnimation.changeAnimationDescription(possibleNewAnimationDescription);
             }
         }
+        AnimationFrame frameBeforeUpdate = currentAnimation.getCurrentFrame();
         currentAnimation.update(elapsedTimeInMilliseconds);
+        if (currentAnimation.getCurrentFrame() != frameBeforeUpdate) {
+            invalidateDrawing();
+        }
+    }
+
+    /**
+     * Not resting while the animation is still playing, so the Sprite doesn't go to sleep part way through it
+     */
+    @Override
+    protected synchronized boolean isResting() {
+        return super.isResting() && !currentAnimation.isPlaying();
     }
 
     @Override
@@ -78,4 +95,11 @@ public class StatefulSprite<E extends Enum<E>> extends Sprite {
         super.drawUnderChildren(g);
         currentAnimation.drawAnimation(g, getXDrawingCoordinateTopLeft(), getYDrawingCoordinateTopLeft());
     }
+
+    @Override
+    protected synchronized SpriteDrawing getSnapshotDrawingUnderChildren() {
+        // AnimationFrames are immutable, so the current one can be drawn later no matter how the animation moves on
+        AnimationFrame currentFrame = currentAnimation.getCurrentFrame();
+        return (g, x, y, width, height) -> currentFrame.drawFrame(g, x, y);
+    }
 }
@@ -0,0 +1,58 @@
+package org.jamesgames.easysprite.updater;
+
+/**
+ * CatchUpPolicy describes what a {@link PreciseTickScheduler} does with the ticks it missed once it falls behind, such
+ * as after a garbage collection pause or any other stall.
+ *
+ * @author James Murphy
+ */
+public enum CatchUpPolicy {
+    /**
+     * Run every missed tick back to back until caught up, like the fixed-rate execution of java.util.Timer. Over time
+     * exactly the expected number of ticks run, but a long stall is followed by a burst of ticks.
+     */
+    burst,
+    /**
+     * Drop every missed tick but one and continue on the original schedule, so ticks never come in bursts but the
+     * number of ticks run falls behind real time by however long the stalls were.
+     */
+    skip,
+    /**
+     * Run missed ticks back to back like {@link CatchUpPolicy#burst}, but no more than a set number of them, dropping
+     * any older missed ticks like {@link CatchUpPolicy#skip}
+     */
+    clamp;
+
+    /**
+     * @param deadline
+     *         Deadline of the tick that just ran
+     * @param periodInNanoseconds
+     *         Time from the deadline of one tick to the deadline of the next
+     * @param now
+     *         Time the tick finished running
+     * @param maxCatchUpTicks
+     *         Most missed ticks run back to back when clamping
+     * @return Deadline of the next tick, which is in the past or now when the next tick should run right away
+     */
+    long nextDeadline(long deadline, long periodInNanoseconds, long now, int maxCatchUpTicks) {
+        long nextDeadline = deadline + periodInNanoseconds;
+        switch (this) {
+            case skip:
+                if (nextDeadline - now <= 0) {
+                    // Next deadline on the original schedule that's still ahead
+                    nextDeadline += ((now - nextDeadline) / periodInNanoseconds + 1) * periodInNanoseconds;
+                }
+                break;
+            case clamp:
+                // Every deadline from the next one to now is run back to back, so leave no more than the max of them
+                long earliestDeadline = now - (maxCatchUpTicks - 1) * periodInNanoseconds;
+                if (nextDeadline - earliestDeadline < 0) {
+                    nextDeadline = earliestDeadline;
+                }
+                break;
+            default:
+                break;
+        }
+        return nextDeadline;
+    }
+}
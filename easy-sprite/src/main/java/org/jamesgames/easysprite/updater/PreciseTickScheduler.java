@@ -0,0 +1,280 @@
+package org.jamesgames.easysprite.updater;
+
+import net.jcip.annotations.ThreadSafe;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * PreciseTickScheduler is a {@link TickScheduler} that schedules each tick against an absolute deadline, so ticks don't
+ * drift over time. By default each thread of the scheduler parks until the next deadline, which can wake up late by a
+ * millisecond or more depending on the platform. To meet deadlines to well under a millisecond, set a spin threshold
+ * (see {@link PreciseTickSchedulerBuilder#setSpinThresholdInNanoseconds(long)}): threads then park until that long
+ * before the deadline and spin the rest of the way, a larger threshold meets deadlines more reliably at the cost of
+ * keeping a processor busy for that long every tick.
+ * <p>
+ * The scheduler has a fixed number of threads, and every scheduled tick is assigned to the thread with the fewest
+ * ticks, so many {@link SpriteUpdater}s can share a few threads. Ticks sharing a thread run one at a time in the order
+ * of their deadlines, so a slow tick delays the others on the same thread. Threads are only started once they have a
+ * tick to run, and end once all of their ticks are cancelled.
+ * <p>
+ * What happens to missed ticks after a stall is decided by the {@link CatchUpPolicy}. A tick that throws an exception
+ * is cancelled, and the exception is handed to the thread's uncaught exception handler, so the other ticks on the same
+ * thread keep running.
+ *
+ * @author James Murphy
+ */
+@ThreadSafe
+public final class PreciseTickScheduler implements TickScheduler {
+
+    private final TickThread[] tickThreads;
+    private final String threadName;
+    private final long spinThresholdInNanoseconds;
+    private final CatchUpPolicy catchUpPolicy;
+    private final int maxCatchUpTicks;
+
+    private PreciseTickScheduler(int threadCount, String threadName, long spinThresholdInNanoseconds,
+            CatchUpPolicy catchUpPolicy, int maxCatchUpTicks) {
+        if (threadCount <= 0) {
+            throw new IllegalArgumentException("Thread count must be greater than 0");
+        }
+        if (spinThresholdInNanoseconds < 0) {
+            throw new IllegalArgumentException("Spin threshold cannot be negative");
+        }
+        if (catchUpPolicy == null) {
+            throw new IllegalArgumentException("Catch up policy cannot be null");
+        }
+        if (maxCatchUpTicks <= 0) {
+            throw new IllegalArgumentException("Max catch up ticks must be greater than 0");
+        }
+        this.threadName = threadName;
+        this.spinThresholdInNanoseconds = spinThresholdInNanoseconds;
+        this.catchUpPolicy = catchUpPolicy;
+        this.maxCatchUpTicks = maxCatchUpTicks;
+        tickThreads = new TickThread[threadCount];
+        for (int i = 0; i < threadCount; i++) {
+            tickThreads[i] = new TickThread(threadCount == 1 ? threadName : threadName + " " + (i + 1));
+        }
+    }
+
+    @Override
+    public ScheduledTick scheduleAtFixedRate(Runnable tick, long periodInNanoseconds) {
+        if (tick == null) {
+            throw new IllegalArgumentException("Tick cannot be null");
+        }
+        if (periodInNanoseconds <= 0) {
+            throw new IllegalArgumentException("Period must be greater than 0");
+        }
+        Tick scheduledTick = new Tick(tick, periodInNanoseconds, System.nanoTime());
+        leastBusyTickThread().addTick(scheduledTick);
+        return scheduledTick;
+    }
+
+    private synchronized TickThread leastBusyTickThread() {
+        TickThread leastBusy = tickThreads[0];
+        for (int i = 1; i < tickThreads.length; i++) {
+            if (tickThreads[i].getTickCount() < leastBusy.getTickCount()) {
+                leastBusy = tickThreads[i];
+            }
+        }
+        return leastBusy;
+    }
+
+    public int getThreadCount() {
+        return tickThreads.length;
+    }
+
+    public String getThreadName() {
+        return threadName;
+    }
+
+    public long getSpinThresholdInNanoseconds() {
+        return spinThresholdInNanoseconds;
+    }
+
+    public CatchUpPolicy getCatchUpPolicy() {
+        return catchUpPolicy;
+    }
+
+    public int getMaxCatchUpTicks() {
+        return maxCatchUpTicks;
+    }
+
+    /**
+     * A scheduled tick along with the deadline of it's next run
+     */
+    private final class Tick implements ScheduledTick {
+        private final Runnable tick;
+        private final long periodInNanoseconds;
+        // Only touched by the thread running the tick
+        private long deadline;
+        private volatile boolean cancelled = false;
+        private volatile TickThread tickThread;
+
+        private Tick(Runnable tick, long periodInNanoseconds, long deadline) {
+            this.tick = tick;
+            this.periodInNanoseconds = periodInNanoseconds;
+            this.deadline = deadline;
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            TickThread thread = tickThread;
+            if (thread != null) {
+                // Wake the thread so it drops the tick right away, rather than at the tick's next deadline
+                thread.wakeUp();
+            }
+        }
+
+        /**
+         * Moves the deadline on to the next tick, after a tick that ran at the passed time
+         */
+        private void advanceDeadline(long now) {
+            deadline = catchUpPolicy.nextDeadline(deadline, periodInNanoseconds, now, maxCatchUpTicks);
+        }
+    }
+
+    /**
+     * A thread of the scheduler along with the ticks it runs
+     */
+    private final class TickThread implements Runnable {
+        private final String name;
+        // Guarded by this
+        private final List<Tick> ticks = new ArrayList<>();
+        private Thread thread;
+
+        private TickThread(String name) {
+            this.name = name;
+        }
+
+        private synchronized void addTick(Tick tick) {
+            ticks.add(tick);
+            tick.tickThread = this;
+            if (thread == null) {
+                thread = new Thread(this, name);
+                thread.start();
+            } else {
+                // The new tick may be due before whatever the thread is currently waiting on
+                LockSupport.unpark(thread);
+            }
+        }
+
+        private synchronized int getTickCount() {
+            return ticks.size();
+        }
+
+        private synchronized void wakeUp() {
+            if (thread != null) {
+                LockSupport.unpark(thread);
+            }
+        }
+
+        /**
+         * @return The tick with the earliest deadline, or null if there are no ticks left, in which case the thread
+         * is done
+         */
+        private synchronized Tick nextTick() {
+            ticks.removeIf(tick -> tick.cancelled);
+            if (ticks.isEmpty()) {
+                thread = null;
+                return null;
+            }
+            Tick next = ticks.get(0);
+            for (int i = 1; i < ticks.size(); i++) {
+                // Compared by difference, nano times can overflow
+                if (ticks.get(i).deadline - next.deadline < 0) {
+                    next = ticks.get(i);
+                }
+            }
+            return next;
+        }
+
+        @Override
+        public void run() {
+            Tick next;
+            while ((next = nextTick()) != null) {
+                long timeUntilDeadline = next.deadline - System.nanoTime();
+                if (timeUntilDeadline > spinThresholdInNanoseconds) {
+                    // Park most of the way, then look again as a tick may have been added or cancelled meanwhile
+                    LockSupport.parkNanos(this, timeUntilDeadline - spinThresholdInNanoseconds);
+                    continue;
+                }
+                while (next.deadline - System.nanoTime() > 0) {
+                    Thread.yield();
+                }
+                if (next.cancelled) {
+                    continue;
+                }
+                runTick(next);
+                next.advanceDeadline(System.nanoTime());
+            }
+        }
+
+        private void runTick(Tick tick) {
+            try {
+                tick.tick.run();
+            } catch (RuntimeException | Error e) {
+                // Don't let one tick take down every other tick sharing this thread
+                tick.cancel();
+                Thread current = Thread.currentThread();
+                current.getUncaughtExceptionHandler().uncaughtException(current, e);
+            }
+        }
+    }
+
+    /**
+     * PreciseTickSchedulerBuilder builds {@link PreciseTickScheduler}s.
+     */
+    public static class PreciseTickSchedulerBuilder {
+        private int threadCount = 1;
+        private String threadName = "Tick Scheduler Thread";
+        private long spinThresholdInNanoseconds = 0;
+        private CatchUpPolicy catchUpPolicy = CatchUpPolicy.burst;
+        private int maxCatchUpTicks = 1;
+
+        /**
+         * @param threadCount
+         *         Number of threads the scheduled ticks are spread over
+         */
+        public PreciseTickSchedulerBuilder setThreadCount(int threadCount) {
+            this.threadCount = threadCount;
+            return this;
+        }
+
+        public PreciseTickSchedulerBuilder setThreadName(String threadName) {
+            this.threadName = threadName;
+            return this;
+        }
+
+        /**
+         * @param spinThresholdInNanoseconds
+         *         How long before a deadline a thread stops parking and starts spinning, 0 to never spin, which
+         *         is the default
+         */
+        public PreciseTickSchedulerBuilder setSpinThresholdInNanoseconds(long spinThresholdInNanoseconds) {
+            this.spinThresholdInNanoseconds = spinThresholdInNanoseconds;
+            return this;
+        }
+
+        public PreciseTickSchedulerBuilder setCatchUpPolicy(CatchUpPolicy catchUpPolicy) {
+            this.catchUpPolicy = catchUpPolicy;
+            return this;
+        }
+
+        /**
+         * @param maxCatchUpTicks
+         *         Most missed ticks run back to back when the policy is {@link CatchUpPolicy#clamp}
+         */
+        public PreciseTickSchedulerBuilder setMaxCatchUpTicks(int maxCatchUpTicks) {
+            this.maxCatchUpTicks = maxCatchUpTicks;
+            return this;
+        }
+
+        public PreciseTickScheduler createTickScheduler() {
+            return new PreciseTickScheduler(threadCount, threadName, spinThresholdInNanoseconds, catchUpPolicy,
+                    maxCatchUpTicks);
+        }
+    }
+}
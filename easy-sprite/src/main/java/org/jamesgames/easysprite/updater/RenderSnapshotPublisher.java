@@ -0,0 +1,43 @@
+package org.jamesgames.easysprite.updater;
+
+import net.jcip.annotations.ThreadSafe;
+import org.jamesgames.easysprite.sprite.RenderSnapshot;
+import org.jamesgames.easysprite.sprite.Sprite;
+
+/**
+ * RenderSnapshotPublisher is an {@link UpdateAction} that takes a {@link RenderSnapshot} of a Sprite at the end of every
+ * update and publishes it as the latest snapshot. A renderer reads the latest snapshot with {@link
+ * RenderSnapshotPublisher#getLatestRenderSnapshot()} while the next one is being built, so the renderer always draws a
+ * complete update and never waits on the updating thread for any Sprite lock.
+ * <p>
+ * Add it to the {@link SpriteUpdater} of the Sprite before any UpdateAction that asks for a new render.
+ *
+ * @author James Murphy
+ */
+@ThreadSafe
+public final class RenderSnapshotPublisher implements UpdateAction {
+
+    private final Sprite spriteToSnapshot;
+
+    /**
+     * Snapshot published by the most recent update, replaced as a whole each update so readers never see a partially
+     * built snapshot
+     */
+    private volatile RenderSnapshot latestRenderSnapshot = RenderSnapshot.empty;
+
+    public RenderSnapshotPublisher(Sprite spriteToSnapshot) {
+        this.spriteToSnapshot = spriteToSnapshot;
+    }
+
+    @Override
+    public void updateAction(long elapsedTimeInMilliseconds) {
+        latestRenderSnapshot = spriteToSnapshot.createRenderSnapshot();
+    }
+
+    /**
+     * @return Snapshot taken at the end of the most recent update, or an empty snapshot if there has not been one yet
+     */
+    public RenderSnapshot getLatestRenderSnapshot() {
+        return latestRenderSnapshot;
+    }
+}
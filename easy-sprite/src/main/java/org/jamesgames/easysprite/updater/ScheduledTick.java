@@ -0,0 +1,13 @@
+package org.jamesgames.easysprite.updater;
+
+/**
+ * ScheduledTick is a tick that has been scheduled with a {@link TickScheduler}
+ *
+ * @author James Murphy
+ */
+public interface ScheduledTick {
+    /**
+     * Stops the tick from running again. A tick currently running is not interrupted. Safe to call more than once.
+     */
+    void cancel();
+}
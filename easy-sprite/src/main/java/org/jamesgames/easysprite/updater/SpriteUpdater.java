@@ -4,21 +4,38 @@ import net.jcip.annotations.ThreadSafe;
 import org.jamesgames.easysprite.sprite.Sprite;
 import org.jamesgames.jamesjavautils.time.ActionsPerTimeFrameCounter;
 
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
-import java.util.Timer;
-import java.util.TimerTask;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * SpriteUpdater updates a {@link Sprite} at a specific rate on a separate thread, supplying how much time has been
  * elapsed since the last update from the SpriteUpdater. SpriteUpdater can also execute {@link UpdateAction}s during
  * each update to update any other pieces of data that the user wants updated per action (a good example UpdateAction
  * would be a to repaint the graphics of an application). SpriteUpdater updates in fixed-rate execution, where each
- * execution is scheduled relative to the scheduled execution time of the initial execution.  If an execution is delayed
- * for any reason (such as garbage collection or other background activity), two or more executions will occur in rapid
- * succession to "catch up."  In the long run, the frequency of execution will be exactly the reciprocal of the
- * specified period (assuming the system clock underlying Object.wait(long) is accurate). (comments partly taken from
- * java.util.Timer spec).
+ * execution is scheduled relative to the scheduled execution time of the initial execution. Updates are run by a
+ * {@link TickScheduler}, by default a {@link PreciseTickScheduler} with a thread of it's own that catches up with
+ * {@link CatchUpPolicy#burst}: If an execution is delayed for any reason (such as garbage collection or other
+ * background activity), two or more executions will occur in rapid succession to "catch up." In the long run, the
+ * frequency of execution will be exactly the reciprocal of the specified period. (comments partly taken from
+ * java.util.Timer spec). A TickScheduler can be passed in instead to pick another catch up policy, or to share threads
+ * between many SpriteUpdaters.
+ * <p>
+ * By default each update hands the Sprite however many whole milliseconds have elapsed since the last update, carrying
+ * the leftover fraction of a millisecond over to the next update so no time is lost. With {@link
+ * SpriteUpdater#useFixedTimestep(int, int)} the Sprite is instead always updated in steps of the same length, as many
+ * steps as the elapsed time allows, and {@link SpriteUpdater#getInterpolationAlpha()} tells renderers how far along the
+ * next step currently is.
+ * <p>
+ * Each update runs a pipeline of {@link UpdateStage}s in order. By default the pipeline is the {@link
+ * SpriteUpdater#spriteUpdateStageName} stage, which updates the Sprite, followed by the {@link
+ * SpriteUpdater#defaultStageName} stage, which holds the UpdateActions added with {@link
+ * SpriteUpdater#addAdditionalActionPerUpdate(UpdateAction)}. More stages can be added before or after any stage, to
+ * run actions at a specific point of each update. Every stage runs once per update, and it's actions are handed the
+ * total time the Sprite is updated by during that update.
  *
  * @author James Murphy
  */
@@ -40,6 +57,18 @@ public final class SpriteUpdater {
 
     private static final String spriteUpdaterThreadName = "Sprite Updater Thread";
 
+    /**
+     * Name of the built in stage that updates the Sprite, any actions of the stage are executed after the Sprite's
+     * updates
+     */
+    public static final String spriteUpdateStageName = "Sprite Update";
+
+    /**
+     * Name of the built in stage holding the additional actions per update, which comes right after the Sprite update
+     * stage unless stages are added in between
+     */
+    public static final String defaultStageName = "Default";
+
 
     /**
      * The sprite to be updated at the specified interval
@@ -53,30 +82,62 @@ public final class SpriteUpdater {
             new ActionsPerTimeFrameCounter(timeToCalculateNewUpsValue);
 
     /**
-     * Timer used to execute the TimerTask used to update
+     * Scheduler used to run each update
      */
-    private final Timer updateTimer = new Timer(spriteUpdaterThreadName);
+    private final TickScheduler updateScheduler;
 
     /**
-     * References the most recently created TimerTask to update the Sprite and execute other additional update actions
+     * References the most recently scheduled tick to update the Sprite and execute other additional update actions, or
+     * null if never scheduled
      */
-    private TimerTask updateTask = new TimerTask() {
-        @Override
-        public void run() {
-            // do nothing default initialization
-        }
-    };
+    private ScheduledTick updateTask;
 
     /**
-     * The system nano time from the last update, used to calculate how much time elapsed from one update to the next
+     * Held for the whole of each update, so that an update stepped on the calling thread never overlaps with a
+     * scheduled update that was already running when updating was stopped. Separate from the lock of this
+     * SpriteUpdater, so changing how the SpriteUpdater updates doesn't wait for an update to finish.
+     */
+    private final Object updateLock = new Object();
+
+    /**
+     * The system nano time from the last update, used to calculate how much time elapsed from one update to the next,
+     * guarded by updateLock
      */
     private long systemNanoTimeFromLastUpdate = System.nanoTime();
 
     /**
-     * Set of additional actions to do during each update. Example usage could be to tell some other piece of software
-     * to make another render, or to log some data
+     * Elapsed time not yet handed to the Sprite, guarded by updateLock
+     */
+    private long accumulatedNanoseconds = 0;
+
+    /**
+     * Length of one step in nanoseconds when updating with a fixed timestep, or 0 when updating with the elapsed time
+     */
+    private volatile long fixedTimestepInNanoseconds = 0;
+
+    /**
+     * Most fixed steps taken in one update, time beyond that is dropped so a long stall doesn't snowball into ever
+     * longer updates
+     */
+    private volatile int maxFixedTimestepsPerUpdate = 1;
+
+    /**
+     * How far along the next fixed step is, from 0 to 1, see {@link SpriteUpdater#getInterpolationAlpha()}
+     */
+    private volatile float interpolationAlpha = 1;
+
+    private final UpdateStage spriteUpdateStage = new UpdateStage(spriteUpdateStageName, false);
+
+    /**
+     * Stage of the additional actions to do during each update. Example usage could be to tell some other piece of
+     * software to make another render, or to log some data
+     */
+    private final UpdateStage defaultStage = new UpdateStage(defaultStageName, false);
+
+    /**
+     * Stages run in order every update, replaced as a whole when changed so that running them doesn't need the lock
      */
-    private final Set<UpdateAction> additionalActionsPerUpdate = new HashSet<>();
+    private volatile UpdateStage[] updateStages = {spriteUpdateStage, defaultStage};
 
     /**
      * Set of update listeners listening for things such as new calculated updates per second values
@@ -89,6 +150,16 @@ public final class SpriteUpdater {
      */
     private float lastUpdatesPerSecondValue = 0;
 
+    /**
+     * Pool to update the Sprite on in parallel, or null to update the Sprite on the updating thread alone
+     */
+    private volatile ForkJoinPool parallelUpdatePool;
+
+    /**
+     * Most child sprites updated one after another by one task when updating in parallel
+     */
+    private volatile int childSpritesPerParallelTask;
+
     /**
      * Creates a new SpriteUpdater which updates every time the amount of milliseconds supplied elapses. Sprite will
      * begin updating immediately.
@@ -99,55 +170,300 @@ public final class SpriteUpdater {
      *         Amount of time to elapse for new update to occur
      */
     public SpriteUpdater(Sprite spriteToUpdate, int updateSpeedInMilliseconds) {
+        this(spriteToUpdate, updateSpeedInMilliseconds,
+                new PreciseTickScheduler.PreciseTickSchedulerBuilder().setThreadName(spriteUpdaterThreadName)
+                        .createTickScheduler());
+    }
+
+    /**
+     * Creates a new SpriteUpdater which updates every time the amount of milliseconds supplied elapses, with updates
+     * run by the passed TickScheduler. Sprite will begin updating immediately.
+     *
+     * @param spriteToUpdate
+     *         sprite to be updated at the specified interval
+     * @param updateSpeedInMilliseconds
+     *         Amount of time to elapse for new update to occur
+     * @param updateScheduler
+     *         Scheduler to run the updates, which can be shared with other SpriteUpdaters
+     */
+    public SpriteUpdater(Sprite spriteToUpdate, int updateSpeedInMilliseconds, TickScheduler updateScheduler) {
         if (updateSpeedInMilliseconds <= 0) {
             throw new IllegalArgumentException("Update speed in milliseconds must be greater than 0");
         }
+        if (updateScheduler == null) {
+            throw new IllegalArgumentException("Update scheduler cannot be null");
+        }
         this.spriteToUpdate = spriteToUpdate;
+        this.updateScheduler = updateScheduler;
         scheduleSpriteUpdate(updateSpeedInMilliseconds);
     }
 
+    /**
+     * Creates a new SpriteUpdater that doesn't update the Sprite on it's own, the Sprite is only updated when calling
+     * {@link SpriteUpdater#stepTicks(int, long)}, or once updates are scheduled with {@link
+     * SpriteUpdater#scheduleSpriteUpdate(int)}.
+     *
+     * @param spriteToUpdate
+     *         sprite to be updated
+     */
+    public SpriteUpdater(Sprite spriteToUpdate) {
+        this.spriteToUpdate = spriteToUpdate;
+        this.updateScheduler = new PreciseTickScheduler.PreciseTickSchedulerBuilder()
+                .setThreadName(spriteUpdaterThreadName).createTickScheduler();
+    }
+
     /**
      * Stops the updating of the Sprite. To update again, call {@link SpriteUpdater#scheduleSpriteUpdate(int)}. This
      * method is safe to call even if this SpriteUpdater was not already updating.
      */
     public synchronized void stopUpdating() {
         // safe to call if not scheduled
-        updateTask.cancel();
+        if (updateTask != null) {
+            updateTask.cancel();
+            updateTask = null;
+        }
     }
 
     /**
-     * Set how often the Sprite should update.
+     * Set how often the Sprite should update. The first update after this call only hands the Sprite the time that
+     * passed since this call.
      *
      * @param updateSpeedInMilliseconds
      *         How often a update should occur
      */
-    public synchronized void scheduleSpriteUpdate(int updateSpeedInMilliseconds) {
-        // Stops the current updating task, a new one will replace it
-        stopUpdating();
-        // Create the update task which will simply call updateData
-        updateTask = new TimerTask() {
-            @Override
-            public void run() {
-                updateData();
+    public void scheduleSpriteUpdate(int updateSpeedInMilliseconds) {
+        // Elapsed time is measured from now, so time that passed while not updating on a schedule, or left over from
+        // stepping, isn't handed to the Sprite all at once by the first update. Not done holding the lock of this
+        // SpriteUpdater, as UpdateActions of an update still running may need it.
+        synchronized (updateLock) {
+            systemNanoTimeFromLastUpdate = System.nanoTime();
+            accumulatedNanoseconds = 0;
+        }
+        synchronized (this) {
+            // Stops the current updating task, a new one will replace it
+            stopUpdating();
+            // Schedule the update task which will simply call updateData
+            updateTask = updateScheduler.scheduleAtFixedRate(this::updateData,
+                    (long) updateSpeedInMilliseconds * numberOfNanosecondsInMillisecond);
+        }
+    }
+
+    /**
+     * Updates the Sprite right away on the calling thread, tickCount times one after another, as if deltaInNanoseconds
+     * elapsed before each update, without looking at the system clock at all. Everything else about each update is the
+     * same as a scheduled update, including UpdateActions, and fixed timestep updates if in use. Useful to simulate a
+     * Sprite as fast as possible, such as on a server or in tests, and combined with a seeded random source (see
+     * {@link Sprite#setRandom(java.util.Random)}) the outcome is reproducible.
+     *
+     * @param tickCount
+     *         Number of updates to make
+     * @param deltaInNanoseconds
+     *         Time that passes before each update
+     * @throws IllegalStateException
+     *         if the Sprite is currently updating on a schedule, stop updating first
+     */
+    public void stepTicks(int tickCount, long deltaInNanoseconds) {
+        if (tickCount < 0) {
+            throw new IllegalArgumentException("Tick count cannot be negative");
+        }
+        if (deltaInNanoseconds < 0) {
+            throw new IllegalArgumentException("Delta in nanoseconds cannot be negative");
+        }
+        synchronized (this) {
+            if (updateTask != null) {
+                throw new IllegalStateException("Sprite is updating on a schedule, stop updating before stepping");
             }
-        };
-        updateTimer.scheduleAtFixedRate(updateTask, 0,
-                updateSpeedInMilliseconds);
+        }
+        // Waits for a scheduled update still running since updating was stopped to finish. Not done holding the lock
+        // of this SpriteUpdater, as UpdateActions of that update may still need it.
+        synchronized (updateLock) {
+            for (int i = 0; i < tickCount; i++) {
+                update(deltaInNanoseconds);
+            }
+        }
+    }
+
+    /**
+     * Has each update of the Sprite update subtrees of child sprites in parallel on the passed pool, see {@link
+     * Sprite#updateAllInParallel(long, ForkJoinPool, int)} for what that requires of the Sprites. Updates still
+     * happen at the same rate and UpdateActions are still executed on the updating thread, only the work of updating
+     * the Sprite is spread over the pool. The Sprite must then not be drawn directly while it's updated, have it drawn
+     * from the snapshots of a {@link RenderSnapshotPublisher} instead.
+     *
+     * @param pool
+     *         Pool to update the Sprite on, such as {@link ForkJoinPool#commonPool()}
+     * @param childSpritesPerTask
+     *         Most child sprites updated one after another by one task, lists of child sprites longer than this are
+     *         split into multiple tasks
+     */
+    public synchronized void updateInParallel(ForkJoinPool pool, int childSpritesPerTask) {
+        if (pool == null) {
+            throw new IllegalArgumentException("Pool cannot be null");
+        }
+        if (childSpritesPerTask <= 0) {
+            throw new IllegalArgumentException("Child sprites per task must be greater than 0");
+        }
+        this.childSpritesPerParallelTask = childSpritesPerTask;
+        this.parallelUpdatePool = pool;
+    }
+
+    /**
+     * Goes back to updating the Sprite on the updating thread alone, which is the default
+     */
+    public synchronized void updateSequentially() {
+        parallelUpdatePool = null;
+    }
+
+    public synchronized boolean isUpdatingInParallel() {
+        return parallelUpdatePool != null;
+    }
+
+    /**
+     * Has the Sprite always be updated in steps of the same length. Each update takes as many steps as the elapsed time
+     * allows (which may be none), and keeps the remaining time in nanoseconds for the next update, so the simulation
+     * neither drifts from real time nor jitters between step lengths. UpdateActions are still executed once per update,
+     * with the total time stepped during that update.
+     * <p>
+     * Sprites are updated by whole milliseconds, so the step length is too, and a step rate that doesn't divide a
+     * second evenly can't be matched exactly. A 60 Hz step (16.67 milliseconds) for instance has to be either 16
+     * milliseconds (62.5 steps per second) or 17 milliseconds (about 58.8 steps per second).
+     *
+     * @param stepLengthInMilliseconds
+     *         Length of one step, the elapsed time each Sprite update is given
+     * @param maxStepsPerUpdate
+     *         Most steps taken in one update, elapsed time beyond that is dropped and the simulation falls behind real
+     *         time rather than trying to catch up
+     */
+    public synchronized void useFixedTimestep(int stepLengthInMilliseconds, int maxStepsPerUpdate) {
+        if (stepLengthInMilliseconds <= 0) {
+            throw new IllegalArgumentException("Step length in milliseconds must be greater than 0");
+        }
+        if (maxStepsPerUpdate <= 0) {
+            throw new IllegalArgumentException("Max steps per update must be greater than 0");
+        }
+        this.maxFixedTimestepsPerUpdate = maxStepsPerUpdate;
+        this.fixedTimestepInNanoseconds = (long) stepLengthInMilliseconds * numberOfNanosecondsInMillisecond;
+    }
+
+    /**
+     * Goes back to updating the Sprite with all elapsed time every update, which is the default
+     */
+    public synchronized void useVariableTimestep() {
+        fixedTimestepInNanoseconds = 0;
+    }
+
+    public synchronized boolean isUsingFixedTimestep() {
+        return fixedTimestepInNanoseconds != 0;
+    }
+
+    /**
+     * How far along the next fixed step currently is, from 0 (a step was just taken) to 1 (a step is due). Renderers
+     * can blend the position of a Sprite from the start of the last step to the end of it by this amount to render
+     * smoothly at any refresh rate, see {@link Sprite#getInterpolatedXDrawingCoordinateTopLeft(float)}. Always 1 when
+     * not updating with a fixed timestep.
+     */
+    public float getInterpolationAlpha() {
+        return interpolationAlpha;
+    }
+
+    /**
+     * Adds an action to the {@link SpriteUpdater#defaultStageName} stage, actions of a stage are executed in the order
+     * they were added
+     */
+    public void addAdditionalActionPerUpdate(UpdateAction action) {
+        defaultStage.addAction(action);
+    }
+
+    public void removeAdditionalActionPerUpdate(UpdateAction action) {
+        defaultStage.removeAction(action);
+    }
+
+    /**
+     * Adds a new stage to the pipeline, run right before the named stage every update
+     *
+     * @param stageName
+     *         Name of the stage to run the new stage before
+     * @param newStageName
+     *         Name of the new stage, which must not be the name of another stage
+     * @param runningActionsInParallel
+     *         If true, the actions of the new stage are executed all at once rather than one after another
+     * @return The new stage, to add actions to
+     */
+    public synchronized UpdateStage addStageBefore(String stageName, String newStageName,
+            boolean runningActionsInParallel) {
+        return addStage(indexOfStage(stageName), newStageName, runningActionsInParallel);
     }
 
-    public synchronized void addAdditionalActionPerUpdate(UpdateAction action) {
-        boolean actionNotYetAdded = additionalActionsPerUpdate.add(action);
-        if (!actionNotYetAdded) {
-            throw new IllegalArgumentException("Action is already added to this SpriteUpdater");
+    /**
+     * Adds a new stage to the pipeline, run right after the named stage every update
+     *
+     * @param stageName
+     *         Name of the stage to run the new stage after
+     * @param newStageName
+     *         Name of the new stage, which must not be the name of another stage
+     * @param runningActionsInParallel
+     *         If true, the actions of the new stage are executed all at once rather than one after another
+     * @return The new stage, to add actions to
+     */
+    public synchronized UpdateStage addStageAfter(String stageName, String newStageName,
+            boolean runningActionsInParallel) {
+        return addStage(indexOfStage(stageName) + 1, newStageName, runningActionsInParallel);
+    }
+
+    private UpdateStage addStage(int index, String newStageName, boolean runningActionsInParallel) {
+        if (findStage(newStageName) != null) {
+            throw new IllegalArgumentException("A stage with that name already exists in this SpriteUpdater");
         }
+        UpdateStage newStage = new UpdateStage(newStageName, runningActionsInParallel);
+        UpdateStage[] newUpdateStages = new UpdateStage[updateStages.length + 1];
+        System.arraycopy(updateStages, 0, newUpdateStages, 0, index);
+        newUpdateStages[index] = newStage;
+        System.arraycopy(updateStages, index, newUpdateStages, index + 1, updateStages.length - index);
+        updateStages = newUpdateStages;
+        return newStage;
+    }
+
+    /**
+     * Removes a stage added to the pipeline, along with it's actions. The built in stages can't be removed.
+     */
+    public synchronized void removeStage(String stageName) {
+        int index = indexOfStage(stageName);
+        UpdateStage stage = updateStages[index];
+        if (stage == spriteUpdateStage || stage == defaultStage) {
+            throw new IllegalArgumentException("Built in stages can't be removed");
+        }
+        UpdateStage[] newUpdateStages = new UpdateStage[updateStages.length - 1];
+        System.arraycopy(updateStages, 0, newUpdateStages, 0, index);
+        System.arraycopy(updateStages, index + 1, newUpdateStages, index, newUpdateStages.length - index);
+        updateStages = newUpdateStages;
+    }
+
+    public synchronized UpdateStage getStage(String stageName) {
+        return updateStages[indexOfStage(stageName)];
+    }
+
+    /**
+     * @return The stages of the pipeline in the order they run
+     */
+    public List<UpdateStage> getStages() {
+        return Collections.unmodifiableList(Arrays.asList(updateStages));
     }
 
-    public synchronized void removeAdditionalActionPerUpdate(UpdateAction action) {
-        boolean actionExisted = additionalActionsPerUpdate.remove(action);
+    private int indexOfStage(String stageName) {
+        UpdateStage stage = findStage(stageName);
+        if (stage == null) {
+            throw new IllegalArgumentException("No stage with that name exists in this SpriteUpdater");
+        }
+        return Arrays.asList(updateStages).indexOf(stage);
+    }
 
-        if (!actionExisted) {
-            throw new IllegalArgumentException("Action has not been added to this SpriteUpdater");
+    private UpdateStage findStage(String stageName) {
+        for (UpdateStage stage : updateStages) {
+            if (stage.getName().equals(stageName)) {
+                return stage;
+            }
         }
+        return null;
     }
 
     public synchronized void addUpdateListener(UpdateListener listener) {
@@ -166,29 +482,84 @@ public final class SpriteUpdater {
     }
 
     private void updateData() {
-        long elapsedTimeInNanoseconds = System.nanoTime() - systemNanoTimeFromLastUpdate;
-
-        systemNanoTimeFromLastUpdate += elapsedTimeInNanoseconds;
+        synchronized (updateLock) {
+            long currentSystemNanoTime = System.nanoTime();
+            long elapsedTimeInNanoseconds = currentSystemNanoTime - systemNanoTimeFromLastUpdate;
+            systemNanoTimeFromLastUpdate = currentSystemNanoTime;
+            update(elapsedTimeInNanoseconds);
+        }
+    }
 
-        long elapsedTimeInMilliseconds = elapsedTimeInNanoseconds / numberOfNanosecondsInMillisecond;
+    /**
+     * Must be called holding updateLock
+     */
+    private void update(long elapsedTimeInNanoseconds) {
+        accumulatedNanoseconds += elapsedTimeInNanoseconds;
+
+        long stepLengthInNanoseconds = fixedTimestepInNanoseconds;
+        long elapsedTimeInMilliseconds;
+        long spriteUpdateLengthInMilliseconds;
+        int spriteUpdates;
+        float newInterpolationAlpha;
+        if (stepLengthInNanoseconds != 0) {
+            long steps = accumulatedNanoseconds / stepLengthInNanoseconds;
+            int maxSteps = maxFixedTimestepsPerUpdate;
+            if (steps > maxSteps) {
+                // Too far behind, drop the time that doesn't fit in the allowed steps but keep the partial step
+                accumulatedNanoseconds = accumulatedNanoseconds % stepLengthInNanoseconds +
+                        maxSteps * stepLengthInNanoseconds;
+                steps = maxSteps;
+            }
+            accumulatedNanoseconds -= steps * stepLengthInNanoseconds;
+            spriteUpdateLengthInMilliseconds = stepLengthInNanoseconds / numberOfNanosecondsInMillisecond;
+            spriteUpdates = (int) steps;
+            elapsedTimeInMilliseconds = steps * spriteUpdateLengthInMilliseconds;
+            newInterpolationAlpha = (float) accumulatedNanoseconds / stepLengthInNanoseconds;
+        } else {
+            // Only hand over whole milliseconds, the remainder is kept for the next update rather than being lost
+            elapsedTimeInMilliseconds = accumulatedNanoseconds / numberOfNanosecondsInMillisecond;
+            accumulatedNanoseconds -= elapsedTimeInMilliseconds * numberOfNanosecondsInMillisecond;
+            spriteUpdateLengthInMilliseconds = elapsedTimeInMilliseconds;
+            spriteUpdates = 1;
+            newInterpolationAlpha = 1;
+        }
 
+        ForkJoinPool pool = parallelUpdatePool;
+        ForkJoinPool parallelStagePool = pool != null ? pool : ForkJoinPool.commonPool();
+        for (UpdateStage stage : updateStages) {
+            long stageStartTime = System.nanoTime();
+            if (stage == spriteUpdateStage) {
+                for (int i = 0; i < spriteUpdates; i++) {
+                    updateSprite(spriteUpdateLengthInMilliseconds, pool);
+                }
+                interpolationAlpha = newInterpolationAlpha;
+            }
+            stage.runActions(elapsedTimeInMilliseconds, parallelStagePool);
+            stage.recordRunDuration(System.nanoTime() - stageStartTime);
+        }
 
-        // Update the sprite and all of it's child sprites
-        spriteToUpdate.updateAll(elapsedTimeInMilliseconds);
+        updateUpdatesPerSecondCounter(spriteUpdates);
+    }
 
-        // Update all the additional UpdateActions
-        for (UpdateAction action : additionalActionsPerUpdate) {
-            action.updateAction(elapsedTimeInMilliseconds);
+    /**
+     * Update the sprite and all of it's child sprites
+     */
+    private void updateSprite(long elapsedTimeInMilliseconds, ForkJoinPool pool) {
+        if (pool != null) {
+            spriteToUpdate.updateAllInParallel(elapsedTimeInMilliseconds, pool, childSpritesPerParallelTask);
+        } else {
+            spriteToUpdate.updateAll(elapsedTimeInMilliseconds);
         }
-
-        updateUpdatesPerSecondCounter();
     }
 
     /**
      * Update updates per second counter and notify listeners if needed
+     *
+     * @param spriteUpdates
+     *         Number of times the Sprite was updated, which is the number of steps when updating with a fixed timestep
      */
-    private void updateUpdatesPerSecondCounter() {
-        updatesPerSecondCounter.addActions(amountOfActionsPerGameUpdate);
+    private void updateUpdatesPerSecondCounter(int spriteUpdates) {
+        updatesPerSecondCounter.addActions(spriteUpdates * amountOfActionsPerGameUpdate);
         float currentUpdatesPerSecond = updatesPerSecondCounter.getActionCountPerTimeFrame();
         if (lastUpdatesPerSecondValue != currentUpdatesPerSecond) {
             // Updates per second value changed, notify all listeners
@@ -0,0 +1,22 @@
+package org.jamesgames.easysprite.updater;
+
+/**
+ * TickScheduler repeatedly runs ticks (such as the updates of a {@link SpriteUpdater}) at a fixed rate. Implementations
+ * decide what threads the ticks run on and how closely the deadlines of each tick are met, and a single TickScheduler
+ * can be shared by many SpriteUpdaters.
+ *
+ * @author James Murphy
+ */
+public interface TickScheduler {
+    /**
+     * Starts running the passed tick every period, starting immediately. A tick is never run by more than one thread
+     * at a time, so a tick does not need to guard against running concurrently with itself.
+     *
+     * @param tick
+     *         What to run every period
+     * @param periodInNanoseconds
+     *         Time from the deadline of one tick to the deadline of the next
+     * @return Handle to stop the tick from running again
+     */
+    ScheduledTick scheduleAtFixedRate(Runnable tick, long periodInNanoseconds);
+}
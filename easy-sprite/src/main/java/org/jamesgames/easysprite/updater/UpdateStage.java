@@ -0,0 +1,192 @@
+package org.jamesgames.easysprite.updater;
+
+import net.jcip.annotations.ThreadSafe;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * UpdateStage is a named stage of the pipeline a {@link SpriteUpdater} runs every update, holding {@link UpdateAction}s
+ * that are executed in the order they were added. Stages are added to a SpriteUpdater around it's built in stages, see
+ * {@link SpriteUpdater#addStageBefore(String, String, boolean)}, to run actions at a specific point of each update,
+ * such as before the Sprite is updated, or before rendering.
+ * <p>
+ * The actions of a stage that runs actions in parallel are executed all at once on the parallel update pool of the
+ * SpriteUpdater, or on the common pool if it has none, and the stage is done once all of them are. Running a stage
+ * doesn't allocate, the actions are held in an array that's only copied when actions are added or removed.
+ * <p>
+ * The time each run of the stage took is kept, see {@link UpdateStage#getLastRunDurationInNanoseconds()}.
+ *
+ * @author James Murphy
+ */
+@ThreadSafe
+public final class UpdateStage {
+    private static final UpdateAction[] noActions = new UpdateAction[0];
+    private static final ActionTask[] noActionTasks = new ActionTask[0];
+
+    private final String name;
+    private final boolean runningActionsInParallel;
+
+    // Replaced as a whole when changed, guarded by this when changed
+    private volatile UpdateAction[] actions = noActions;
+    private volatile ActionTask[] actionTasks = noActionTasks;
+
+    // Only written by the updating thread
+    private final StageTask stageTask = new StageTask();
+    private volatile long lastRunDurationInNanoseconds = 0;
+    private volatile long totalRunDurationInNanoseconds = 0;
+    private volatile long runCount = 0;
+
+    UpdateStage(String name, boolean runningActionsInParallel) {
+        if (name == null) {
+            throw new IllegalArgumentException("Stage name cannot be null");
+        }
+        this.name = name;
+        this.runningActionsInParallel = runningActionsInParallel;
+    }
+
+    public synchronized void addAction(UpdateAction action) {
+        if (action == null) {
+            throw new IllegalArgumentException("Action cannot be null");
+        }
+        if (indexOfAction(action) != -1) {
+            throw new IllegalArgumentException("Action is already added to this stage");
+        }
+        UpdateAction[] newActions = Arrays.copyOf(actions, actions.length + 1);
+        newActions[actions.length] = action;
+        setActions(newActions);
+    }
+
+    public synchronized void removeAction(UpdateAction action) {
+        int index = indexOfAction(action);
+        if (index == -1) {
+            throw new IllegalArgumentException("Action has not been added to this stage");
+        }
+        UpdateAction[] newActions = new UpdateAction[actions.length - 1];
+        System.arraycopy(actions, 0, newActions, 0, index);
+        System.arraycopy(actions, index + 1, newActions, index, newActions.length - index);
+        setActions(newActions);
+    }
+
+    private int indexOfAction(UpdateAction action) {
+        for (int i = 0; i < actions.length; i++) {
+            if (actions[i] == action) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void setActions(UpdateAction[] newActions) {
+        if (runningActionsInParallel) {
+            ActionTask[] newActionTasks = new ActionTask[newActions.length];
+            for (int i = 0; i < newActions.length; i++) {
+                newActionTasks[i] = new ActionTask(newActions[i]);
+            }
+            actionTasks = newActionTasks;
+        }
+        actions = newActions;
+    }
+
+    public synchronized int getActionCount() {
+        return actions.length;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public boolean isRunningActionsInParallel() {
+        return runningActionsInParallel;
+    }
+
+    /**
+     * @return How long the most recent run of this stage took, including the Sprite updates of the built in Sprite
+     * update stage
+     */
+    public long getLastRunDurationInNanoseconds() {
+        return lastRunDurationInNanoseconds;
+    }
+
+    /**
+     * @return How long all runs of this stage took together
+     */
+    public long getTotalRunDurationInNanoseconds() {
+        return totalRunDurationInNanoseconds;
+    }
+
+    public long getRunCount() {
+        return runCount;
+    }
+
+    /**
+     * Executes the actions of the stage, only called by the updating thread of a SpriteUpdater, one run at a time
+     */
+    void runActions(long elapsedTimeInMilliseconds, ForkJoinPool parallelPool) {
+        if (runningActionsInParallel) {
+            ActionTask[] tasks = actionTasks;
+            if (tasks.length == 0) {
+                return;
+            }
+            // The tasks are reused every run, which is fine as a stage only runs once at a time
+            for (ActionTask task : tasks) {
+                task.reinitialize();
+                task.elapsedTimeInMilliseconds = elapsedTimeInMilliseconds;
+            }
+            stageTask.reinitialize();
+            stageTask.tasks = tasks;
+            parallelPool.invoke(stageTask);
+        } else {
+            for (UpdateAction action : actions) {
+                action.updateAction(elapsedTimeInMilliseconds);
+            }
+        }
+    }
+
+    /**
+     * Keeps the time a run of the stage took, only called by the updating thread of a SpriteUpdater
+     */
+    void recordRunDuration(long runDurationInNanoseconds) {
+        lastRunDurationInNanoseconds = runDurationInNanoseconds;
+        totalRunDurationInNanoseconds += runDurationInNanoseconds;
+        runCount++;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+
+    /**
+     * Runs all action tasks of a run of the stage at once
+     */
+    @SuppressWarnings("serial")
+    private static final class StageTask extends RecursiveAction {
+        private ActionTask[] tasks;
+
+        @Override
+        protected void compute() {
+            ForkJoinTask.invokeAll(tasks);
+        }
+    }
+
+    /**
+     * Executes one action of a stage that runs actions in parallel
+     */
+    @SuppressWarnings("serial")
+    private static final class ActionTask extends RecursiveAction {
+        private final UpdateAction action;
+        private long elapsedTimeInMilliseconds;
+
+        private ActionTask(UpdateAction action) {
+            this.action = action;
+        }
+
+        @Override
+        protected void compute() {
+            action.updateAction(elapsedTimeInMilliseconds);
+        }
+    }
+}
@@ -0,0 +1,310 @@
+package org.jamesgames.easysprite.updater;
+
+import net.jcip.annotations.ThreadSafe;
+import org.jamesgames.easysprite.sprite.Sprite;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.Comparator;
+import java.util.PriorityQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * WorldScheduler is a {@link TickScheduler} built to drive a large number of independent worlds (root Sprites, each
+ * with their own {@link SpriteUpdater}) within one application, without a thread per world. One dispatching thread
+ * keeps every world ordered by the deadline of it's next tick, and hands each world to a bounded pool of worker threads
+ * once it's due, or to a virtual thread per tick when the runtime supports virtual threads and the scheduler was built
+ * to use them.
+ * <p>
+ * Worlds are dispatched strictly in the order of their deadlines, worlds with the same deadline in the order they
+ * became due, and worker threads take dispatched worlds first come first served, so no world is starved by others even
+ * when the workers can't keep up. A world is never ticked by two threads at once, it's next deadline is only
+ * scheduled once it's current tick finished, after which the {@link CatchUpPolicy} decides what to do with any ticks
+ * it missed. Each world has it's own tick rate, and it's own {@link UpdateAction}s and {@link UpdateListener}s through
+ * it's SpriteUpdater.
+ * <p>
+ * A tick that throws an exception is cancelled, and the exception is handed to the worker thread's uncaught exception
+ * handler. Idle threads end on their own, and {@link WorldScheduler#shutdown()} stops every world for good.
+ *
+ * @author James Murphy
+ */
+@ThreadSafe
+public final class WorldScheduler implements TickScheduler {
+
+    private static final long idleWorkerThreadKeepAliveInSeconds = 1;
+
+    private final ExecutorService tickExecutor;
+    private final boolean usingVirtualThreads;
+    private final String threadName;
+    private final CatchUpPolicy catchUpPolicy;
+    private final int maxCatchUpTicks;
+
+    /**
+     * Deadlines are compared relative to this, so that overflowing nano times still compare in the right order
+     */
+    private final long deadlineOrigin = System.nanoTime();
+
+    // Guarded by this
+    private final PriorityQueue<World> worldsByDeadline = new PriorityQueue<>(
+            Comparator.<World>comparingLong(world -> world.deadline - deadlineOrigin)
+                    .thenComparingLong(world -> world.queueSequenceNumber));
+    private Thread dispatchThread;
+    private long nextQueueSequenceNumber = 0;
+    private boolean shutdown = false;
+
+    private WorldScheduler(int workerThreadCount, boolean usingVirtualThreadsIfAvailable, String threadName,
+            CatchUpPolicy catchUpPolicy, int maxCatchUpTicks) {
+        if (workerThreadCount <= 0) {
+            throw new IllegalArgumentException("Worker thread count must be greater than 0");
+        }
+        if (catchUpPolicy == null) {
+            throw new IllegalArgumentException("Catch up policy cannot be null");
+        }
+        if (maxCatchUpTicks <= 0) {
+            throw new IllegalArgumentException("Max catch up ticks must be greater than 0");
+        }
+        this.threadName = threadName;
+        this.catchUpPolicy = catchUpPolicy;
+        this.maxCatchUpTicks = maxCatchUpTicks;
+        ExecutorService virtualThreadExecutor =
+                usingVirtualThreadsIfAvailable ? createVirtualThreadPerTaskExecutorIfAvailable() : null;
+        usingVirtualThreads = virtualThreadExecutor != null;
+        tickExecutor = usingVirtualThreads ? virtualThreadExecutor : createWorkerThreadPool(workerThreadCount);
+    }
+
+    /**
+     * Looked up by reflection, as virtual threads only exist on newer runtimes than this library is built for
+     *
+     * @return Executor starting a virtual thread per task, or null if the runtime has no virtual threads
+     */
+    private static ExecutorService createVirtualThreadPerTaskExecutorIfAvailable() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException e) {
+            return null;
+        }
+    }
+
+    private ExecutorService createWorkerThreadPool(int workerThreadCount) {
+        AtomicInteger workerThreadsCreated = new AtomicInteger();
+        // An unbounded queue is what keeps the workers first come first served, the number of worlds bounds it anyway
+        ThreadPoolExecutor workerThreadPool = new ThreadPoolExecutor(workerThreadCount, workerThreadCount,
+                idleWorkerThreadKeepAliveInSeconds, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+                runnable -> new Thread(runnable, threadName + " Worker " + workerThreadsCreated.incrementAndGet()));
+        workerThreadPool.allowCoreThreadTimeOut(true);
+        return workerThreadPool;
+    }
+
+    /**
+     * Starts updating the passed root Sprite as a world of this scheduler. Add {@link UpdateAction}s and {@link
+     * UpdateListener}s for the world to the returned SpriteUpdater, and stop the world with {@link
+     * SpriteUpdater#stopUpdating()}.
+     *
+     * @param rootSprite
+     *         Root Sprite of the world
+     * @param updateSpeedInMilliseconds
+     *         Time between updates of the world
+     * @return The updater of the world, running on this scheduler
+     */
+    public SpriteUpdater addWorld(Sprite rootSprite, int updateSpeedInMilliseconds) {
+        return new SpriteUpdater(rootSprite, updateSpeedInMilliseconds, this);
+    }
+
+    @Override
+    public ScheduledTick scheduleAtFixedRate(Runnable tick, long periodInNanoseconds) {
+        if (tick == null) {
+            throw new IllegalArgumentException("Tick cannot be null");
+        }
+        if (periodInNanoseconds <= 0) {
+            throw new IllegalArgumentException("Period must be greater than 0");
+        }
+        World world = new World(tick, periodInNanoseconds, System.nanoTime());
+        enqueue(world);
+        return world;
+    }
+
+    /**
+     * Cancels every world and stops all threads of the scheduler, no worlds can be added afterwards. Ticks currently
+     * running are not interrupted.
+     */
+    public void shutdown() {
+        synchronized (this) {
+            shutdown = true;
+            worldsByDeadline.forEach(world -> world.cancelled = true);
+            worldsByDeadline.clear();
+            if (dispatchThread != null) {
+                LockSupport.unpark(dispatchThread);
+            }
+        }
+        tickExecutor.shutdown();
+    }
+
+    public synchronized boolean isShutdown() {
+        return shutdown;
+    }
+
+    /**
+     * @return True if ticks run on virtual threads, false if they run on the bounded pool of worker threads
+     */
+    public boolean isUsingVirtualThreads() {
+        return usingVirtualThreads;
+    }
+
+    public String getThreadName() {
+        return threadName;
+    }
+
+    public CatchUpPolicy getCatchUpPolicy() {
+        return catchUpPolicy;
+    }
+
+    public int getMaxCatchUpTicks() {
+        return maxCatchUpTicks;
+    }
+
+    private synchronized void enqueue(World world) {
+        if (shutdown) {
+            world.cancelled = true;
+            return;
+        }
+        world.queueSequenceNumber = nextQueueSequenceNumber++;
+        worldsByDeadline.add(world);
+        if (dispatchThread == null) {
+            dispatchThread = new Thread(this::dispatchWorlds, threadName + " Dispatcher");
+            dispatchThread.start();
+        } else if (worldsByDeadline.peek() == world) {
+            // Due before whatever the dispatching thread is currently waiting on
+            LockSupport.unpark(dispatchThread);
+        }
+    }
+
+    private void dispatchWorlds() {
+        while (true) {
+            World dueWorld;
+            long nanosecondsUntilNextDeadline;
+            synchronized (this) {
+                World next = worldsByDeadline.peek();
+                if (next == null) {
+                    // Nothing left to dispatch, a new thread is started once there is
+                    dispatchThread = null;
+                    return;
+                }
+                nanosecondsUntilNextDeadline = next.deadline - System.nanoTime();
+                dueWorld = nanosecondsUntilNextDeadline <= 0 ? worldsByDeadline.poll() : null;
+            }
+            if (dueWorld == null) {
+                LockSupport.parkNanos(this, nanosecondsUntilNextDeadline);
+            } else if (!dueWorld.cancelled) {
+                try {
+                    tickExecutor.execute(dueWorld);
+                } catch (RejectedExecutionException e) {
+                    // Only happens once shut down, at which point the world is already cancelled
+                }
+            }
+        }
+    }
+
+    /**
+     * A scheduled tick of one world along with the deadline of it's next run
+     */
+    private final class World implements ScheduledTick, Runnable {
+        private final Runnable tick;
+        private final long periodInNanoseconds;
+        // Only touched by whichever thread currently holds the world, which is one thread at a time
+        private long deadline;
+        private long queueSequenceNumber;
+        private volatile boolean cancelled = false;
+
+        private World(Runnable tick, long periodInNanoseconds, long deadline) {
+            this.tick = tick;
+            this.periodInNanoseconds = periodInNanoseconds;
+            this.deadline = deadline;
+        }
+
+        @Override
+        public void cancel() {
+            // Dropped by the dispatching thread when it comes up, or not scheduled again if currently running
+            cancelled = true;
+        }
+
+        @Override
+        public void run() {
+            if (cancelled) {
+                return;
+            }
+            try {
+                tick.run();
+            } catch (RuntimeException | Error e) {
+                cancel();
+                Thread current = Thread.currentThread();
+                current.getUncaughtExceptionHandler().uncaughtException(current, e);
+                return;
+            }
+            if (!cancelled) {
+                deadline = catchUpPolicy.nextDeadline(deadline, periodInNanoseconds, System.nanoTime(),
+                        maxCatchUpTicks);
+                enqueue(this);
+            }
+        }
+    }
+
+    /**
+     * WorldSchedulerBuilder builds {@link WorldScheduler}s.
+     */
+    public static class WorldSchedulerBuilder {
+        private int workerThreadCount = Runtime.getRuntime().availableProcessors();
+        private boolean usingVirtualThreadsIfAvailable = false;
+        private String threadName = "World Scheduler";
+        private CatchUpPolicy catchUpPolicy = CatchUpPolicy.skip;
+        private int maxCatchUpTicks = 1;
+
+        /**
+         * @param workerThreadCount
+         *         Most threads ticking worlds at once, when not using virtual threads
+         */
+        public WorldSchedulerBuilder setWorkerThreadCount(int workerThreadCount) {
+            this.workerThreadCount = workerThreadCount;
+            return this;
+        }
+
+        /**
+         * @param usingVirtualThreadsIfAvailable
+         *         If true, ticks run on virtual threads when the runtime supports them, otherwise on the bounded pool
+         *         of worker threads
+         */
+        public WorldSchedulerBuilder setUsingVirtualThreadsIfAvailable(boolean usingVirtualThreadsIfAvailable) {
+            this.usingVirtualThreadsIfAvailable = usingVirtualThreadsIfAvailable;
+            return this;
+        }
+
+        public WorldSchedulerBuilder setThreadName(String threadName) {
+            this.threadName = threadName;
+            return this;
+        }
+
+        public WorldSchedulerBuilder setCatchUpPolicy(CatchUpPolicy catchUpPolicy) {
+            this.catchUpPolicy = catchUpPolicy;
+            return this;
+        }
+
+        /**
+         * @param maxCatchUpTicks
+         *         Most missed ticks of a world run back to back when the policy is {@link CatchUpPolicy#clamp}
+         */
+        public WorldSchedulerBuilder setMaxCatchUpTicks(int maxCatchUpTicks) {
+            this.maxCatchUpTicks = maxCatchUpTicks;
+            return this;
+        }
+
+        public WorldScheduler createWorldScheduler() {
+            return new WorldScheduler(workerThreadCount, usingVirtualThreadsIfAvailable, threadName, catchUpPolicy,
+                    maxCatchUpTicks);
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package org.jamesgames.easysprite.animation;
+
+import org.junit.Test;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.*;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author James Murphy
+ */
+public class TextureAtlasTest {
+
+    private final Random random = new Random(99);
+
+    @Test
+    public void packedFramesDrawTheSamePixelsAsTheOriginalFrames() {
+        List<AnimationDescription> descriptions = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            descriptions.add(createAnimationDescription(4, 8, 40));
+        }
+        // Small atlas images, so the frames need many shelves and more than one image
+        TextureAtlas atlas = new TextureAtlas.TextureAtlasBuilder().addAnimationDescriptions(descriptions)
+                .setMaxAtlasImageSize(96, 96).createTextureAtlas();
+
+        assertTrue(atlas.getAtlasImages().size() > 1);
+        for (BufferedImage atlasImage : atlas.getAtlasImages()) {
+            assertTrue(atlasImage.getWidth() <= 96 && atlasImage.getHeight() <= 96);
+        }
+        for (AnimationDescription description : descriptions) {
+            AnimationDescription packed = atlas.getPackedAnimationDescription(description);
+            assertEquals(description.getNumberOfFrames(), packed.getNumberOfFrames());
+            for (int i = 0; i < description.getNumberOfFrames(); i++) {
+                AnimationFrame packedFrame = packed.getFrameAtIndex(i);
+                assertTrue(packedFrame.isPacked());
+                assertTrue(atlas.getAtlasImages().stream().anyMatch(image -> image == packedFrame.getFrameImage()));
+                // Any frame placed over another one would have overwritten some of it's pixels
+                assertSamePixels(description.getFrameAtIndex(i), packedFrame);
+            }
+        }
+    }
+
+    @Test
+    public void framesAreLaidOutOnShelvesTallestFirst() {
+        // Two frames per shelf fit within the max width, with the padding between them
+        AnimationDescription description = new AnimationDescription.AnimationDescriptionBuilder()
+                .setAnimationFramesToUse(Arrays.asList(createFrame(30, 10, 50), createFrame(30, 20, 50),
+                        createFrame(30, 10, 50), createFrame(30, 20, 50))).createAnimation();
+        TextureAtlas atlas = new TextureAtlas.TextureAtlasBuilder().addAnimationDescription(description)
+                .setMaxAtlasImageSize(64, 64).setPaddingBetweenFrames(2).createTextureAtlas();
+
+        assertEquals(1, atlas.getAtlasImages().size());
+        // A shelf of the two taller frames, then a shelf of the two shorter frames below it
+        assertEquals(62, atlas.getAtlasImages().get(0).getWidth());
+        assertEquals(32, atlas.getAtlasImages().get(0).getHeight());
+        for (int i = 0; i < description.getNumberOfFrames(); i++) {
+            assertSamePixels(description.getFrameAtIndex(i), atlas.getPackedAnimationDescription(description)
+                    .getFrameAtIndex(i));
+        }
+    }
+
+    @Test
+    public void packedDescriptionsKeepFrameTimingAndLooping() {
+        AnimationDescription description = new AnimationDescription.AnimationDescriptionBuilder()
+                .setAnimationFramesToUse(Arrays.asList(createFrame(10, 10, 50), createFrame(12, 8, 75),
+                        createFrame(6, 6, 100))).setFrameIndexToLoopBackTo(1).setLooping(true).createAnimation();
+        AnimationDescription packed = new TextureAtlas.TextureAtlasBuilder().addAnimationDescription(description)
+                .createTextureAtlas().getPackedAnimationDescription(description);
+
+        assertEquals(1, packed.getFrameIndexToLoopBackTo());
+        assertTrue(packed.isLooping());
+        for (int i = 0; i < description.getNumberOfFrames(); i++) {
+            AnimationFrame frame = description.getFrameAtIndex(i);
+            AnimationFrame packedFrame = packed.getFrameAtIndex(i);
+            assertEquals(frame.getLengthOfFrameInMilliseconds(), packedFrame.getLengthOfFrameInMilliseconds());
+            assertEquals(frame.getWidthOfFrame(), packedFrame.getWidthOfFrame());
+            assertEquals(frame.getHeightOfFrame(), packedFrame.getHeightOfFrame());
+        }
+    }
+
+    @Test
+    public void frameSharedByManyDescriptionsIsPackedOnce() {
+        AnimationFrame sharedFrame = createFrame(16, 16, 50);
+        AnimationDescription first = new AnimationDescription.AnimationDescriptionBuilder()
+                .setAnimationFramesToUse(Arrays.asList(sharedFrame, createFrame(16, 16, 50))).createAnimation();
+        AnimationDescription second = new AnimationDescription.AnimationDescriptionBuilder()
+                .setAnimationFramesToUse(Arrays.asList(createFrame(8, 8, 50), sharedFrame)).createAnimation();
+        TextureAtlas atlas = new TextureAtlas.TextureAtlasBuilder().addAnimationDescription(first)
+                .addAnimationDescription(second).addAnimationDescription(first).createTextureAtlas();
+
+        assertEquals(3, atlas.getPackedFrameCount());
+        assertEquals(2, atlas.getPackedAnimationDescriptions().size());
+        assertSame(atlas.getPackedAnimationDescription(first).getFrameAtIndex(0),
+                atlas.getPackedAnimationDescription(second).getFrameAtIndex(1));
+    }
+
+    @Test
+    public void frameLargerThanTheMaxAtlasImageSizeGetsAnImageOfItsOwn() {
+        AnimationFrame largeFrame = createFrame(200, 30, 50);
+        AnimationDescription description = new AnimationDescription.AnimationDescriptionBuilder()
+                .setAnimationFramesToUse(Arrays.asList(createFrame(20, 20, 50), largeFrame)).createAnimation();
+        TextureAtlas atlas = new TextureAtlas.TextureAtlasBuilder().addAnimationDescription(description)
+                .setMaxAtlasImageSize(64, 64).createTextureAtlas();
+
+        AnimationFrame packedLargeFrame = atlas.getPackedAnimationDescription(description).getFrameAtIndex(1);
+        assertEquals(200, packedLargeFrame.getFrameImage().getWidth());
+        assertSamePixels(largeFrame, packedLargeFrame);
+        assertSamePixels(description.getFrameAtIndex(0),
+                atlas.getPackedAnimationDescription(description).getFrameAtIndex(0));
+    }
+
+    @Test
+    public void memoryReportCountsTheImagesBeforeAndAfterPacking() {
+        List<AnimationDescription> descriptions = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            descriptions.add(createAnimationDescription(3, 10, 20));
+        }
+        TextureAtlas atlas = new TextureAtlas.TextureAtlasBuilder().addAnimationDescriptions(descriptions)
+                .createTextureAtlas();
+
+        assertEquals(30, atlas.getImageCountBeforePacking());
+        assertEquals(1, atlas.getAtlasImages().size());
+        assertTrue(atlas.getPixelUsage() > 0 && atlas.getPixelUsage() <= 1);
+        assertTrue(atlas.getMemoryReport().contains("Packed 30 frames"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void descriptionThatWasNotPackedIsRejected() {
+        AnimationDescription packedDescription = createAnimationDescription(1, 8, 8);
+        new TextureAtlas.TextureAtlasBuilder().addAnimationDescription(packedDescription).createTextureAtlas()
+                .getPackedAnimationDescription(createAnimationDescription(1, 8, 8));
+    }
+
+    private AnimationDescription createAnimationDescription(int frameCount, int minSize, int maxSize) {
+        List<AnimationFrame> frames = new ArrayList<>();
+        for (int i = 0; i < frameCount; i++) {
+            frames.add(createFrame(minSize + random.nextInt(maxSize - minSize + 1),
+                    minSize + random.nextInt(maxSize - minSize + 1), 50));
+        }
+        return new AnimationDescription.AnimationDescriptionBuilder().setAnimationFramesToUse(frames)
+                .createAnimation();
+    }
+
+    /**
+     * @return A frame filled with random pixels, so that any pixel drawn from the wrong place is noticed
+     */
+    private AnimationFrame createFrame(int width, int height, long lengthInMilliseconds) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < height; y++) {
+                image.setRGB(x, y, random.nextInt() | 0xFF000000);
+            }
+        }
+        return new AnimationFrame(image, lengthInMilliseconds);
+    }
+
+    private static void assertSamePixels(AnimationFrame expected, AnimationFrame actual) {
+        BufferedImage expectedPixels = drawFrame(expected);
+        BufferedImage actualPixels = drawFrame(actual);
+        for (int x = 0; x < expected.getWidthOfFrame(); x++) {
+            for (int y = 0; y < expected.getHeightOfFrame(); y++) {
+                assertEquals("Pixel " + x + "," + y, expectedPixels.getRGB(x, y), actualPixels.getRGB(x, y));
+            }
+        }
+    }
+
+    private static BufferedImage drawFrame(AnimationFrame frame) {
+        BufferedImage image =
+                new BufferedImage(frame.getWidthOfFrame(), frame.getHeightOfFrame(), BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = image.createGraphics();
+        g.setComposite(AlphaComposite.Src);
+        frame.drawFrame(g, 0, 0);
+        g.dispose();
+        return image;
+    }
+}
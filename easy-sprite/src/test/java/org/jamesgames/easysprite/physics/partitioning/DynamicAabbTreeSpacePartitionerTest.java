@@ -0,0 +1,12 @@
+package org.jamesgames.easysprite.physics.partitioning;
+
+/**
+ * @author James Murphy
+ */
+public class DynamicAabbTreeSpacePartitionerTest extends SpacePartitionerTestBase {
+
+    @Override
+    protected SpacePartitioner createPartitioner() {
+        return new DynamicAabbTreeSpacePartitioner();
+    }
+}
@@ -0,0 +1,14 @@
+package org.jamesgames.easysprite.physics.partitioning;
+
+/**
+ * @author James Murphy
+ */
+public class LooseQuadTreeSpacePartitionerTest extends SpacePartitionerTestBase {
+
+    @Override
+    protected SpacePartitioner createPartitioner() {
+        // A small node capacity so the tree splits and merges often, covering less than all the Sprites so some of them
+        // are kept in the root node for being outside the tree
+        return new LooseQuadTreeSpacePartitioner(0, 0, 960, 960, 6, 4);
+    }
+}
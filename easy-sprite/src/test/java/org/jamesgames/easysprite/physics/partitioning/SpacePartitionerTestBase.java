@@ -0,0 +1,232 @@
+package org.jamesgames.easysprite.physics.partitioning;
+
+import org.jamesgames.easysprite.physics.simple.SimpleShapeCollisionDetection;
+import org.jamesgames.easysprite.sprite.Sprite;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.awt.*;
+import java.util.*;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks a {@link SpacePartitioner} against {@link SimpleSpacePartitioner}, which hands out every Sprite, by filling
+ * both with the same randomly placed Sprites and comparing what they find once the potential results of each are
+ * tested exactly. Subclasses create the partitioner being checked.
+ *
+ * @author James Murphy
+ */
+public abstract class SpacePartitionerTestBase {
+
+    private static final int worldSize = 1000;
+    private static final int spriteCount = 150;
+    private static final int lookupCount = 200;
+
+    private Random random;
+    private SpacePartitioner partitioner;
+    private SpacePartitioner oracle;
+    private List<Sprite> sprites;
+
+    protected abstract SpacePartitioner createPartitioner();
+
+    @Before
+    public void setUp() {
+        random = new Random(1234);
+        partitioner = createPartitioner();
+        oracle = new SimpleSpacePartitioner();
+        sprites = new ArrayList<>();
+        for (int i = 0; i < spriteCount; i++) {
+            addSprite(createRandomSprite());
+        }
+    }
+
+    @Test
+    public void potentialCollidingPairsContainEveryIntersectingPairOnce() {
+        assertSamePairs();
+    }
+
+    @Test
+    public void potentialCollidingPairsFollowSpritesThatMoveResizeJoinAndLeave() {
+        for (int round = 0; round < 5; round++) {
+            changeSprites();
+            assertSamePairs();
+        }
+    }
+
+    @Test
+    public void potentialCollidingSpritesContainEveryIntersectingSprite() {
+        changeSprites();
+        for (Sprite sprite : sprites) {
+            assertEquals(intersectingSpritesOf(oracle, sprite), intersectingSpritesOf(partitioner, sprite));
+        }
+    }
+
+    @Test
+    public void forEachInRegionFindsTheSameSprites() {
+        changeSprites();
+        for (int i = 0; i < lookupCount; i++) {
+            Rectangle region = new Rectangle(random.nextInt(worldSize + 200) - 100,
+                    random.nextInt(worldSize + 200) - 100, random.nextInt(300), random.nextInt(300));
+            Set<Sprite> expected = new HashSet<>();
+            oracle.forEachInRegion(region, expected::add);
+            List<Sprite> found = new ArrayList<>();
+            partitioner.forEachInRegion(region, found::add);
+            assertEquals("Region " + region + " found a Sprite twice", new HashSet<>(found).size(), found.size());
+            assertEquals("Region " + region, expected, new HashSet<>(found));
+        }
+    }
+
+    @Test
+    public void raycastHitsTheSameSprites() {
+        changeSprites();
+        for (int i = 0; i < lookupCount; i++) {
+            float x0 = random.nextFloat() * worldSize;
+            float y0 = random.nextFloat() * worldSize;
+            // Mostly short rays, with some crossing the whole world
+            float length = i % 10 == 0 ? worldSize * 2 : random.nextFloat() * 200;
+            double angle = random.nextDouble() * Math.PI * 2;
+            float x1 = x0 + (float) (Math.cos(angle) * length);
+            float y1 = y0 + (float) (Math.sin(angle) * length);
+            Set<Sprite> expected = new HashSet<>();
+            oracle.raycast(x0, y0, x1, y1, expected::add);
+            List<Sprite> hit = new ArrayList<>();
+            partitioner.raycast(x0, y0, x1, y1, hit::add);
+            String ray = x0 + "," + y0 + " to " + x1 + "," + y1;
+            assertEquals("Ray " + ray + " hit a Sprite twice", new HashSet<>(hit).size(), hit.size());
+            assertEquals("Ray " + ray, expected, new HashSet<>(hit));
+        }
+    }
+
+    @Test
+    public void pickFindsASpriteAtThePointWheneverThereIsOne() {
+        changeSprites();
+        for (int i = 0; i < lookupCount; i++) {
+            int x = random.nextInt(worldSize);
+            int y = random.nextInt(worldSize);
+            Sprite expected = oracle.pick(x, y);
+            Sprite picked = partitioner.pick(x, y);
+            if (expected == null) {
+                assertNull("Point " + x + "," + y, picked);
+            } else {
+                assertNotNull("Point " + x + "," + y, picked);
+                assertTrue("Point " + x + "," + y, SimpleShapeCollisionDetection.isPointInRectangle(x, y,
+                        picked.getRoundedOldXCoordinateTopLeft(), picked.getRoundedOldYCoordinateTopLeft(),
+                        picked.getWidth(), picked.getHeight()));
+            }
+        }
+    }
+
+    @Test
+    public void removedSpritesAreNoLongerFound() {
+        List<Sprite> removedSprites = new ArrayList<>(sprites.subList(0, spriteCount / 2));
+        removedSprites.forEach(this::removeSprite);
+        Set<Sprite> found = new HashSet<>();
+        partitioner.forEachInRegion(new Rectangle(-worldSize, -worldSize, worldSize * 3, worldSize * 3), found::add);
+        partitioner.applyActionWithAllPotentialCollidingPairs(sprites, (first, second) -> {
+            found.add(first);
+            found.add(second);
+        });
+        for (Sprite removedSprite : removedSprites) {
+            assertFalse(found.contains(removedSprite));
+        }
+        assertSamePairs();
+    }
+
+    private Sprite createRandomSprite() {
+        // Mostly small Sprites, with a few large ones that span many cells or nodes
+        boolean large = random.nextInt(15) == 0;
+        Sprite sprite = new Sprite(1 + random.nextInt(large ? 300 : 40), 1 + random.nextInt(large ? 300 : 40));
+        placeAsOfLastUpdate(sprite, random.nextInt(worldSize + 100) - 50, random.nextInt(worldSize + 100) - 50);
+        return sprite;
+    }
+
+    /**
+     * Partitioners look Sprites up by where they were as of the last update, which an update with no elapsed time
+     * moves them to
+     */
+    private static void placeAsOfLastUpdate(Sprite sprite, float x, float y) {
+        sprite.setXCoordinateTopLeft(x);
+        sprite.setYCoordinateTopLeft(y);
+        sprite.updateAll(0);
+    }
+
+    private void addSprite(Sprite sprite) {
+        sprites.add(sprite);
+        partitioner.addSprite(sprite);
+        oracle.addSprite(sprite);
+    }
+
+    private void removeSprite(Sprite sprite) {
+        sprites.remove(sprite);
+        partitioner.removeSprite(sprite);
+        oracle.removeSprite(sprite);
+    }
+
+    /**
+     * Moves most Sprites a little and some of them far, resizes some, and replaces a few with new Sprites
+     */
+    private void changeSprites() {
+        for (Sprite sprite : sprites) {
+            int change = random.nextInt(10);
+            if (change < 6) {
+                placeAsOfLastUpdate(sprite, sprite.getXCoordinateTopLeft() + random.nextInt(21) - 10,
+                        sprite.getYCoordinateTopLeft() + random.nextInt(21) - 10);
+            } else if (change < 8) {
+                placeAsOfLastUpdate(sprite, random.nextInt(worldSize), random.nextInt(worldSize));
+            } else if (change < 9) {
+                sprite.setWidth(1 + random.nextInt(80));
+                sprite.setHeight(1 + random.nextInt(80));
+                sprite.updateAll(0);
+            }
+            partitioner.updatePosition(sprite);
+            oracle.updatePosition(sprite);
+        }
+        for (int i = 0; i < spriteCount / 10; i++) {
+            removeSprite(sprites.get(random.nextInt(sprites.size())));
+            addSprite(createRandomSprite());
+        }
+    }
+
+    private void assertSamePairs() {
+        Set<Set<Sprite>> expectedPairs = new HashSet<>();
+        oracle.applyActionWithAllPotentialCollidingPairs(sprites, (first, second) -> {
+            if (intersect(first, second)) {
+                expectedPairs.add(unorderedPair(first, second));
+            }
+        });
+        Set<Set<Sprite>> handedOutPairs = new HashSet<>();
+        Set<Set<Sprite>> intersectingPairs = new HashSet<>();
+        partitioner.applyActionWithAllPotentialCollidingPairs(sprites, (first, second) -> {
+            assertNotSame("A Sprite was paired with itself", first, second);
+            assertTrue("A pair was handed out twice", handedOutPairs.add(unorderedPair(first, second)));
+            if (intersect(first, second)) {
+                intersectingPairs.add(unorderedPair(first, second));
+            }
+        });
+        assertFalse(expectedPairs.isEmpty());
+        assertEquals(expectedPairs, intersectingPairs);
+    }
+
+    private static Set<Sprite> intersectingSpritesOf(SpacePartitioner partitioner, Sprite sprite) {
+        Set<Sprite> intersectingSprites = new HashSet<>();
+        partitioner.applyActionWithAllPotentialCollidingSprites(sprite, potentialCollidingSprite -> {
+            if (potentialCollidingSprite != sprite && intersect(sprite, potentialCollidingSprite)) {
+                intersectingSprites.add(potentialCollidingSprite);
+            }
+        });
+        return intersectingSprites;
+    }
+
+    private static boolean intersect(Sprite first, Sprite second) {
+        return SimpleShapeCollisionDetection.doRectanglesIntersect(first.getRoundedOldXCoordinateTopLeft(),
+                first.getRoundedOldYCoordinateTopLeft(), first.getWidth(), first.getHeight(),
+                second.getRoundedOldXCoordinateTopLeft(), second.getRoundedOldYCoordinateTopLeft(),
+                second.getWidth(), second.getHeight());
+    }
+
+    private static Set<Sprite> unorderedPair(Sprite first, Sprite second) {
+        return new HashSet<>(Arrays.asList(first, second));
+    }
+}
@@ -0,0 +1,153 @@
+package org.jamesgames.easysprite.sprite;
+
+import org.jamesgames.easysprite.physics.partitioning.SimpleSpacePartitioner;
+import org.jamesgames.easysprite.physics.simple.SimpleCollisionDirection;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks that child sprites added, removed, or moved while their parent sprite is being updated are changed in one
+ * batch once the update is done, in the order the changes were requested
+ *
+ * @author James Murphy
+ */
+public class DeferredChildSpriteChangeTest {
+
+    private Sprite parent;
+    private CountingSprite first;
+    private CountingSprite second;
+    private CountingSprite third;
+
+    @Before
+    public void setUp() {
+        parent = new Sprite(100, 100);
+        first = new CountingSprite();
+        second = new CountingSprite();
+        third = new CountingSprite();
+        parent.addChildSprites(Arrays.asList(first, second, third));
+    }
+
+    @Test
+    public void spriteAddedDuringUpdateIsAddedOnceTheUpdateIsDone() {
+        CountingSprite added = new CountingSprite();
+        int[] childSpriteCountDuringUpdate = new int[1];
+        first.actionDuringNextUpdate = () -> {
+            parent.addChildSprite(added);
+            childSpriteCountDuringUpdate[0] = parent.getChildSpriteCount();
+        };
+        parent.updateAll(16);
+
+        assertEquals(3, childSpriteCountDuringUpdate[0]);
+        assertEquals(Arrays.asList(first, second, third, added), childSpritesOf(parent));
+        assertTrue(added.hasParentSprite());
+        assertEquals("Added Sprite shouldn't be updated by the update it was added during", 0, added.updateCount);
+    }
+
+    @Test
+    public void spriteRemovedDuringUpdateIsStillUpdatedByThatUpdate() {
+        first.actionDuringNextUpdate = () -> parent.removeChildSprite(third);
+        parent.updateAll(16);
+
+        assertEquals(1, third.updateCount);
+        assertEquals(Arrays.asList(first, second), childSpritesOf(parent));
+        assertFalse(third.hasParentSprite());
+    }
+
+    @Test
+    public void changesAreAppliedInTheOrderTheyWereRequested() {
+        CountingSprite addedFirst = new CountingSprite();
+        CountingSprite addedSecond = new CountingSprite();
+        second.actionDuringNextUpdate = () -> {
+            parent.addChildSprite(addedFirst);
+            parent.removeChildSprite(first);
+            parent.addChildSprite(addedSecond);
+            parent.removeChildSprite(second);
+        };
+        parent.updateAll(16);
+
+        assertEquals(Arrays.asList(third, addedFirst, addedSecond), childSpritesOf(parent));
+    }
+
+    @Test
+    public void changesMadeDuringAParallelUpdateAreBatchedTheSameWay() {
+        CountingSprite added = new CountingSprite();
+        third.actionDuringNextUpdate = () -> {
+            parent.removeChildSprite(first);
+            parent.addChildSprite(added);
+        };
+        parent.updateAllInParallel(16, ForkJoinPool.commonPool(), 1);
+
+        assertEquals(Arrays.asList(second, third, added), childSpritesOf(parent));
+        assertEquals(1, first.updateCount);
+        assertEquals(0, added.updateCount);
+    }
+
+    @Test
+    public void spriteMovedDuringUpdateJoinsTheNewParentSpriteOnceTheUpdateIsDone() {
+        Sprite newParent = new Sprite(100, 100);
+        parent.addChildSprite(newParent);
+        first.setXCoordinateTopLeft(12);
+        first.actionDuringNextUpdate = () -> parent.moveChildSprite(first, newParent);
+        parent.updateAll(16);
+
+        assertEquals(Arrays.asList(second, third, newParent), childSpritesOf(parent));
+        assertEquals(Arrays.asList(first), childSpritesOf(newParent));
+        assertEquals(12, first.getXCoordinateTopLeft(), 0);
+    }
+
+    @Test
+    public void spriteRemovedWhileHandlingACollisionIsRemovedOnceTheUpdateIsDone() {
+        Sprite world = new Sprite(100, 100);
+        world.setSpacePartitioner(new SimpleSpacePartitioner());
+        List<Sprite> collidedWith = new ArrayList<>();
+        Sprite destroyer = new Sprite(10, 10) {
+            @Override
+            protected synchronized void handleCollision(Sprite collidingSprite, SimpleCollisionDirection direction) {
+                collidedWith.add(collidingSprite);
+                world.removeChildSprite(collidingSprite);
+            }
+        };
+        Sprite target = new Sprite(10, 10);
+        target.setXCoordinateTopLeft(5);
+        Sprite bystander = new Sprite(10, 10);
+        bystander.setXCoordinateTopLeft(50);
+        world.addChildSprites(Arrays.asList(destroyer, target, bystander));
+        world.updateAll(16);
+
+        assertEquals(Arrays.asList(target), collidedWith);
+        assertEquals(Arrays.asList(destroyer, bystander), childSpritesOf(world));
+        assertFalse(target.hasParentSprite());
+    }
+
+    private static List<Sprite> childSpritesOf(Sprite sprite) {
+        List<Sprite> childSprites = new ArrayList<>();
+        sprite.forEach(childSprites::add);
+        return childSprites;
+    }
+
+    private static class CountingSprite extends Sprite {
+        private volatile int updateCount = 0;
+        private volatile Runnable actionDuringNextUpdate;
+
+        private CountingSprite() {
+            super(10, 10);
+        }
+
+        @Override
+        protected synchronized void updateBeforeChildren(long elapsedTimeInMilliseconds) {
+            updateCount++;
+            Runnable action = actionDuringNextUpdate;
+            actionDuringNextUpdate = null;
+            if (action != null) {
+                action.run();
+            }
+        }
+    }
+}
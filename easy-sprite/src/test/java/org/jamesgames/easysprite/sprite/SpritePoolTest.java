@@ -0,0 +1,104 @@
+package org.jamesgames.easysprite.sprite;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author James Murphy
+ */
+public class SpritePoolTest {
+
+    private SpritePool<RecyclableSprite> pool;
+
+    @Before
+    public void setUp() {
+        pool = new SpritePool<>(RecyclableSprite::new, 2);
+    }
+
+    @Test
+    public void releasedSpriteIsResetAndObtainedAgain() {
+        RecyclableSprite sprite = pool.obtain();
+        sprite.setXCoordinateTopLeft(40);
+        sprite.setYVelocity(3);
+        pool.release(sprite);
+
+        assertSame(sprite, pool.obtain());
+        assertEquals(1, pool.getMissCount());
+        assertEquals(1, pool.getHitCount());
+        assertEquals(0, sprite.getXCoordinateTopLeft(), 0);
+        assertEquals(0, sprite.getYVelocity(), 0);
+        assertEquals(1, sprite.recycleCount);
+        // Size is kept, as it's usually the same for every Sprite of a pool
+        assertEquals(10, sprite.getWidth());
+    }
+
+    @Test
+    public void poolHoldsNoMoreThanTheMax() {
+        pool.release(new RecyclableSprite());
+        pool.release(new RecyclableSprite());
+        pool.release(new RecyclableSprite());
+        assertEquals(2, pool.getPooledSpriteCount());
+    }
+
+    @Test
+    public void fillCreatesSpritesUpToTheMax() {
+        pool.fill(5);
+        assertEquals(2, pool.getPooledSpriteCount());
+        pool.obtain();
+        pool.obtain();
+        assertEquals(0, pool.getMissCount());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void spriteWithAParentSpriteCannotBeReleased() {
+        pool.release(pool.obtainAsChildSpriteOf(new Sprite()));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void spriteCannotBeReleasedTwice() {
+        RecyclableSprite sprite = pool.obtain();
+        pool.release(sprite);
+        pool.release(sprite);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void releasedSpriteCannotBeAddedToAParentSprite() {
+        RecyclableSprite sprite = pool.obtain();
+        pool.release(sprite);
+        new Sprite().addChildSprite(sprite);
+    }
+
+    @Test
+    public void spriteRecycledDuringAnUpdateIsReleasedOnceTheUpdateIsDone() {
+        Sprite parent = new Sprite(100, 100);
+        RecyclableSprite sprite = pool.obtainAsChildSpriteOf(parent);
+        Sprite recycler = new Sprite() {
+            @Override
+            protected synchronized void updateBeforeChildren(long elapsedTimeInMilliseconds) {
+                parent.recycleChildSprite(sprite, pool);
+                assertEquals(0, pool.getPooledSpriteCount());
+            }
+        };
+        parent.addChildSprite(recycler);
+        parent.updateAll(16);
+
+        assertEquals(1, parent.getChildSpriteCount());
+        assertEquals(1, pool.getPooledSpriteCount());
+        assertSame(sprite, pool.obtain());
+    }
+
+    private static class RecyclableSprite extends Sprite {
+        private int recycleCount = 0;
+
+        private RecyclableSprite() {
+            super(10, 10);
+        }
+
+        @Override
+        protected synchronized void onRecycle() {
+            recycleCount++;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package org.jamesgames.easysprite.updater;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author James Murphy
+ */
+public class CatchUpPolicyTest {
+
+    private static final long period = 10;
+
+    @Test
+    public void everyPolicyKeepsTheScheduleWhenOnTime() {
+        for (CatchUpPolicy policy : CatchUpPolicy.values()) {
+            assertEquals(policy.name(), 110, policy.nextDeadline(100, period, 103, 3));
+        }
+    }
+
+    @Test
+    public void burstRunsEveryMissedTick() {
+        // Deadlines 110 through 150 were missed, each one is run back to back
+        long deadline = 100;
+        int ticksRunBackToBack = 0;
+        while ((deadline = CatchUpPolicy.burst.nextDeadline(deadline, period, 155, 3)) <= 155) {
+            ticksRunBackToBack++;
+        }
+        assertEquals(5, ticksRunBackToBack);
+        assertEquals(160, deadline);
+    }
+
+    @Test
+    public void skipDropsMissedTicksAndStaysOnTheOriginalSchedule() {
+        assertEquals(160, CatchUpPolicy.skip.nextDeadline(100, period, 155, 3));
+        // A tick that finishes right on a deadline doesn't run that deadline late
+        assertEquals(160, CatchUpPolicy.skip.nextDeadline(100, period, 150, 3));
+    }
+
+    @Test
+    public void clampRunsNoMoreThanTheMaxMissedTicks() {
+        long now = 155;
+        long deadline = CatchUpPolicy.clamp.nextDeadline(100, period, now, 3);
+        // Missed ticks older than the max are dropped, the rest are run back to back
+        assertEquals(135, deadline);
+        int ticksRunBackToBack = 0;
+        while (deadline <= now) {
+            ticksRunBackToBack++;
+            deadline = CatchUpPolicy.clamp.nextDeadline(deadline, period, now, 3);
+        }
+        assertEquals(3, ticksRunBackToBack);
+        assertEquals(165, deadline);
+    }
+
+    @Test
+    public void clampRunsEveryMissedTickWhenFewerThanTheMax() {
+        assertEquals(110, CatchUpPolicy.clamp.nextDeadline(100, period, 125, 3));
+    }
+
+    @Test
+    public void deadlinesWrapAroundLikeSystemNanoTime() {
+        long deadline = Long.MAX_VALUE - 5;
+        long now = deadline + 55;
+        assertEquals(deadline + 60, CatchUpPolicy.skip.nextDeadline(deadline, period, now, 3));
+        assertEquals(now - 20, CatchUpPolicy.clamp.nextDeadline(deadline, period, now, 3));
+    }
+}
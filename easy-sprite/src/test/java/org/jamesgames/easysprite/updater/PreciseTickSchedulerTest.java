@@ -0,0 +1,45 @@
+package org.jamesgames.easysprite.updater;
+
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author James Murphy
+ */
+public class PreciseTickSchedulerTest {
+
+    @Test
+    public void threadsDoNotSpinUnlessAskedTo() {
+        assertEquals(0, new PreciseTickScheduler.PreciseTickSchedulerBuilder().createTickScheduler()
+                .getSpinThresholdInNanoseconds());
+    }
+
+    @Test
+    public void ticksRunUntilCancelled() throws InterruptedException {
+        PreciseTickScheduler scheduler = new PreciseTickScheduler.PreciseTickSchedulerBuilder().createTickScheduler();
+        AtomicReference<ScheduledTick> scheduledTick = new AtomicReference<>();
+        AtomicInteger tickCount = new AtomicInteger();
+        CountDownLatch cancelled = new CountDownLatch(1);
+        scheduledTick.set(scheduler.scheduleAtFixedRate(() -> {
+            if (tickCount.incrementAndGet() == 5) {
+                // The first tick runs right away, possibly before scheduleAtFixedRate returned
+                while (scheduledTick.get() == null) {
+                    Thread.yield();
+                }
+                scheduledTick.get().cancel();
+                cancelled.countDown();
+            }
+        }, TimeUnit.MILLISECONDS.toNanos(1)));
+        assertTrue(cancelled.await(5, TimeUnit.SECONDS));
+        int ticksWhenCancelled = tickCount.get();
+        Thread.sleep(20);
+        assertEquals(ticksWhenCancelled, tickCount.get());
+    }
+}
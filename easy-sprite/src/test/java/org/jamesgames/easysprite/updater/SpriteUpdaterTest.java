@@ -0,0 +1,123 @@
+package org.jamesgames.easysprite.updater;
+
+import org.jamesgames.easysprite.physics.partitioning.UniformGridSpacePartitioner;
+import org.jamesgames.easysprite.physics.simple.SimpleCollisionDirection;
+import org.jamesgames.easysprite.physics.simple.SimpleShapeCollisionDetection;
+import org.jamesgames.easysprite.sprite.Sprite;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author James Murphy
+ */
+public class SpriteUpdaterTest {
+
+    private static final long sixteenMillisecondsInNanoseconds = TimeUnit.MILLISECONDS.toNanos(16);
+
+    @Test
+    public void steppingTheSameSeededWorldGivesTheSameOutcome() {
+        List<Float> firstOutcome = stepSeededWorld(7);
+        assertEquals(firstOutcome, stepSeededWorld(7));
+        assertNotEquals(firstOutcome, stepSeededWorld(8));
+    }
+
+    @Test
+    public void eachStepHandsTheSpriteTheDelta() {
+        Sprite sprite = new Sprite(10, 10);
+        sprite.setXVelocity(1);
+        new SpriteUpdater(sprite).stepTicks(3, sixteenMillisecondsInNanoseconds);
+        assertEquals(48, sprite.getXCoordinateTopLeft(), 0);
+    }
+
+    @Test
+    public void fixedTimestepKeepsTimeThatDoesNotFillAStep() {
+        Sprite sprite = new Sprite(10, 10);
+        sprite.setXVelocity(1);
+        SpriteUpdater updater = new SpriteUpdater(sprite);
+        updater.useFixedTimestep(10, 5);
+        // 16 milliseconds is one step with 6 left over, so two ticks make three steps
+        updater.stepTicks(2, sixteenMillisecondsInNanoseconds);
+        assertEquals(30, sprite.getXCoordinateTopLeft(), 0);
+        assertEquals(0.2f, updater.getInterpolationAlpha(), 0.0001f);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void steppingIsRejectedWhileUpdatingOnASchedule() {
+        SpriteUpdater updater = new SpriteUpdater(new Sprite(), 1000);
+        try {
+            updater.stepTicks(1, sixteenMillisecondsInNanoseconds);
+        } finally {
+            updater.stopUpdating();
+        }
+    }
+
+    @Test
+    public void firstScheduledUpdateOnlyHandsOverTheTimeSinceBeingScheduled() throws InterruptedException {
+        Sprite sprite = new Sprite(10, 10);
+        sprite.setXVelocity(1);
+        SpriteUpdater updater = new SpriteUpdater(sprite);
+        updater.stepTicks(1, sixteenMillisecondsInNanoseconds);
+        // Time passing while not updating on a schedule is not handed to the Sprite once updates are scheduled
+        Thread.sleep(300);
+        CountDownLatch firstUpdate = new CountDownLatch(1);
+        updater.addAdditionalActionPerUpdate(elapsedTimeInMilliseconds -> {
+            updater.stopUpdating();
+            firstUpdate.countDown();
+        });
+        updater.scheduleSpriteUpdate(1000);
+        assertTrue(firstUpdate.await(5, TimeUnit.SECONDS));
+        assertTrue(sprite.getXCoordinateTopLeft() < 16 + 150);
+    }
+
+    /**
+     * Steps a world of bouncing Sprites that pick new random velocities now and then, from the seeded random source of
+     * the world
+     *
+     * @return Where every Sprite ended up
+     */
+    private static List<Float> stepSeededWorld(long seed) {
+        Sprite world = new Sprite(500, 500);
+        world.setSpacePartitioner(new UniformGridSpacePartitioner(50));
+        world.setRandom(new Random(seed));
+        for (int i = 0; i < 60; i++) {
+            BouncingSprite sprite = new BouncingSprite();
+            sprite.setXCoordinateTopLeft(world.getRandom().nextInt(480));
+            sprite.setYCoordinateTopLeft(world.getRandom().nextInt(480));
+            world.addChildSprite(sprite);
+        }
+        new SpriteUpdater(world).stepTicks(300, sixteenMillisecondsInNanoseconds);
+        List<Float> outcome = new ArrayList<>();
+        for (Sprite sprite : world) {
+            outcome.add(sprite.getXCoordinateTopLeft());
+            outcome.add(sprite.getYCoordinateTopLeft());
+        }
+        return outcome;
+    }
+
+    private static class BouncingSprite extends Sprite {
+        private BouncingSprite() {
+            super(12, 12);
+        }
+
+        @Override
+        protected synchronized void updateAfterChildren(long elapsedTimeInMilliseconds) {
+            if (getRandom().nextInt(50) == 0) {
+                setVelocitiesToRandomAmount(0.3f, 0.5f);
+            }
+            repositionAndReverseVelocitiesIfVeeringOffParent();
+        }
+
+        @Override
+        protected synchronized void handleCollision(Sprite collidingSprite, SimpleCollisionDirection direction) {
+            SimpleShapeCollisionDetection.moveSpritesOffOfCollidingSprite(this, collidingSprite, direction);
+            SimpleShapeCollisionDetection.changeVelocitiesIfNeededOnCollision(this, collidingSprite, direction);
+        }
+    }
+}
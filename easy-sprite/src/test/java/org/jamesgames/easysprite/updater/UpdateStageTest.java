@@ -0,0 +1,117 @@
+package org.jamesgames.easysprite.updater;
+
+import org.jamesgames.easysprite.sprite.Sprite;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author James Murphy
+ */
+public class UpdateStageTest {
+
+    private static final long sixteenMillisecondsInNanoseconds = TimeUnit.MILLISECONDS.toNanos(16);
+
+    @Test
+    public void stagesAreAddedAroundTheStageTheyAreNamedAfter() {
+        SpriteUpdater updater = new SpriteUpdater(new Sprite());
+        updater.addStageBefore(SpriteUpdater.spriteUpdateStageName, "Input", false);
+        updater.addStageAfter(SpriteUpdater.spriteUpdateStageName, "Physics", false);
+        updater.addStageAfter(SpriteUpdater.defaultStageName, "Render", false);
+        updater.addStageBefore("Render", "Audio", false);
+
+        assertEquals(Arrays.asList("Input", SpriteUpdater.spriteUpdateStageName, "Physics",
+                SpriteUpdater.defaultStageName, "Audio", "Render"), stageNamesOf(updater));
+    }
+
+    @Test
+    public void stagesRunInPipelineOrderAfterTheSpriteIsUpdated() {
+        Sprite sprite = new Sprite(10, 10);
+        sprite.setXVelocity(1);
+        SpriteUpdater updater = new SpriteUpdater(sprite);
+        updater.addStageBefore(SpriteUpdater.spriteUpdateStageName, "Input", false);
+        updater.addStageAfter(SpriteUpdater.spriteUpdateStageName, "Physics", false);
+        List<String> ran = new ArrayList<>();
+        updater.getStage("Input").addAction(elapsedTimeInMilliseconds ->
+                ran.add("Input at " + sprite.getXCoordinateTopLeft()));
+        updater.getStage("Physics").addAction(elapsedTimeInMilliseconds ->
+                ran.add("Physics at " + sprite.getXCoordinateTopLeft()));
+        updater.addAdditionalActionPerUpdate(elapsedTimeInMilliseconds -> ran.add("Default"));
+
+        updater.stepTicks(2, sixteenMillisecondsInNanoseconds);
+
+        assertEquals(Arrays.asList("Input at 0.0", "Physics at 16.0", "Default", "Input at 16.0", "Physics at 32.0",
+                "Default"), ran);
+        for (UpdateStage stage : updater.getStages()) {
+            assertEquals(2, stage.getRunCount());
+        }
+    }
+
+    @Test
+    public void parallelStageFinishesAllOfItsActionsBeforeTheNextStage() {
+        SpriteUpdater updater = new SpriteUpdater(new Sprite());
+        UpdateStage parallelStage =
+                updater.addStageBefore(SpriteUpdater.defaultStageName, "Parallel", true);
+        List<Integer> ran = Collections.synchronizedList(new ArrayList<>());
+        for (int i = 0; i < 8; i++) {
+            int action = i;
+            parallelStage.addAction(elapsedTimeInMilliseconds -> ran.add(action));
+        }
+        List<Integer> ranBeforeDefaultStage = new ArrayList<>();
+        updater.addAdditionalActionPerUpdate(elapsedTimeInMilliseconds -> ranBeforeDefaultStage.add(ran.size()));
+
+        updater.stepTicks(3, sixteenMillisecondsInNanoseconds);
+
+        assertEquals(Arrays.asList(8, 16, 24), ranBeforeDefaultStage);
+    }
+
+    @Test
+    public void removedStageNoLongerRuns() {
+        SpriteUpdater updater = new SpriteUpdater(new Sprite());
+        UpdateStage stage = updater.addStageAfter(SpriteUpdater.defaultStageName, "Removed", false);
+        stage.addAction(elapsedTimeInMilliseconds -> fail("A removed stage ran"));
+        updater.removeStage("Removed");
+
+        updater.stepTicks(1, sixteenMillisecondsInNanoseconds);
+
+        assertEquals(Arrays.asList(SpriteUpdater.spriteUpdateStageName, SpriteUpdater.defaultStageName),
+                stageNamesOf(updater));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void builtInStagesCannotBeRemoved() {
+        new SpriteUpdater(new Sprite()).removeStage(SpriteUpdater.spriteUpdateStageName);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void stageNamesAreUnique() {
+        SpriteUpdater updater = new SpriteUpdater(new Sprite());
+        updater.addStageAfter(SpriteUpdater.defaultStageName, "Physics", false);
+        updater.addStageBefore(SpriteUpdater.spriteUpdateStageName, "Physics", false);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void stageCannotBeAddedAroundAStageThatDoesNotExist() {
+        new SpriteUpdater(new Sprite()).addStageAfter("Missing", "Physics", false);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void actionCannotBeAddedToAStageTwice() {
+        UpdateStage stage = new SpriteUpdater(new Sprite()).getStage(SpriteUpdater.defaultStageName);
+        UpdateAction action = elapsedTimeInMilliseconds -> {
+        };
+        stage.addAction(action);
+        stage.addAction(action);
+    }
+
+    private static List<String> stageNamesOf(SpriteUpdater updater) {
+        return updater.getStages().stream().map(UpdateStage::getName).collect(Collectors.toList());
+    }
+}